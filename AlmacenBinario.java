@@ -0,0 +1,215 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Almacén que trabaja directo sobre tareas.bin (opción --binario).
+ *
+ * Al cargar no se arma ninguna Tarea: el ArchivoBinario queda mapeado en
+ * memoria y cada tarea se lee recién cuando alguien la pide. Como el
+ * archivo no se toca hasta el próximo guardado, los cambios se anotan aparte:
+ * - Las tareas del archivo que se completaron o eliminaron, con un bit por
+ *   registro (dos BitSet).
+ * - Las tareas nuevas, en un AlmacenObjetos común.
+ *
+ * Recorrer el almacén "mezcla" las dos partes por ID, así que el orden es
+ * el mismo que en los otros almacenes. Al guardar se escribe un tareas.bin
+ * nuevo con todo junto (ver ArchivoBinario.escribir).
+ *
+ * Igual que en el AlmacenColumnar, las Tareas devueltas son copias:
+ * cambiarlas no cambia el almacén.
+ */
+public class AlmacenBinario implements AlmacenTareas {
+
+    private ArchivoBinario base;                    // 'null' si se cargó sin tareas.bin
+    private BitSet completadasBase = new BitSet();  // Registros de 'base' completados después de cargar
+    private BitSet borradasBase = new BitSet();     // Registros de 'base' eliminados
+    private int cantidadBorradasBase;
+    private AlmacenObjetos nuevas = new AlmacenObjetos(); // Lo que se agregó después de cargar
+
+    /**
+     * Si 'tareas' es la lista de un ArchivoBinario (ver ArchivoBinario.comoLista)
+     * se usa el archivo tal cual; si no (por ejemplo, la primera vez, que se
+     * cargan de tareas.txt), todas quedan como tareas "nuevas".
+     */
+    @Override
+    public void cargar(List<Tarea> tareas) {
+        base = null;
+        completadasBase = new BitSet();
+        borradasBase = new BitSet();
+        cantidadBorradasBase = 0;
+        nuevas = new AlmacenObjetos();
+        if (tareas instanceof ArchivoBinario.Lista) {
+            ArchivoBinario archivo = ((ArchivoBinario.Lista) tareas).getArchivo();
+            if (archivo.isIdsOrdenados()) {
+                base = archivo;
+                return;
+            }
+            // Un archivo viejo con los IDs desordenados: lo leemos entero una vez.
+            tareas = archivo.cargarTodas();
+        }
+        nuevas.cargar(tareas);
+    }
+
+    @Override
+    public void agregar(Tarea tarea) {
+        nuevas.agregar(tarea);
+    }
+
+    /**
+     * @return En qué registro de 'base' está la tarea, o -1 si no está (o se eliminó).
+     */
+    private int indiceEnBase(int id) {
+        if (base == null) {
+            return -1;
+        }
+        int indice = base.buscarIndice(id);
+        return indice >= 0 && !borradasBase.get(indice) ? indice : -1;
+    }
+
+    @Override
+    public boolean contiene(int id) {
+        return indiceEnBase(id) >= 0 || nuevas.contiene(id);
+    }
+
+    @Override
+    public Tarea buscar(int id) {
+        int indice = indiceEnBase(id);
+        return indice >= 0 ? leer(base, completadasBase, indice) : nuevas.buscar(id);
+    }
+
+    /**
+     * Arma la tarea del registro 'indice', con los cambios anotados.
+     */
+    private static Tarea leer(ArchivoBinario archivo, BitSet completadas, int indice) {
+        Tarea tarea = archivo.obtener(indice);
+        if (completadas.get(indice) && !tarea.isCompletada()) {
+            tarea.setCompletada(true);
+        }
+        return tarea;
+    }
+
+    @Override
+    public Tarea marcarCompletada(int id) {
+        int indice = indiceEnBase(id);
+        if (indice < 0) {
+            return nuevas.marcarCompletada(id);
+        }
+        completadasBase.set(indice);
+        return leer(base, completadasBase, indice);
+    }
+
+    @Override
+    public boolean eliminar(int id) {
+        int indice = indiceEnBase(id);
+        if (indice < 0) {
+            return nuevas.eliminar(id);
+        }
+        borradasBase.set(indice);
+        cantidadBorradasBase++;
+        return true;
+    }
+
+    @Override
+    public int tamanio() {
+        int enBase = base == null ? 0 : base.tamanio() - cantidadBorradasBase;
+        return enBase + nuevas.tamanio();
+    }
+
+    @Override
+    public List<Tarea> todas() {
+        List<Tarea> copia = new ArrayList<>(tamanio());
+        for (Tarea tarea : this) {
+            copia.add(tarea);
+        }
+        return copia;
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return iterarDesde(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public Iterator<Tarea> iterarDesde(int despuesDeId) {
+        int desde = base == null ? 0 : base.primerIndiceMayorA(despuesDeId);
+        return new Recorrido(base, completadasBase, borradasBase, desde,
+                nuevas.iterarDesde(despuesDeId), false);
+    }
+
+    @Override
+    public Iterable<Tarea> instantanea() {
+        // El archivo no cambia (al guardar se escribe otro): alcanza con copiar
+        // los BitSet de cambios y sacar la foto de las tareas nuevas.
+        ArchivoBinario archivo = base;
+        BitSet completadas = (BitSet) completadasBase.clone();
+        BitSet borradas = (BitSet) borradasBase.clone();
+        Iterable<Tarea> fotoNuevas = nuevas.instantanea();
+        return () -> new Recorrido(archivo, completadas, borradas, 0, fotoNuevas.iterator(), false);
+    }
+
+    /**
+     * Para armar los índices no hace falta leer ninguna descripción del archivo.
+     */
+    @Override
+    public Iterable<Tarea> paraIndices() {
+        return () -> new Recorrido(base, completadasBase, borradasBase, 0, nuevas.iterator(), true);
+    }
+
+    /**
+     * Recorre a la vez los registros del archivo (desde 'indice', salteando
+     * los eliminados) y las tareas nuevas, devolviendo siempre la de menor ID.
+     */
+    private static class Recorrido implements Iterator<Tarea> {
+        private final ArchivoBinario archivo;
+        private final BitSet completadas;
+        private final BitSet borradas;
+        private final Iterator<Tarea> nuevas;
+        private final boolean sinDescripcion;
+        private int indice;
+        private Tarea proximaNueva;
+
+        Recorrido(ArchivoBinario archivo, BitSet completadas, BitSet borradas, int desde,
+                  Iterator<Tarea> nuevas, boolean sinDescripcion) {
+            this.archivo = archivo;
+            this.completadas = completadas;
+            this.borradas = borradas;
+            this.nuevas = nuevas;
+            this.sinDescripcion = sinDescripcion;
+            this.indice = archivo == null ? 0 : borradas.nextClearBit(desde);
+            this.proximaNueva = nuevas.hasNext() ? nuevas.next() : null;
+        }
+
+        private boolean quedanEnArchivo() {
+            return archivo != null && indice < archivo.tamanio();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return quedanEnArchivo() || proximaNueva != null;
+        }
+
+        @Override
+        public Tarea next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (proximaNueva != null && (!quedanEnArchivo() || proximaNueva.getId() < archivo.getId(indice))) {
+                Tarea tarea = proximaNueva;
+                proximaNueva = nuevas.hasNext() ? nuevas.next() : null;
+                return tarea;
+            }
+            Tarea tarea;
+            if (sinDescripcion) {
+                tarea = new Tarea(archivo.getId(indice), "",
+                        archivo.isCompletada(indice) || completadas.get(indice), archivo.getFechaCreacion(indice));
+            } else {
+                tarea = leer(archivo, completadas, indice);
+            }
+            indice = borradas.nextClearBit(indice + 1);
+            return tarea;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Almacén "por columnas": en vez de un objeto Tarea por tarea, guardamos
+ * cada dato en su propio arreglo (un arreglo de IDs, uno de fechas, etc.).
+ * La tarea que está en la posición 'p' es ids[p], dias[p], ...
+ *
+ * Un objeto Tarea, con su LocalDate y su String, ocupa más de 100 bytes
+ * además del texto. Acá cada tarea ocupa unos 16 bytes más su texto en UTF-8,
+ * lo que hace una gran diferencia cuando hay millones de tareas.
+ *
+ * Los objetos Tarea se crean recién cuando alguien los pide, como una
+ * "vista" (una copia) de los datos. Por eso, cambiar una Tarea devuelta
+ * (por ejemplo con setCompletada) NO cambia el almacén: los cambios
+ * tienen que hacerse a través del TareaService.
+ */
+public class AlmacenColumnar implements AlmacenTareas {
+
+    private static final int MINIMO_BORRADAS_PARA_COMPACTAR = 64;
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    // --- Las "columnas" (una posición por tarea) ---
+    private int[] ids = new int[CAPACIDAD_INICIAL];
+    private int[] dias = new int[CAPACIDAD_INICIAL];        // Fecha como "día número N desde 1970"
+    private int[] inicioTexto = new int[CAPACIDAD_INICIAL]; // Dónde empieza la descripción en 'textos'
+    private int[] largoTexto = new int[CAPACIDAD_INICIAL];  // Cuántos bytes ocupa la descripción
+    // Un bit por tarea: 64 tareas por cada 'long'.
+    private long[] completadas = new long[1];
+    private long[] borradas = new long[1];                  // Las "lápidas"
+
+    // Todas las descripciones en UTF-8, una atrás de la otra.
+    private byte[] textos = new byte[1024];
+    private int textosUsados;
+
+    private int posiciones;       // Cuántas posiciones se usaron (incluye lápidas)
+    private int cantidadBorradas;
+    private IndiceIds indice = new IndiceIds(); // ID -> posición
+    // Mientras los IDs vayan de menor a mayor, ids[] está ordenado (las
+    // lápidas conservan su ID) y se puede hacer búsqueda binaria.
+    private boolean idsOrdenados = true;
+
+    @Override
+    public void cargar(List<Tarea> tareas) {
+        if (!estanOrdenadas(tareas)) {
+            // IDs desordenados (archivo editado a mano): los ordenamos una vez acá.
+            tareas = new ArrayList<>(tareas);
+            tareas.sort(Comparator.comparingInt(Tarea::getId));
+        }
+        vaciar(Math.max(CAPACIDAD_INICIAL, tareas.size()));
+        for (Tarea tarea : tareas) {
+            agregar(tarea);
+        }
+        // El arreglo de textos crece al doble cada vez que se llena: después
+        // de una carga grande lo recortamos para no dejar espacio sin usar.
+        textos = Arrays.copyOf(textos, Math.max(1024, textosUsados));
+    }
+
+    private static boolean estanOrdenadas(List<Tarea> tareas) {
+        for (int i = 1; i < tareas.size(); i++) {
+            if (tareas.get(i - 1).getId() > tareas.get(i).getId()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void vaciar(int capacidad) {
+        ids = new int[capacidad];
+        dias = new int[capacidad];
+        inicioTexto = new int[capacidad];
+        largoTexto = new int[capacidad];
+        completadas = new long[capacidad / 64 + 1];
+        borradas = new long[capacidad / 64 + 1];
+        textos = new byte[1024];
+        textosUsados = 0;
+        posiciones = 0;
+        cantidadBorradas = 0;
+        idsOrdenados = true;
+        indice = new IndiceIds(capacidad);
+    }
+
+    @Override
+    public void agregar(Tarea tarea) {
+        asegurarCapacidad(posiciones + 1);
+        int p = posiciones++;
+        if (p > 0 && tarea.getId() <= ids[p - 1]) {
+            idsOrdenados = false;
+        }
+        ids[p] = tarea.getId();
+        dias[p] = (int) tarea.getFechaCreacion().toEpochDay();
+        byte[] texto = tarea.getDescripcion().getBytes(StandardCharsets.UTF_8);
+        inicioTexto[p] = guardarTexto(texto, 0, texto.length);
+        largoTexto[p] = texto.length;
+        ponerBit(completadas, p, tarea.isCompletada());
+        ponerBit(borradas, p, false);
+        indice.poner(tarea.getId(), p);
+    }
+
+    @Override
+    public boolean contiene(int id) {
+        return indice.obtener(id) != IndiceIds.NO_ENCONTRADO;
+    }
+
+    @Override
+    public Tarea buscar(int id) {
+        int p = indice.obtener(id);
+        return p == IndiceIds.NO_ENCONTRADO ? null : vista(p);
+    }
+
+    @Override
+    public Tarea marcarCompletada(int id) {
+        int p = indice.obtener(id);
+        if (p == IndiceIds.NO_ENCONTRADO) {
+            return null;
+        }
+        ponerBit(completadas, p, true);
+        return vista(p);
+    }
+
+    @Override
+    public boolean eliminar(int id) {
+        int p = indice.obtener(id);
+        if (p == IndiceIds.NO_ENCONTRADO) {
+            return false;
+        }
+        ponerBit(borradas, p, true);
+        indice.quitar(id);
+        cantidadBorradas++;
+        if (cantidadBorradas >= MINIMO_BORRADAS_PARA_COMPACTAR && cantidadBorradas * 2 > posiciones) {
+            compactar();
+        }
+        return true;
+    }
+
+    @Override
+    public int tamanio() {
+        return posiciones - cantidadBorradas;
+    }
+
+    @Override
+    public List<Tarea> todas() {
+        List<Tarea> lista = new ArrayList<>(tamanio());
+        for (Tarea tarea : this) {
+            lista.add(tarea);
+        }
+        return lista;
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return new Recorrido(0, Integer.MIN_VALUE);
+    }
+
+    @Override
+    public Iterator<Tarea> iterarDesde(int despuesDeId) {
+        if (!idsOrdenados) {
+            return new Recorrido(0, despuesDeId); // Caso raro: recorremos todo
+        }
+        // Búsqueda binaria de la primera posición con un ID mayor.
+        int bajo = 0;
+        int alto = posiciones;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (ids[medio] <= despuesDeId) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return new Recorrido(bajo, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Copiamos las columnas de números (unos 16 bytes por tarea) pero NO las
+     * descripciones: en 'textos' sólo se escribe al final (y compactar arma
+     * un arreglo nuevo), así que lo que la foto ya tiene no cambia nunca.
+     */
+    @Override
+    public Iterable<Tarea> instantanea() {
+        AlmacenColumnar foto = new AlmacenColumnar();
+        foto.ids = Arrays.copyOf(ids, posiciones);
+        foto.dias = Arrays.copyOf(dias, posiciones);
+        foto.inicioTexto = Arrays.copyOf(inicioTexto, posiciones);
+        foto.largoTexto = Arrays.copyOf(largoTexto, posiciones);
+        foto.completadas = Arrays.copyOf(completadas, posiciones / 64 + 1);
+        foto.borradas = Arrays.copyOf(borradas, posiciones / 64 + 1);
+        foto.textos = textos; // Compartido
+        foto.textosUsados = textosUsados;
+        foto.posiciones = posiciones;
+        foto.cantidadBorradas = cantidadBorradas;
+        // La foto sólo se recorre: no le armamos el índice por ID.
+        return foto::iterator;
+    }
+
+    /**
+     * Recorre las posiciones desde 'desde', salteando las lápidas (y las
+     * tareas con ID menor o igual a 'despuesDeId'). Cada Tarea se arma
+     * recién cuando se pide con next().
+     */
+    private class Recorrido implements Iterator<Tarea> {
+        private final int despuesDeId;
+        private int p;
+
+        Recorrido(int desde, int despuesDeId) {
+            this.despuesDeId = despuesDeId;
+            this.p = avanzar(desde);
+        }
+
+        private int avanzar(int desde) {
+            while (desde < posiciones && (leerBit(borradas, desde) || ids[desde] <= despuesDeId)) {
+                desde++;
+            }
+            return desde;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return p < posiciones;
+        }
+
+        @Override
+        public Tarea next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Tarea tarea = vista(p);
+            p = avanzar(p + 1);
+            return tarea;
+        }
+    }
+
+    /**
+     * Arma un objeto Tarea con los datos de la posición 'p'.
+     */
+    private Tarea vista(int p) {
+        String descripcion = new String(textos, inicioTexto[p], largoTexto[p], StandardCharsets.UTF_8);
+        return new Tarea(ids[p], descripcion, leerBit(completadas, p), LocalDate.ofEpochDay(dias[p]));
+    }
+
+    // --- Manejo interno de los arreglos ---
+
+    private void asegurarCapacidad(int necesaria) {
+        if (necesaria <= ids.length) {
+            return;
+        }
+        int nueva = Math.max(necesaria, ids.length + (ids.length >> 1)); // Crecemos un 50%
+        ids = Arrays.copyOf(ids, nueva);
+        dias = Arrays.copyOf(dias, nueva);
+        inicioTexto = Arrays.copyOf(inicioTexto, nueva);
+        largoTexto = Arrays.copyOf(largoTexto, nueva);
+        completadas = Arrays.copyOf(completadas, nueva / 64 + 1);
+        borradas = Arrays.copyOf(borradas, nueva / 64 + 1);
+    }
+
+    /**
+     * Copia el texto al final de 'textos' y devuelve dónde quedó.
+     */
+    private int guardarTexto(byte[] origen, int desde, int largo) {
+        if (textosUsados + largo > textos.length) {
+            long nuevo = Math.max((long) textosUsados + largo, textos.length * 2L);
+            if (nuevo > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Las descripciones ocupan demasiado para el almacén columnar");
+            }
+            textos = Arrays.copyOf(textos, (int) nuevo);
+        }
+        System.arraycopy(origen, desde, textos, textosUsados, largo);
+        int inicio = textosUsados;
+        textosUsados += largo;
+        return inicio;
+    }
+
+    /**
+     * Saca las lápidas: corre las tareas vivas hacia adelante (manteniendo
+     * el orden) y también los textos, y vuelve a armar el índice.
+     */
+    private void compactar() {
+        byte[] textosViejos = textos;
+        textos = new byte[Math.max(1024, textosUsados)];
+        textosUsados = 0;
+        indice = new IndiceIds(tamanio());
+
+        int destino = 0;
+        for (int p = 0; p < posiciones; p++) {
+            if (leerBit(borradas, p)) {
+                continue;
+            }
+            ids[destino] = ids[p];
+            dias[destino] = dias[p];
+            inicioTexto[destino] = guardarTexto(textosViejos, inicioTexto[p], largoTexto[p]);
+            largoTexto[destino] = largoTexto[p];
+            ponerBit(completadas, destino, leerBit(completadas, p));
+            indice.poner(ids[destino], destino);
+            destino++;
+        }
+        // Los bits que quedaron después de 'destino' no importan: agregar()
+        // los vuelve a escribir cuando usa esa posición.
+        Arrays.fill(borradas, 0L);
+        posiciones = destino;
+        cantidadBorradas = 0;
+    }
+
+    private static boolean leerBit(long[] bits, int p) {
+        return (bits[p >>> 6] & (1L << p)) != 0;
+    }
+
+    private static void ponerBit(long[] bits, int p, boolean valor) {
+        if (valor) {
+            bits[p >>> 6] |= 1L << p;
+        } else {
+            bits[p >>> 6] &= ~(1L << p);
+        }
+    }
+}
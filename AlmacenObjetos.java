@@ -0,0 +1,269 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * El almacén "de siempre": una lista de objetos Tarea.
+ *
+ * Al borrar una tarea no la sacamos de la lista (eso obliga a correr todos
+ * los elementos), sino que dejamos un 'null' en su lugar (una "lápida") y
+ * cada tanto compactamos. Para buscar por ID usamos un IndiceIds.
+ *
+ * Las Tareas que están en la lista no se modifican nunca: al completar una
+ * se pone en su lugar una copia completada ("copiar al escribir"). Así una
+ * instantánea sólo tiene que copiar el arreglo de referencias, y lo que ve
+ * no cambia aunque después se completen tareas.
+ */
+public class AlmacenObjetos implements AlmacenTareas {
+
+    // Cuando las "lápidas" (huecos de tareas borradas) superan esta cantidad
+    // y además son más de la mitad de la lista, la compactamos.
+    private static final int MINIMO_BORRADAS_PARA_COMPACTAR = 64;
+
+    private List<Tarea> tareas = new ArrayList<>();
+    private IndiceIds indice = new IndiceIds(); // ID -> posición en 'tareas', para buscar rápido
+    private int borradas;                       // Cuántas lápidas hay en 'tareas'
+    // 'true' mientras los IDs de la lista vayan de menor a mayor (lo normal,
+    // porque se asignan en orden). Así podemos buscar una posición por ID
+    // con búsqueda binaria.
+    private boolean idsOrdenados = true;
+    private int ultimoId = Integer.MIN_VALUE;
+
+    @Override
+    public void cargar(List<Tarea> tareas) {
+        // Si el archivo se editó a mano y los IDs quedaron desordenados,
+        // los ordenamos una vez acá (el orden de la lista es el de los IDs).
+        if (!estanOrdenadas(tareas)) {
+            tareas.sort(Comparator.comparingInt(Tarea::getId));
+        }
+        this.tareas = tareas;
+        reconstruirIndice();
+    }
+
+    private static boolean estanOrdenadas(List<Tarea> tareas) {
+        for (int i = 1; i < tareas.size(); i++) {
+            if (tareas.get(i - 1).getId() > tareas.get(i).getId()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void agregar(Tarea tarea) {
+        indice.poner(tarea.getId(), tareas.size());
+        tareas.add(tarea);
+        anotarId(tarea.getId());
+    }
+
+    private void anotarId(int id) {
+        if (id <= ultimoId) {
+            idsOrdenados = false;
+        }
+        ultimoId = Math.max(ultimoId, id);
+    }
+
+    @Override
+    public boolean contiene(int id) {
+        return indice.obtener(id) != IndiceIds.NO_ENCONTRADO;
+    }
+
+    @Override
+    public Tarea buscar(int id) {
+        // En vez de recorrer toda la lista, le preguntamos al índice en qué
+        // posición está, así tarda lo mismo con 10 tareas que con un millón.
+        int posicion = indice.obtener(id);
+        return posicion == IndiceIds.NO_ENCONTRADO ? null : tareas.get(posicion);
+    }
+
+    @Override
+    public Tarea marcarCompletada(int id) {
+        int posicion = indice.obtener(id);
+        if (posicion == IndiceIds.NO_ENCONTRADO) {
+            return null;
+        }
+        Tarea tarea = tareas.get(posicion);
+        if (tarea.isCompletada()) {
+            return tarea;
+        }
+        // No modificamos el objeto (puede estar en una instantánea): lo reemplazamos.
+        Tarea completada = new Tarea(tarea.getId(), tarea.getDescripcion(), true, tarea.getFechaCreacion());
+        tareas.set(posicion, completada);
+        return completada;
+    }
+
+    @Override
+    public boolean eliminar(int id) {
+        int posicion = indice.obtener(id);
+        if (posicion == IndiceIds.NO_ENCONTRADO) {
+            return false;
+        }
+        // Dejamos una lápida en su lugar (no corremos la lista).
+        tareas.set(posicion, null);
+        indice.quitar(id);
+        borradas++;
+        // Si ya hay demasiadas lápidas, limpiamos. Como esto pasa cada muchas
+        // eliminaciones, en promedio cada una sigue costando O(1).
+        if (borradas >= MINIMO_BORRADAS_PARA_COMPACTAR && borradas * 2 > tareas.size()) {
+            compactar();
+        }
+        return true;
+    }
+
+    @Override
+    public int tamanio() {
+        return tareas.size() - borradas;
+    }
+
+    @Override
+    public List<Tarea> todas() {
+        // La copia no incluye las lápidas.
+        List<Tarea> copia = new ArrayList<>(tamanio());
+        for (Tarea tarea : tareas) {
+            if (tarea != null) {
+                copia.add(tarea);
+            }
+        }
+        return copia;
+    }
+
+    @Override
+    public Iterator<Tarea> iterator() {
+        return new Recorrido(0, Integer.MIN_VALUE);
+    }
+
+    @Override
+    public Iterator<Tarea> iterarDesde(int despuesDeId) {
+        if (!idsOrdenados) {
+            // Caso raro (IDs repetidos o fuera de orden): recorremos todo y
+            // salteamos las de ID menor.
+            return new Recorrido(0, despuesDeId);
+        }
+        return new Recorrido(primeraPosicionMayorA(despuesDeId), Integer.MIN_VALUE);
+    }
+
+    @Override
+    public Iterable<Tarea> instantanea() {
+        // Copiar un millón de referencias tarda un par de milisegundos.
+        Tarea[] copia = tareas.toArray(new Tarea[0]);
+        return () -> new Iterator<Tarea>() {
+            private int posicion = avanzar(0);
+
+            private int avanzar(int desde) {
+                while (desde < copia.length && copia[desde] == null) {
+                    desde++;
+                }
+                return desde;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return posicion < copia.length;
+            }
+
+            @Override
+            public Tarea next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Tarea tarea = copia[posicion];
+                posicion = avanzar(posicion + 1);
+                return tarea;
+            }
+        };
+    }
+
+    /**
+     * Búsqueda binaria de la primera posición con un ID mayor a 'id'
+     * (sólo sirve si los IDs están ordenados). Las lápidas no tienen ID:
+     * cuando caemos en una, miramos la primera tarea viva a su derecha.
+     */
+    private int primeraPosicionMayorA(int id) {
+        int bajo = 0;
+        int alto = tareas.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            int viva = medio;
+            while (viva < alto && tareas.get(viva) == null) {
+                viva++;
+            }
+            if (viva < alto && tareas.get(viva).getId() <= id) {
+                bajo = viva + 1;
+            } else {
+                // Entre 'medio' y 'viva' sólo hay lápidas: empezar en 'medio' es lo mismo.
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Recorre la lista desde una posición, salteando las lápidas (y las
+     * tareas con ID menor o igual a 'despuesDeId').
+     */
+    private class Recorrido implements Iterator<Tarea> {
+        private final int despuesDeId;
+        private int posicion;
+
+        Recorrido(int desde, int despuesDeId) {
+            this.despuesDeId = despuesDeId;
+            this.posicion = avanzar(desde);
+        }
+
+        private int avanzar(int desde) {
+            while (desde < tareas.size()
+                    && (tareas.get(desde) == null || tareas.get(desde).getId() <= despuesDeId)) {
+                desde++;
+            }
+            return desde;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return posicion < tareas.size();
+        }
+
+        @Override
+        public Tarea next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Tarea tarea = tareas.get(posicion);
+            posicion = avanzar(posicion + 1);
+            return tarea;
+        }
+    }
+
+    /**
+     * Saca las lápidas de la lista, manteniendo el orden de las tareas,
+     * y vuelve a armar el índice con las posiciones nuevas.
+     */
+    private void compactar() {
+        if (borradas == 0) {
+            return;
+        }
+        tareas = todas();
+        reconstruirIndice();
+    }
+
+    /**
+     * Arma el índice desde cero a partir de la lista actual.
+     */
+    private void reconstruirIndice() {
+        indice = new IndiceIds(tareas.size());
+        borradas = 0;
+        idsOrdenados = true;
+        ultimoId = Integer.MIN_VALUE;
+        for (int i = 0; i < tareas.size(); i++) {
+            Tarea tarea = tareas.get(i);
+            if (tarea == null) {
+                borradas++;
+            } else {
+                indice.poner(tarea.getId(), i);
+                anotarId(tarea.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Interfaz para el "motor" que guarda las tareas en memoria.
+ * El TareaService no sabe cómo están guardadas por dentro: sólo le pide
+ * al almacén que agregue, busque, complete o elimine.
+ *
+ * Hay tres motores:
+ * - AlmacenObjetos: una lista de objetos Tarea (el de siempre).
+ * - AlmacenColumnar: arreglos de números y bytes, que ocupan mucha menos
+ *   memoria cuando hay millones de tareas.
+ * - AlmacenBinario: lee las tareas a pedido desde tareas.bin (mapeado en
+ *   memoria), y sólo guarda aparte los cambios hechos desde que se cargó.
+ *
+ * Recorrer el almacén (con un for-each) devuelve las tareas en el orden
+ * en que se agregaron, que es también el orden de sus IDs (al cargar un
+ * archivo con los IDs desordenados, el almacén los ordena).
+ */
+public interface AlmacenTareas extends Iterable<Tarea> {
+
+    /**
+     * Reemplaza todo el contenido por las tareas recibidas (se usa al cargar el archivo).
+     */
+    void cargar(List<Tarea> tareas);
+
+    /**
+     * Agrega una tarea al final.
+     */
+    void agregar(Tarea tarea);
+
+    boolean contiene(int id);
+
+    /**
+     * @return La tarea con ese ID, o 'null' si no existe.
+     */
+    Tarea buscar(int id);
+
+    /**
+     * Marca la tarea como completada.
+     * @return La tarea ya actualizada, o 'null' si no existe.
+     */
+    Tarea marcarCompletada(int id);
+
+    /**
+     * @return 'true' si la tarea existía y se eliminó.
+     */
+    boolean eliminar(int id);
+
+    /**
+     * Cantidad de tareas (sin contar las eliminadas).
+     */
+    int tamanio();
+
+    /**
+     * Devuelve una lista nueva con todas las tareas, en orden.
+     */
+    List<Tarea> todas();
+
+    /**
+     * Recorre, sin copiar nada, las tareas con un ID mayor a 'despuesDeId',
+     * en orden. Sirve para paginar: cada página sigue desde el último ID
+     * de la anterior, aunque esa tarea ya se haya eliminado.
+     * No hay que modificar el almacén mientras se usa el Iterator.
+     */
+    Iterator<Tarea> iterarDesde(int despuesDeId);
+
+    /**
+     * Una "foto" de todas las tareas en este momento, que se puede recorrer
+     * después (incluso desde otro hilo) aunque el almacén siga cambiando.
+     * Tiene que ser rápida de sacar: mientras tanto el servicio está bloqueado.
+     */
+    Iterable<Tarea> instantanea();
+
+    /**
+     * Recorre las tareas sólo para armar índices que no miran la descripción
+     * (IndiceEstado, IndiceFechas). Un almacén que tenga que leer cada
+     * descripción del disco puede devolverlas sin descripción.
+     */
+    default Iterable<Tarea> paraIndices() {
+        return this;
+    }
+
+    /**
+     * Permite usar la API Stream sobre el almacén (filter, map, collect...).
+     */
+    default Stream<Tarea> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
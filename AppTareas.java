@@ -1,7 +1,18 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.InputMismatchException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Clase principal de la aplicación (Capa de Vista/UI de Consola).
@@ -14,13 +25,197 @@ import java.util.function.Predicate;
 public class AppTareas {
 
     // El servicio (cerebro) y el scanner (para leer) se crean una sola vez.
-    private static final TareaService servicio = new TareaService();
+    private static TareaService servicio;
     private static final Scanner scanner = new Scanner(System.in);
+    // Cuántas tareas se muestran antes de preguntar si seguir.
+    private static final int TAREAS_POR_PAGINA = 20;
+    // Cómo se escriben las fechas en el menú (igual que al listar tareas).
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/uuuu");
 
     public static void main(String[] args) {
+        // Con "--diario" cada cambio se anota al instante en tareas.log,
+        // así no se pierde nada si el programa se cierra de golpe.
+        // Con "--carga-paralela" el archivo se lee usando todos los núcleos.
+        // Con "--a-binario" / "--a-texto" sólo se convierte el archivo y se sale.
+        // Con "--columnar" las tareas se guardan en memoria por columnas (AlmacenColumnar).
+        // Con "--indice-texto" el índice de búsqueda se guarda en tareas.idx entre ejecuciones.
+        // Con "--metricas" o "--metricas=30" se miden los tiempos de cada operación
+        // (se ven por JMX y se agrega un resumen a metricas.log cada 60 o 30 segundos).
+        // Con "--autoguardado" o "--autoguardado=5" las tareas se guardan solas en
+        // segundo plano, 2 (o 5) segundos después del último cambio.
+        // Con "--archivar" o "--archivar=30" las completadas de hace más de 90 (o 30)
+        // días pasan al archivo histórico tareas.hist.gz (ver ArchivoHistorico).
+        // Con "--feed" cada cambio se anota también en tareas.feed, para que otros
+        // procesos lo sigan (ver ReplicaTareas). Activa también "--diario".
+        // Con "--compartido" varios procesos pueden usar el mismo tareas.txt a la vez
+        // (sin repetir IDs ni pisarse al guardar). No se combina con las opciones
+        // de arriba que escriben archivos propios de un solo proceso.
+        // Con "--segmentos" o "--segmentos=50000" las tareas se guardan en la carpeta
+        // tareas.seg, de a 10000 (o 50000) IDs por archivo: al guardar sólo se
+        // reescriben los archivos que cambiaron, y al arrancar se verifican (ver
+        // ArchivoSegmentado). La primera vez se pasan ahí las tareas de tareas.txt.
+        // Con "--binario" las tareas se guardan en tareas.bin y al arrancar no se leen:
+        // cada una se lee del archivo recién cuando se usa (ver AlmacenBinario).
+        // La primera vez se pasan ahí las tareas de tareas.txt.
+        // Una opción desconocida o con un número mal escrito muestra el uso y sale (ver mostrarUso).
+        boolean usarDiario = false;
+        boolean cargaParalela = false;
+        boolean columnar = false;
+        boolean guardarIndiceTexto = false;
+        long esperaAutoGuardado = 0; // En milisegundos; 0 = sin autoguardado
+        int diasParaArchivar = 0; // 0 = no se archiva
+        boolean usarFeed = false;
+        boolean compartido = false;
+        int tareasPorSegmento = 0; // 0 = todo en tareas.txt
+        boolean binario = false;
+        int puertoServidor = -1; // -1 = con el menú (o un comando), sin servidor
+        // Si hay un comando (importar, exportar, completar, eliminar), las
+        // opciones son las que están antes; lo demás es para el comando.
+        int posicionComando = 0;
+        while (posicionComando < args.length && !ComandosLote.esComando(args[posicionComando])) {
+            posicionComando++;
+        }
+        List<String> opciones = new ArrayList<>(); // Las que se pidieron, sin el "=N"
+        for (int i = 0; i < posicionComando; i++) {
+            String arg = args[i];
+            int igual = arg.indexOf('=');
+            opciones.add(igual < 0 ? arg : arg.substring(0, igual));
+            if (arg.equals("--ayuda")) {
+                mostrarUso(null);
+                return;
+            } else if (arg.equals("--diario")) {
+                usarDiario = true;
+            } else if (arg.equals("--columnar")) {
+                columnar = true;
+            } else if (arg.equals("--carga-paralela")) {
+                cargaParalela = true;
+            } else if (arg.equals("--indice-texto")) {
+                guardarIndiceTexto = true;
+            } else if (esOpcion(arg, "--metricas")) {
+                int segundos = leerNumero(arg, 60);
+                if (segundos <= 0) {
+                    salirConUso("Número no válido en " + arg);
+                }
+                MetricasTareas.activar(segundos);
+            } else if (esOpcion(arg, "--autoguardado")) {
+                int segundos = leerNumero(arg, 2);
+                if (segundos <= 0) {
+                    salirConUso("Número no válido en " + arg);
+                }
+                esperaAutoGuardado = segundos * 1000L;
+            } else if (arg.equals("--feed")) {
+                usarFeed = true;
+                usarDiario = true; // Así lo que se recupera al arrancar es lo mismo que vieron las réplicas
+            } else if (arg.equals("--compartido")) {
+                compartido = true;
+            } else if (esOpcion(arg, "--segmentos")) {
+                tareasPorSegmento = leerNumero(arg, 10_000);
+                if (tareasPorSegmento <= 0) {
+                    salirConUso("Número no válido en " + arg);
+                }
+            } else if (arg.equals("--binario")) {
+                binario = true;
+            } else if (esOpcion(arg, "--archivar")) {
+                diasParaArchivar = leerNumero(arg, 90);
+                if (diasParaArchivar <= 0) {
+                    salirConUso("Número no válido en " + arg);
+                }
+            } else if (esOpcion(arg, "--servidor")) {
+                // "--servidor" o "--servidor=8080": en vez del menú, atendemos pedidos HTTP.
+                puertoServidor = leerNumero(arg, 8080);
+                if (puertoServidor <= 0 || puertoServidor > 65535) {
+                    salirConUso("Puerto no válido en " + arg + " (tiene que ser de 1 a 65535)");
+                }
+            } else if (arg.equals("--a-binario")) {
+                new GestorPersistencia().convertirTextoABinario();
+                return;
+            } else if (arg.equals("--a-texto")) {
+                new GestorPersistencia().convertirBinarioATexto();
+                return;
+            } else {
+                salirConUso("Opción desconocida: " + arg);
+            }
+        }
+        if (puertoServidor >= 0) {
+            if (posicionComando < args.length) {
+                salirConUso("El servidor no se combina con el comando \"" + args[posicionComando] + "\".");
+            }
+            iniciarServidor(puertoServidor, opciones);
+            return;
+        }
+        if (compartido && (usarDiario || esperaAutoGuardado > 0 || diasParaArchivar > 0)) {
+            System.out.println("[Compartido] Se ignoran --diario, --feed, --autoguardado y --archivar.");
+            usarDiario = false;
+            usarFeed = false;
+            esperaAutoGuardado = 0;
+            diasParaArchivar = 0;
+        }
+        if (compartido && (tareasPorSegmento > 0 || binario)) {
+            System.out.println("[Compartido] Se ignoran --segmentos y --binario.");
+            tareasPorSegmento = 0;
+            binario = false;
+        }
+        if (tareasPorSegmento > 0 && binario) {
+            System.out.println("[Segmentos] Se ignora --binario.");
+            binario = false;
+        }
+        if (binario && (usarDiario || guardarIndiceTexto || columnar)) {
+            // El diario y el índice dependen de tareas.txt, y las tareas ya
+            // están en el AlmacenBinario (no en columnas).
+            System.out.println("[Binario] Se ignoran --diario, --feed, --indice-texto y --columnar.");
+            usarDiario = false;
+            usarFeed = false;
+            guardarIndiceTexto = false;
+            columnar = false;
+        }
+        if (tareasPorSegmento > 0 && (usarDiario || guardarIndiceTexto)) {
+            // El diario (y el feed, que va con él) y el índice dependen de tareas.txt,
+            // que en este modo no se usa.
+            System.out.println("[Segmentos] Se ignoran --diario, --feed y --indice-texto.");
+            usarDiario = false;
+            usarFeed = false;
+            guardarIndiceTexto = false;
+        }
+        if ((compartido || tareasPorSegmento > 0 || binario) && new GestorPersistencia().hayDiarioPendiente()) {
+            // Esos cambios no están en tareas.txt, y en estos modos no se repiten.
+            System.err.println("Quedaron cambios en tareas.log de una sesión con --diario. Abra la aplicación "
+                    + "una vez sin --compartido, --segmentos ni --binario para incorporarlos.");
+            return;
+        }
+        AlmacenTareas almacen;
+        if (binario) {
+            almacen = new AlmacenBinario();
+        } else if (columnar) {
+            almacen = new AlmacenColumnar();
+        } else {
+            almacen = new AlmacenObjetos();
+        }
+        servicio = new TareaService(usarDiario, almacen);
+        servicio.setCargaParalela(cargaParalela);
+        servicio.setGuardarIndiceTexto(guardarIndiceTexto);
+        servicio.setDiasParaArchivar(diasParaArchivar);
+        servicio.setUsarFeed(usarFeed);
+        servicio.setCompartido(compartido);
+        servicio.setSegmentado(tareasPorSegmento);
+        servicio.setBinario(binario);
+
+        if (posicionComando < args.length) {
+            ejecutarComando(Arrays.asList(args).subList(posicionComando, args.length));
+            return;
+        }
+
         // 1. Al arrancar, le pedimos al servicio que cargue los datos del archivo.
         servicio.cargarDatos();
 
+        AutoGuardado autoGuardado = null;
+        if (esperaAutoGuardado > 0 && usarDiario) {
+            // El diario ya deja cada cambio en el disco al instante.
+            System.out.println("[AutoGuardado] No hace falta en modo diario: no se activa.");
+        } else if (esperaAutoGuardado > 0) {
+            autoGuardado = new AutoGuardado(servicio, esperaAutoGuardado);
+            autoGuardado.iniciar();
+        }
+
         boolean salir = false;
         while (!salir) {
             mostrarMenu();
@@ -41,6 +236,12 @@ public class AppTareas {
                     case 4:
                         uiEliminarTarea();
                         break;
+                    case 5:
+                        uiBuscarTareas();
+                        break;
+                    case 6:
+                        uiTareasPorFecha();
+                        break;
                     case 0:
                         salir = true;
                         break;
@@ -64,11 +265,153 @@ public class AppTareas {
         }
 
         // 2. Al salir del bucle, le pedimos al servicio que guarde todo.
+        if (autoGuardado != null) {
+            autoGuardado.detener(); // Primero, que no quede escribiendo en segundo plano
+        }
         servicio.guardarDatos();
+        if (autoGuardado != null) {
+            System.out.println("[AutoGuardado] " + autoGuardado.getGuardados() + " guardados en segundo plano"
+                    + "; retraso máximo: " + autoGuardado.getRetrasoMaximoMs() + " ms.");
+        }
         System.out.println("¡Datos guardados! Hasta pronto. 👋");
         scanner.close(); // Cerramos el scanner al final.
     }
 
+    /**
+     * Modo por lotes (ver ComandosLote): carga, ejecuta el comando, guarda y termina.
+     * Los mensajes van a la salida de errores, así "exportar -" deja en la
+     * salida estándar sólo las tareas (y se puede redirigir a un archivo).
+     */
+    private static void ejecutarComando(List<String> comando) {
+        PrintStream datos = System.out;
+        System.setOut(System.err);
+        servicio.cargarDatos();
+        boolean bien = new ComandosLote(servicio, datos).ejecutar(comando);
+        if (bien && !comando.get(0).equals("exportar")) {
+            servicio.guardarDatos(); // Exportar no cambia nada: no hace falta guardar
+        }
+        System.setOut(datos);
+        if (!bien) {
+            System.exit(1); // Código de error, para los scripts
+        }
+    }
+
+    /**
+     * @return 'true' si 'arg' es la opción 'nombre', sola o con "=valor".
+     */
+    private static boolean esOpcion(String arg, String nombre) {
+        return arg.equals(nombre) || arg.startsWith(nombre + "=");
+    }
+
+    /**
+     * Lee el número de una opción como "--segmentos=50000".
+     * @return El número, 'porDefecto' si vino sin "=", o 0 si no es un número.
+     */
+    private static int leerNumero(String arg, int porDefecto) {
+        int igual = arg.indexOf('=');
+        if (igual < 0) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(arg.substring(igual + 1));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void salirConUso(String error) {
+        mostrarUso(error);
+        System.exit(1); // Código de error, para los scripts (como en ejecutarComando)
+    }
+
+    /**
+     * Muestra las opciones de la línea de comandos (en la salida de errores).
+     * @param error Qué estaba mal, o 'null' si sólo se pidió la ayuda.
+     */
+    private static void mostrarUso(String error) {
+        if (error != null) {
+            System.err.println("Error: " + error);
+        }
+        System.err.println("Uso: java AppTareas [opciones] [importar|exportar|completar|eliminar ...]");
+        System.err.println("Opciones:");
+        System.err.println("  --diario              cada cambio se anota al instante en tareas.log");
+        System.err.println("  --feed                los cambios se anotan también en tareas.feed (activa --diario)");
+        System.err.println("  --columnar            las tareas se guardan en memoria por columnas");
+        System.err.println("  --carga-paralela      tareas.txt se lee usando todos los núcleos");
+        System.err.println("  --indice-texto        el índice de búsqueda se guarda en tareas.idx");
+        System.err.println("  --metricas[=SEG]      mide los tiempos; resumen en metricas.log cada SEG segundos (60)");
+        System.err.println("  --autoguardado[=SEG]  guarda solo, SEG segundos después del último cambio (2)");
+        System.err.println("  --archivar[=DIAS]     las completadas de hace más de DIAS días van a tareas.hist.gz (90)");
+        System.err.println("  --compartido          varios procesos pueden usar el mismo tareas.txt a la vez");
+        System.err.println("  --segmentos[=N]       las tareas se guardan en tareas.seg, de a N IDs por archivo (10000)");
+        System.err.println("  --binario             las tareas se guardan en tareas.bin");
+        System.err.println("  --servidor[=PUERTO]   API HTTP en vez del menú (8080); sólo con tareas.txt");
+        System.err.println("  --a-binario           pasa tareas.txt a tareas.bin y sale");
+        System.err.println("  --a-texto             pasa tareas.bin a tareas.txt y sale");
+        System.err.println("  --ayuda               muestra este mensaje");
+        System.err.println("Los comandos están explicados en ComandosLote; las opciones van antes del comando.");
+    }
+
+    /**
+     * @return Las de 'opciones' que están entre 'nombres' (sin repetir).
+     */
+    private static List<String> elegir(List<String> opciones, String... nombres) {
+        List<String> elegidas = new ArrayList<>();
+        for (String opcion : opciones) {
+            if (Arrays.asList(nombres).contains(opcion) && !elegidas.contains(opcion)) {
+                elegidas.add(opcion);
+            }
+        }
+        return elegidas;
+    }
+
+    /**
+     * Modo servidor: carga los datos, atiende pedidos HTTP hasta que se corte
+     * el programa (Ctrl+C) y en ese momento guarda todo.
+     *
+     * El servidor trabaja sólo con tareas.txt (y recupera lo que haya quedado
+     * en tareas.log). No arranca si las tareas están en segmentos o se usan en
+     * modo compartido: las pisaría al guardar o repetiría IDs.
+     * @param opciones Las opciones que se pidieron, para avisar cuáles no se pueden usar.
+     */
+    private static void iniciarServidor(int puerto, List<String> opciones) {
+        GestorPersistencia archivos = new GestorPersistencia();
+        List<String> incompatibles = elegir(opciones, "--diario", "--feed", "--compartido", "--segmentos", "--binario");
+        if (!incompatibles.isEmpty()) {
+            System.err.println("El servidor no se puede combinar con " + String.join(", ", incompatibles) + ".");
+            return;
+        }
+        List<String> ignoradas = elegir(opciones, "--columnar", "--carga-paralela", "--indice-texto",
+                "--autoguardado", "--archivar");
+        if (!ignoradas.isEmpty()) {
+            // El servidor tiene su propio servicio (TareaServiceConcurrente), que no las usa.
+            System.out.println("[Servidor] Se ignoran " + String.join(", ", ignoradas) + ".");
+        }
+        if (archivos.hayDatosSegmentados()) {
+            System.err.println("Las tareas están guardadas en segmentos (tareas.seg): el servidor no arranca.");
+            return;
+        }
+        if (archivos.usaModoCompartido()) {
+            System.err.println("Estas tareas se usan en modo compartido (existe tareas.ids): el servidor no arranca. "
+                    + "Si ya no hay otros procesos usándolas, borre tareas.ids.");
+            return;
+        }
+        TareaServiceConcurrente servicioConcurrente = new TareaServiceConcurrente();
+        servicioConcurrente.cargarDatos();
+        ServidorHttp servidor = new ServidorHttp(servicioConcurrente, puerto);
+        try {
+            servidor.iniciar();
+        } catch (IOException e) {
+            System.err.println("Error al iniciar el servidor: " + e.getMessage());
+            return;
+        }
+        // Este hilo se ejecuta cuando el programa se está cerrando.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.detener();
+            servicioConcurrente.guardarDatos();
+        }));
+    }
+
     /**
      * Método simple que solo imprime las opciones del menú.
      */
@@ -78,6 +421,8 @@ public class AppTareas {
         System.out.println("2. Listar tareas");
         System.out.println("3. Marcar tarea como completada");
         System.out.println("4. Eliminar tarea por ID");
+        System.out.println("5. Buscar tareas");
+        System.out.println("6. Tareas por fecha (resumen por día)");
         System.out.println("0. Salir y Guardar");
         System.out.print("Seleccione una opción: ");
     }
@@ -93,6 +438,9 @@ public class AppTareas {
             descripcion = scanner.nextLine().trim(); // .trim() saca espacios en blanco
             if (descripcion.isEmpty()) {
                 System.out.println("La descripción no puede estar vacía.");
+            } else if (Tarea.tieneCaracteresDeControl(descripcion)) {
+                System.out.println("La descripción no puede tener caracteres de control.");
+                descripcion = "";
             }
         } while (descripcion.isEmpty());
 
@@ -107,37 +455,183 @@ public class AppTareas {
         System.out.println("1. Listar TODAS");
         System.out.println("2. Listar solo PENDIENTES");
         System.out.println("3. Listar solo COMPLETADAS");
+        System.out.println("4. Exportar TODAS a un archivo de texto");
+        System.out.println("5. Listar solo COMPLETADAS, incluyendo archivo");
         System.out.print("Elija una opción: ");
         int opcion = scanner.nextInt();
         scanner.nextLine(); // Limpiar buffer
 
-        List<Tarea> tareas;
+        if (opcion == 4) {
+            uiExportarTareas();
+            return;
+        }
+        if (opcion == 5) {
+            uiListarCompletadasConArchivo();
+            return;
+        }
+
+        Predicate<Tarea> filtro;
         String titulo;
 
         // ¡AQUÍ USAMOS LA LAMBDA!
         if (opcion == 2) {
-            titulo = "--- Tareas Pendientes ---";
+            titulo = "--- Tareas Pendientes (" + servicio.contarPendientes() + ") ---";
             // Le pasamos al servicio una "regla" (la lambda)
-            // "tarea -> !tarea.isCompletada()" significa:
+            // TareaService.PENDIENTES es "tarea -> !tarea.isCompletada()", que significa:
             // "Por cada tarea, chequeá si NO está completada"
-            tareas = servicio.listarTareasFiltradas(tarea -> !tarea.isCompletada());
+            // Como es una regla que el servicio conoce, usa su índice y no revisa todas.
+            filtro = TareaService.PENDIENTES;
         } else if (opcion == 3) {
-            titulo = "--- Tareas Completadas ---";
-            // "tarea -> tarea.isCompletada()" significa:
+            titulo = "--- Tareas Completadas (" + servicio.contarCompletadas() + ") ---";
+            // TareaService.COMPLETADAS es "tarea -> tarea.isCompletada()", que significa:
             // "Por cada tarea, chequeá si SÍ está completada"
-            tareas = servicio.listarTareasFiltradas(tarea -> tarea.isCompletada());
+            filtro = TareaService.COMPLETADAS;
         } else {
-            titulo = "--- Todas las Tareas ---";
-            tareas = servicio.listarTodasLasTareas();
+            titulo = "--- Todas las Tareas (" + servicio.contarTareas() + ") ---";
+            filtro = null; // Sin filtro: todas
         }
 
-        // Mostramos los resultados
-        System.out.println(titulo);
-        if (tareas.isEmpty()) {
-            System.out.println("No hay tareas para mostrar.");
-        } else {
-            // Usamos forEach con una lambda simple para imprimir cada tarea
-            tareas.forEach(tarea -> System.out.println(tarea));
+        // Mostramos los resultados de a una página, así la primera aparece
+        // enseguida aunque haya muchísimas tareas.
+        // El renderizador junta los renglones y los escribe de a muchos juntos.
+        RenderizadorTareas salida = RenderizadorTareas.aConsola();
+        salida.escribirLinea(titulo);
+        int cursor = PaginaTareas.DESDE_EL_PRINCIPIO;
+        while (true) {
+            PaginaTareas pagina = servicio.listarPagina(filtro, cursor, TAREAS_POR_PAGINA);
+            if (pagina.getTareas().isEmpty() && cursor == PaginaTareas.DESDE_EL_PRINCIPIO) {
+                salida.escribirLinea("No hay tareas para mostrar.");
+                salida.vaciar();
+                return;
+            }
+            // Usamos forEach con una lambda simple para escribir cada tarea
+            pagina.getTareas().forEach(tarea -> salida.escribir(tarea));
+            salida.vaciar();
+            if (!pagina.hayMasPaginas()) {
+                return;
+            }
+            System.out.print("¿Ver la siguiente página? (s = sí, n = no, t = todas las que faltan): ");
+            String respuesta = scanner.nextLine().trim();
+            // La página siguiente empieza después de la última tarea mostrada
+            cursor = pagina.getCursor();
+            if (respuesta.equalsIgnoreCase("t")) {
+                // Mostramos todo lo que falta de corrido, sin armar ninguna lista.
+                servicio.recorrerTareas(filtro, cursor).forEach(tarea -> salida.escribir(tarea));
+                salida.vaciar();
+                return;
+            }
+            if (!respuesta.equalsIgnoreCase("s")) {
+                return;
+            }
+        }
+    }
+
+    private static void uiExportarTareas() {
+        System.out.print("Nombre del archivo (Enter = tareas_exportadas.txt): ");
+        String nombre = scanner.nextLine().trim();
+        if (nombre.isEmpty()) {
+            nombre = "tareas_exportadas.txt";
+        }
+        // try-with-resources: el archivo se cierra (y se termina de escribir) solo.
+        try (RenderizadorTareas archivo = RenderizadorTareas.aArchivo(Paths.get(nombre))) {
+            servicio.recorrerTareas(null).forEach(tarea -> archivo.escribir(tarea));
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error al exportar: " + e.getMessage());
+            return;
+        }
+        System.out.println("Se exportaron " + servicio.contarTareas() + " tareas a " + nombre);
+    }
+
+    /**
+     * Las completadas en memoria y después las del archivo histórico
+     * (tareas.hist.gz), que se va leyendo recién cuando se piden más páginas.
+     */
+    private static void uiListarCompletadasConArchivo() {
+        RenderizadorTareas salida = RenderizadorTareas.aConsola();
+        salida.escribirLinea("--- Tareas Completadas, incluyendo archivo ---");
+        // try-with-resources: al salir se cierra el archivo histórico
+        try (Stream<Tarea> tareas = servicio.recorrerCompletadasConArchivo()) {
+            mostrarPorPaginas(salida, tareas.iterator());
+        } catch (UncheckedIOException e) {
+            System.out.println("Error al leer el archivo histórico: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra las tareas de a TAREAS_POR_PAGINA, preguntando antes de cada
+     * página nueva. Las tareas se van pidiendo a medida que se muestran.
+     */
+    private static void mostrarPorPaginas(RenderizadorTareas salida, Iterator<Tarea> siguientes) {
+        if (!siguientes.hasNext()) {
+            salida.escribirLinea("No hay tareas para mostrar.");
+            salida.vaciar();
+            return;
+        }
+        boolean todas = false;
+        while (siguientes.hasNext()) {
+            for (int i = 0; (todas || i < TAREAS_POR_PAGINA) && siguientes.hasNext(); i++) {
+                salida.escribir(siguientes.next());
+            }
+            salida.vaciar();
+            if (!siguientes.hasNext()) {
+                return;
+            }
+            System.out.print("¿Ver la siguiente página? (s = sí, n = no, t = todas las que faltan): ");
+            String respuesta = scanner.nextLine().trim();
+            todas = respuesta.equalsIgnoreCase("t");
+            if (!todas && !respuesta.equalsIgnoreCase("s")) {
+                return;
+            }
+        }
+    }
+
+    private static void uiTareasPorFecha() {
+        System.out.println("\n--- 6. Tareas por Fecha ---");
+        LocalDate hoy = LocalDate.now();
+        LocalDate desde = pedirFecha("Desde (dd/mm/aaaa, Enter = hace 7 días): ", hoy.minusDays(6));
+        LocalDate hasta = pedirFecha("Hasta (dd/mm/aaaa, Enter = hoy): ", hoy);
+        if (desde == null || hasta == null) {
+            System.out.println("Error: la fecha tiene que ser como 31/12/2024.");
+            return;
+        }
+
+        // El resumen sale de los totales del índice por fecha: no recorre tareas.
+        List<ResumenDia> resumen = servicio.resumenPorDia(desde, hasta);
+        if (resumen.isEmpty()) {
+            System.out.println("No hay tareas creadas entre esas fechas.");
+            return;
+        }
+        int pendientes = 0;
+        int completadas = 0;
+        System.out.println("   Fecha    | Creadas | Pendientes | Completadas");
+        for (ResumenDia dia : resumen) {
+            System.out.printf("%s | %7d | %10d | %11d%n", dia.getFecha().format(FORMATO_FECHA),
+                    dia.getCreadas(), dia.getPendientes(), dia.getCompletadas());
+            pendientes += dia.getPendientes();
+            completadas += dia.getCompletadas();
+        }
+        System.out.printf("   Total   | %7d | %10d | %11d%n", pendientes + completadas, pendientes, completadas);
+
+        System.out.print("¿Listar esas tareas? (s/n): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("s")) {
+            mostrarPorPaginas(RenderizadorTareas.aConsola(), servicio.recorrerPorFechas(desde, hasta).iterator());
+        }
+    }
+
+    /**
+     * Lee una fecha dd/mm/aaaa. Si se deja vacía, devuelve 'porDefecto';
+     * si está mal escrita, devuelve 'null'.
+     */
+    private static LocalDate pedirFecha(String mensaje, LocalDate porDefecto) {
+        System.out.print(mensaje);
+        String texto = scanner.nextLine().trim();
+        if (texto.isEmpty()) {
+            return porDefecto;
+        }
+        try {
+            return LocalDate.parse(texto, FORMATO_FECHA);
+        } catch (DateTimeParseException e) {
+            return null;
         }
     }
 
@@ -163,4 +657,43 @@ public class AppTareas {
         servicio.eliminarTarea(id);
         System.out.println("Tarea con ID " + id + " eliminada correctamente.");
     }
+
+    private static void uiBuscarTareas() {
+        System.out.println("\n--- 5. Buscar Tareas ---");
+        System.out.print("Ingrese las palabras a buscar (termine una con * para buscar por el comienzo): ");
+        String consulta = scanner.nextLine().trim();
+        System.out.println("1. Que tengan TODAS las palabras");
+        System.out.println("2. Que tengan ALGUNA de las palabras");
+        System.out.print("Elija una opción: ");
+        boolean todas = scanner.nextInt() != 2;
+        scanner.nextLine(); // Limpiar buffer
+        System.out.println("1. Buscar en TODAS");
+        System.out.println("2. Buscar solo en PENDIENTES");
+        System.out.println("3. Buscar solo en COMPLETADAS");
+        System.out.print("Elija una opción: ");
+        int estado = scanner.nextInt();
+        scanner.nextLine(); // Limpiar buffer
+        // 'null' = no filtrar por estado
+        Boolean completada = estado == 2 ? Boolean.FALSE : estado == 3 ? Boolean.TRUE : null;
+
+        // Mostramos los resultados de a 10, del más parecido al menos parecido
+        int pagina = 0;
+        while (true) {
+            ResultadoBusqueda resultado = servicio.buscarTareas(consulta, todas, completada, pagina, 10);
+            if (resultado.getTotal() == 0) {
+                System.out.println("No se encontraron tareas.");
+                return;
+            }
+            System.out.println("--- Resultados (" + resultado.getTotal() + "), página " + (pagina + 1) + " ---");
+            resultado.getTareas().forEach(tarea -> System.out.println(tarea));
+            if (!resultado.hayMasPaginas()) {
+                return;
+            }
+            System.out.print("¿Ver la siguiente página? (s/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("s")) {
+                return;
+            }
+            pagina++;
+        }
+    }
 }
@@ -0,0 +1,319 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Formato binario compacto para guardar las tareas (alternativa a tareas.txt).
+ *
+ * El archivo tiene tres partes:
+ * 1. Un encabezado de 32 bytes (marca, versión, próximo ID, cantidad, etc.).
+ * 2. La "zona de registros": un registro de 16 bytes fijos por tarea con
+ *    el ID, la fecha (como número de día), y dónde está su descripción.
+ * 3. La "zona de textos": todas las descripciones una atrás de la otra (UTF-8).
+ *
+ * Como todos los registros miden lo mismo, la tarea número 'i' está siempre
+ * en la posición 32 + i * 16, sin tener que leer las anteriores. Por eso el
+ * archivo se abre "mapeado en memoria" y cada Tarea se arma recién cuando
+ * alguien la pide (no hace falta convertir todo el archivo al arrancar).
+ * Así lo usa el AlmacenBinario (opción --binario).
+ *
+ * El archivo nunca se reescribe encima: se escribe uno nuevo y se le cambia
+ * el nombre. Así quien lo tenga abierto (mapeado) sigue viendo el anterior.
+ */
+public class ArchivoBinario {
+
+    private static final int MARCA = 0x54415245; // "TARE" en ASCII
+    private static final int VERSION = 1;
+    private static final int TAMANIO_ENCABEZADO = 32;
+    private static final int TAMANIO_REGISTRO = 16;
+
+    // Bit de 'flags' del encabezado: los IDs están ordenados de menor a mayor.
+    private static final int FLAG_IDS_ORDENADOS = 1;
+
+    private final int proximoId;
+    private final int cantidad;
+    private final boolean idsOrdenados;
+    private final ByteBuffer registros; // Zona de registros (mapeada)
+    private final ByteBuffer textos;    // Zona de textos (mapeada)
+
+    private ArchivoBinario(int proximoId, int cantidad, boolean idsOrdenados,
+                           ByteBuffer registros, ByteBuffer textos) {
+        this.proximoId = proximoId;
+        this.cantidad = cantidad;
+        this.idsOrdenados = idsOrdenados;
+        this.registros = registros;
+        this.textos = textos;
+    }
+
+    // --- Escritura ---
+
+    /**
+     * Guarda las tareas en formato binario. Recorre 'tareas' tres veces,
+     * así que no pueden cambiar mientras tanto (por ejemplo, una instantánea).
+     *
+     * Se escribe primero destino + ".tmp", se fuerza al disco y recién ahí
+     * reemplaza a 'destino' de un solo paso: si el programa se corta a la
+     * mitad, el archivo anterior queda entero.
+     * @return Cuántas tareas se guardaron.
+     */
+    public static int escribir(File destino, Iterable<Tarea> tareas, int proximoId) throws IOException {
+        // Primero contamos, sumamos el tamaño de los textos y vemos si los IDs
+        // vienen ordenados (lo normal, porque se asignan en orden). Así después
+        // podemos buscar por ID sin recorrer todo.
+        int cantidad = 0;
+        long tamanioTextos = 0;
+        boolean ordenados = true;
+        int idAnterior = Integer.MIN_VALUE;
+        for (Tarea tarea : tareas) {
+            tamanioTextos += longitudUtf8(tarea.getDescripcion());
+            ordenados = ordenados && (cantidad == 0 || idAnterior < tarea.getId());
+            idAnterior = tarea.getId();
+            cantidad++;
+        }
+        if (tamanioTextos > Integer.MAX_VALUE) {
+            throw new IOException("Las descripciones ocupan demasiado para el formato binario");
+        }
+
+        File temporal = new File(destino.getPath() + ".tmp");
+        try (FileOutputStream archivo = new FileOutputStream(temporal)) {
+            DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(archivo, 64 * 1024));
+
+            // 1. Encabezado.
+            salida.writeInt(MARCA);
+            salida.writeInt(VERSION);
+            salida.writeInt(proximoId);
+            salida.writeInt(cantidad);
+            salida.writeInt(ordenados ? FLAG_IDS_ORDENADOS : 0);
+            salida.writeInt((int) tamanioTextos);
+            salida.writeLong(0); // Reservado para versiones futuras
+
+            // 2. Registros de tamaño fijo.
+            int desplazamiento = 0;
+            for (Tarea tarea : tareas) {
+                int longitud = longitudUtf8(tarea.getDescripcion());
+                salida.writeInt(tarea.getId());
+                salida.writeInt((int) tarea.getFechaCreacion().toEpochDay());
+                salida.writeInt(desplazamiento);
+                // El último bit guarda si está completada; el resto, la longitud del texto.
+                salida.writeInt((longitud << 1) | (tarea.isCompletada() ? 1 : 0));
+                desplazamiento += longitud;
+            }
+
+            // 3. Textos, uno atrás del otro.
+            for (Tarea tarea : tareas) {
+                salida.write(tarea.getDescripcion().getBytes(StandardCharsets.UTF_8));
+            }
+            salida.flush();
+            archivo.getFD().sync();
+        }
+        Files.move(temporal.toPath(), destino.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        GestorPersistencia.sincronizarCarpeta(destino.getAbsoluteFile().getParentFile());
+        return cantidad;
+    }
+
+    /**
+     * Cuenta cuántos bytes ocupa un texto en UTF-8, sin convertirlo.
+     */
+    private static int longitudUtf8(String texto) {
+        int bytes = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 4; // Un emoji, por ejemplo, son dos 'char' y 4 bytes
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1; // Un 'char' suelto se escribe como '?'
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    // --- Lectura ---
+
+    /**
+     * Abre un archivo binario mapeándolo en memoria. No arma ninguna Tarea todavía.
+     */
+    public static ArchivoBinario abrir(File archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            if (canal.size() < TAMANIO_ENCABEZADO) {
+                throw new IOException("El archivo binario está incompleto");
+            }
+            ByteBuffer encabezado = ByteBuffer.allocate(TAMANIO_ENCABEZADO);
+            canal.read(encabezado, 0);
+            encabezado.flip();
+            if (encabezado.getInt() != MARCA) {
+                throw new IOException("No es un archivo de tareas binario");
+            }
+            int version = encabezado.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de archivo binario no soportada: " + version);
+            }
+            int proximoId = encabezado.getInt();
+            int cantidad = encabezado.getInt();
+            int flags = encabezado.getInt();
+            int tamanioTextos = encabezado.getInt();
+
+            long tamanioRegistros = (long) cantidad * TAMANIO_REGISTRO;
+            if (cantidad < 0 || tamanioTextos < 0
+                    || canal.size() < TAMANIO_ENCABEZADO + tamanioRegistros + tamanioTextos) {
+                throw new IOException("El archivo binario está incompleto");
+            }
+
+            // El mapeo sigue siendo válido aunque cerremos el canal.
+            MappedByteBuffer registros = canal.map(FileChannel.MapMode.READ_ONLY,
+                    TAMANIO_ENCABEZADO, tamanioRegistros);
+            MappedByteBuffer textos = canal.map(FileChannel.MapMode.READ_ONLY,
+                    TAMANIO_ENCABEZADO + tamanioRegistros, tamanioTextos);
+            return new ArchivoBinario(proximoId, cantidad, (flags & FLAG_IDS_ORDENADOS) != 0,
+                    registros, textos);
+        }
+    }
+
+    public int getProximoId() {
+        return proximoId;
+    }
+
+    public int tamanio() {
+        return cantidad;
+    }
+
+    public boolean isIdsOrdenados() {
+        return idsOrdenados;
+    }
+
+    /**
+     * Lee sólo el ID del registro 'indice' (sin armar la Tarea).
+     */
+    public int getId(int indice) {
+        return registros.getInt(indice * TAMANIO_REGISTRO);
+    }
+
+    /**
+     * Lee sólo si el registro 'indice' está completado (sin armar la Tarea).
+     */
+    public boolean isCompletada(int indice) {
+        return (registros.getInt(indice * TAMANIO_REGISTRO + 12) & 1) != 0;
+    }
+
+    /**
+     * Lee sólo la fecha de creación del registro 'indice' (sin armar la Tarea).
+     */
+    public LocalDate getFechaCreacion(int indice) {
+        return LocalDate.ofEpochDay(registros.getInt(indice * TAMANIO_REGISTRO + 4));
+    }
+
+    /**
+     * Arma la Tarea que está en la posición 'indice' (de 0 a tamanio() - 1).
+     * Recién acá se lee su descripción y se crea el objeto.
+     */
+    public Tarea obtener(int indice) {
+        if (indice < 0 || indice >= cantidad) {
+            throw new IndexOutOfBoundsException("No existe el registro " + indice);
+        }
+        int base = indice * TAMANIO_REGISTRO;
+        int id = registros.getInt(base);
+        long dia = registros.getInt(base + 4);
+        int desplazamiento = registros.getInt(base + 8);
+        int longitudYEstado = registros.getInt(base + 12);
+
+        byte[] texto = new byte[longitudYEstado >>> 1];
+        textos.get(desplazamiento, texto);
+        return new Tarea(id, new String(texto, StandardCharsets.UTF_8),
+                (longitudYEstado & 1) != 0, LocalDate.ofEpochDay(dia));
+    }
+
+    /**
+     * Busca en qué registro está una tarea. Si los IDs están ordenados (lo
+     * normal), usa búsqueda binaria y sólo mira unos pocos registros.
+     * @return La posición, o -1 si no existe.
+     */
+    public int buscarIndice(int id) {
+        if (idsOrdenados) {
+            int indice = primerIndiceMayorA(id - 1);
+            return indice < cantidad && getId(indice) == id ? indice : -1;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            if (getId(i) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Búsqueda binaria del primer registro con un ID mayor a 'id' (o
+     * tamanio() si no hay). Sólo sirve si los IDs están ordenados.
+     */
+    public int primerIndiceMayorA(int id) {
+        int desde = 0;
+        int hasta = cantidad;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (getId(medio) <= id) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    /**
+     * Las tareas del archivo como una List de sólo lectura, que arma cada
+     * Tarea recién cuando se le pide. Es lo que devuelve la carga en modo
+     * binario: el AlmacenBinario la reconoce y trabaja directo sobre el archivo.
+     */
+    public Lista comoLista() {
+        return new Lista();
+    }
+
+    public class Lista extends AbstractList<Tarea> implements RandomAccess {
+
+        public ArchivoBinario getArchivo() {
+            return ArchivoBinario.this;
+        }
+
+        @Override
+        public Tarea get(int indice) {
+            return obtener(indice);
+        }
+
+        @Override
+        public int size() {
+            return cantidad;
+        }
+    }
+
+    /**
+     * Arma TODAS las tareas (por ejemplo, para convertir el archivo a texto).
+     */
+    public List<Tarea> cargarTodas() {
+        List<Tarea> tareas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            tareas.add(obtener(i));
+        }
+        return tareas;
+    }
+}
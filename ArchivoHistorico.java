@@ -0,0 +1,223 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * El "archivo histórico": las tareas completadas viejas, que ya casi nunca
+ * se miran, guardadas aparte en un archivo comprimido (gzip). Así no se
+ * cargan en memoria al arrancar ni se reescriben cada vez que se guarda:
+ * tareas.txt queda sólo con las tareas "activas".
+ *
+ * - Sólo se agrega al final ("append-only"): cada vez que se archivan
+ *   tareas se escribe un bloque gzip nuevo a continuación de los que ya
+ *   había. Nunca se reescribe lo anterior. (Un archivo gzip puede tener
+ *   varios bloques seguidos; GZIPInputStream los lee como uno solo.)
+ * - Cada renglón tiene el mismo formato que tareas.txt (Tarea.toFileString).
+ * - Se lee "de a poco" (recorrer()): cada tarea se descomprime recién
+ *   cuando se la pide, así mostrar la primera página es inmediato aunque
+ *   haya millones de tareas archivadas.
+ * - Al lado se guarda hasta qué byte llegan los bloques completos (en
+ *   tareas.hist.gz.largo), y se actualiza recién cuando el bloque nuevo ya
+ *   está en el disco. Si el programa se cortó a mitad de un bloque, ese
+ *   pedazo queda después del "largo válido": al leer no se mira, y el
+ *   próximo agregar lo borra antes de escribir. Así un bloque cortado no
+ *   hace ilegibles a los que vienen después.
+ */
+public class ArchivoHistorico {
+
+    private final File archivo;
+    private final File largoValido; // Hasta dónde llegan los bloques completos
+
+    public ArchivoHistorico(File archivo) {
+        this.archivo = archivo;
+        this.largoValido = new File(archivo.getPath() + ".largo");
+    }
+
+    public boolean existe() {
+        return archivo.exists();
+    }
+
+    /**
+     * Agrega las tareas al final del archivo, como un bloque gzip nuevo,
+     * y se asegura de que queden en el disco antes de volver (así recién
+     * después se pueden sacar de tareas.txt).
+     */
+    public void agregar(List<Tarea> tareas) throws IOException {
+        if (tareas.isEmpty()) {
+            return;
+        }
+        long largo = leerLargoValido();
+        if (archivo.length() > largo) {
+            // Quedó un bloque cortado al final: lo sacamos, así el nuevo queda pegado al último completo.
+            try (RandomAccessFile cortado = new RandomAccessFile(archivo, "rw")) {
+                cortado.setLength(largo);
+            }
+            System.err.println("[Histórico] Se descartó un bloque incompleto al final de " + archivo.getName() + ".");
+        }
+        try (FileOutputStream salida = new FileOutputStream(archivo, true)) { // true = agregar al final
+            GZIPOutputStream comprimido = new GZIPOutputStream(salida, 1 << 16);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(comprimido, StandardCharsets.UTF_8));
+            for (Tarea tarea : tareas) {
+                writer.write(tarea.toFileString());
+                writer.newLine();
+            }
+            writer.flush();
+            comprimido.finish(); // Cierra el bloque gzip (sin cerrar el archivo todavía)
+            salida.getFD().sync(); // Que llegue al disco de verdad
+        }
+        guardarLargoValido(archivo.length()); // Recién ahora el bloque cuenta
+        MetricasTareas.contarBytesEscritos(archivo.length());
+    }
+
+    /**
+     * @return Hasta qué byte llegan los bloques completos. Si todavía no
+     * hay tareas.hist.gz.largo (un archivo de antes), se toma el archivo entero.
+     */
+    private long leerLargoValido() {
+        try {
+            return Long.parseLong(Files.readString(largoValido.toPath()).trim());
+        } catch (IOException | NumberFormatException e) {
+            return archivo.length();
+        }
+    }
+
+    /**
+     * Escribe el largo válido en un temporal, lo fuerza al disco y lo
+     * renombra: el archivo queda con el valor viejo o con el nuevo, nunca a medias.
+     */
+    private void guardarLargoValido(long largo) throws IOException {
+        File temporal = new File(largoValido.getPath() + ".tmp");
+        try (FileOutputStream salida = new FileOutputStream(temporal)) {
+            salida.write((largo + "\n").getBytes(StandardCharsets.US_ASCII));
+            salida.getFD().sync();
+        }
+        Files.move(temporal.toPath(), largoValido.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        GestorPersistencia.sincronizarCarpeta(largoValido.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Recorre las tareas archivadas, en el orden en que se archivaron,
+     * leyendo el archivo a medida que se piden. Hay que cerrar el Stream
+     * al terminar (con try-with-resources) para cerrar el archivo.
+     *
+     * Si el programa se cortó justo después de archivar pero antes de
+     * guardar tareas.txt, esas tareas se vuelven a archivar la vez
+     * siguiente: por eso salteamos los IDs repetidos.
+     *
+     * Sólo se lee hasta el largo válido: un bloque cortado al final (o uno
+     * que se está escribiendo en este momento) no se mira.
+     */
+    public Stream<Tarea> recorrer() {
+        long largo = Math.min(leerLargoValido(), archivo.length());
+        if (largo == 0) {
+            return Stream.empty(); // No existe, o no tiene ningún bloque completo
+        }
+        BufferedReader reader;
+        try {
+            InputStream entrada = new EntradaLimitada(new FileInputStream(archivo), largo);
+            reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(entrada, 1 << 16), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Cada renglón se lee como en tareas.txt (la descripción puede tener '|')
+        CargadorTareas cargador = new CargadorTareas(StandardCharsets.UTF_8);
+        BitSet vistos = new BitSet();
+        return reader.lines()
+                .map(linea -> {
+                    Tarea tarea = cargador.parsearLinea(linea);
+                    if (tarea == null) {
+                        System.err.println("Error al leer línea del histórico: " + linea);
+                        MetricasTareas.contarErroresDeLectura(1);
+                    }
+                    return tarea;
+                })
+                .filter(Objects::nonNull) // Renglones rotos: se avisan y se saltean
+                .filter(tarea -> {
+                    int id = tarea.getId();
+                    if (id >= 0 && vistos.get(id)) {
+                        return false;
+                    }
+                    if (id >= 0) {
+                        vistos.set(id);
+                    }
+                    return true;
+                })
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Un InputStream que termina después de 'limite' bytes, aunque el
+     * archivo siga (para no leer más allá del largo válido).
+     */
+    private static class EntradaLimitada extends FilterInputStream {
+        private long restantes;
+
+        EntradaLimitada(InputStream entrada, long limite) {
+            super(entrada);
+            this.restantes = limite;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (restantes <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                restantes--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) throws IOException {
+            if (restantes <= 0) {
+                return -1;
+            }
+            int leidos = super.read(destino, desde, (int) Math.min(cantidad, restantes));
+            if (leidos > 0) {
+                restantes -= leidos;
+            }
+            return leidos;
+        }
+
+        @Override
+        public long skip(long cantidad) throws IOException {
+            long salteados = super.skip(Math.min(cantidad, restantes));
+            restantes -= salteados;
+            return salteados;
+        }
+
+        @Override
+        public int available() throws IOException {
+            // GZIPInputStream lo usa para saber si viene otro bloque.
+            return (int) Math.min(super.available(), restantes);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Guarda las tareas "en segmentos": en vez de un único tareas.txt que se
+ * reescribe entero, hay una carpeta con varios archivos chicos, cada uno
+ * con un rango fijo de IDs (por ejemplo, el segmento 0 tiene los IDs
+ * 1 a 10000, el 1 del 10001 al 20000, etc.).
+ *
+ * - Al guardar sólo se reescriben los segmentos que cambiaron ("sucios").
+ *   Esta clase es un OyenteCambios: se entera de cada cambio y anota a qué
+ *   segmento le tocó.
+ * - Cada segmento se escribe en un archivo temporal, se fuerza al disco
+ *   (fsync) y recién ahí se le pone su nombre definitivo. Los nombres
+ *   llevan un número de "generación" que sube en cada guardado, así un
+ *   archivo nuevo nunca pisa al que se estaba usando.
+ * - El "manifiesto" dice qué archivo corresponde a cada segmento, cuántas
+ *   tareas tiene, cuánto ocupa y su CRC32 (una suma de verificación: si
+ *   cambia un solo byte del archivo, el CRC ya no coincide). Se escribe
+ *   igual que un segmento y se reemplaza al final: hasta ese momento vale
+ *   el guardado anterior completo. Si el programa se corta a la mitad, no
+ *   se pierde nada de lo que ya estaba guardado.
+ * - Al cargar, cada segmento se verifica (largo y CRC) y se lee en un hilo
+ *   distinto. Un segmento dañado no arruina a los demás: se aparta
+ *   (renombrado a .danado, para poder revisarlo a mano) y se cargan los sanos.
+ *
+ * Los segmentos tienen el mismo formato de línea que tareas.txt
+ * (Tarea.toFileString), en UTF-8 y sin la línea del próximo ID, que va en
+ * el manifiesto.
+ */
+public class ArchivoSegmentado implements OyenteCambios {
+
+    private static final String NOMBRE_MANIFIESTO = "manifiesto.txt";
+    private static final String ENCABEZADO = "SEGMENTOS 1";
+    private static final String PREFIJO = "segmento-";
+
+    /** Lo que dice el manifiesto de un segmento. */
+    private static class Segmento {
+        final int numero;
+        final String archivo;
+        final int cantidad;
+        final long bytes;
+        final long crc; // -1 = no se sabe (manifiesto reconstruido)
+
+        Segmento(int numero, String archivo, int cantidad, long bytes, long crc) {
+            this.numero = numero;
+            this.archivo = archivo;
+            this.cantidad = cantidad;
+            this.bytes = bytes;
+            this.crc = crc;
+        }
+    }
+
+    private final File carpeta;
+    private final CargadorTareas cargador = new CargadorTareas(StandardCharsets.UTF_8);
+    private final Object candadoGuardado = new Object(); // Un guardado a la vez
+
+    private int tareasPorSegmento;
+    private long generacion;
+    // Los segmentos del último manifiesto guardado (o leído), por número.
+    private volatile TreeMap<Integer, Segmento> segmentos = new TreeMap<>();
+    // Los segmentos que cambiaron desde el último guardado.
+    private final BitSet sucios = new BitSet();
+    private int segmentosDanados;
+    private int tareasPerdidas;
+
+    /**
+     * @param tareasPorSegmento Cuántos IDs entran en cada segmento. Si la
+     * carpeta ya tiene un manifiesto, se usa el valor guardado ahí.
+     */
+    public ArchivoSegmentado(File carpeta, int tareasPorSegmento) {
+        this.carpeta = carpeta;
+        this.tareasPorSegmento = tareasPorSegmento;
+    }
+
+    /**
+     * @return 'true' si ya hay tareas guardadas en segmentos.
+     */
+    public boolean existe() {
+        return new File(carpeta, NOMBRE_MANIFIESTO).exists();
+    }
+
+    private int numeroDeSegmento(int id) {
+        return (id - 1) / tareasPorSegmento;
+    }
+
+    // --- Carga ---
+
+    /**
+     * Lee el manifiesto y carga, en paralelo, todos los segmentos sanos.
+     * Si el manifiesto está dañado, lo rearma con los archivos que haya en
+     * la carpeta (y al guardar se reescribe todo).
+     */
+    public ResultadoCarga cargar() throws IOException {
+        int proximoId;
+        boolean reconstruido = false;
+        try {
+            proximoId = leerManifiesto();
+        } catch (IOException e) {
+            System.err.println("[Archivo] " + e.getMessage() + " Se rearma con los segmentos de la carpeta.");
+            proximoId = reconstruirManifiesto();
+            reconstruido = true;
+        }
+
+        // Cada segmento se verifica y se convierte en Tareas en su propio hilo.
+        AtomicInteger lineasCorruptas = new AtomicInteger();
+        List<Segmento> lista = new ArrayList<>(segmentos.values());
+        List<ForkJoinTask<List<Tarea>>> lecturas = new ArrayList<>();
+        for (Segmento segmento : lista) {
+            lecturas.add(ForkJoinPool.commonPool().submit(() -> leerSegmento(segmento, lineasCorruptas)));
+        }
+
+        // Juntamos los resultados en el orden de los segmentos (= orden de los IDs).
+        List<Tarea> tareas = new ArrayList<>();
+        for (int i = 0; i < lista.size(); i++) {
+            List<Tarea> delSegmento = lecturas.get(i).join();
+            if (delSegmento != null) {
+                tareas.addAll(delSegmento);
+            } else {
+                apartar(lista.get(i));
+            }
+        }
+        for (Tarea tarea : tareas) {
+            proximoId = Math.max(proximoId, tarea.getId() + 1);
+        }
+        if (reconstruido) {
+            marcarTodas(tareas); // Así el próximo guardado deja un manifiesto nuevo y completo
+        }
+        return new ResultadoCarga(tareas, proximoId, lineasCorruptas.get());
+    }
+
+    /**
+     * @return Las tareas del segmento, o 'null' si está dañado (ya se avisó).
+     */
+    private List<Tarea> leerSegmento(Segmento segmento, AtomicInteger lineasCorruptas) {
+        byte[] datos;
+        try {
+            datos = Files.readAllBytes(new File(carpeta, segmento.archivo).toPath());
+        } catch (IOException e) {
+            System.err.println("[Archivo] No se pudo leer el segmento " + segmento.numero + ": " + e.getMessage());
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+        if (segmento.crc >= 0 && (datos.length != segmento.bytes || crc.getValue() != segmento.crc)) {
+            System.err.println("[Archivo] El segmento " + segmento.numero + " (" + segmento.archivo
+                    + ") está dañado: su CRC no coincide con el del manifiesto.");
+            return null;
+        }
+        MetricasTareas.contarBytesLeidos(datos.length);
+        List<Tarea> tareas = new ArrayList<>(segmento.cantidad);
+        lineasCorruptas.addAndGet(cargador.parsearLineas(datos, 0, datos.length, tareas));
+        return tareas;
+    }
+
+    /**
+     * Saca del medio un segmento dañado: le cambia el nombre (para que un
+     * humano lo pueda revisar) y lo borra del manifiesto en el próximo guardado.
+     */
+    private void apartar(Segmento segmento) {
+        segmentosDanados++;
+        tareasPerdidas += segmento.cantidad;
+        File archivo = new File(carpeta, segmento.archivo);
+        if (archivo.exists() && !archivo.renameTo(new File(carpeta, segmento.archivo + ".danado"))) {
+            System.err.println("[Archivo] No se pudo apartar " + segmento.archivo + ".");
+        }
+        synchronized (this) {
+            sucios.set(segmento.numero);
+        }
+    }
+
+    /**
+     * Lee el manifiesto:
+     *   SEGMENTOS 1
+     *   tareasPorSegmento|proximoId|generacion
+     *   numero|archivo|cantidad|bytes|crc   (una línea por segmento)
+     *   FIN|crc de todo lo anterior
+     * @return El próximo ID.
+     */
+    private int leerManifiesto() throws IOException {
+        File archivo = new File(carpeta, NOMBRE_MANIFIESTO);
+        String texto = new String(Files.readAllBytes(archivo.toPath()), StandardCharsets.UTF_8);
+        int fin = texto.lastIndexOf("FIN|");
+        if (!texto.startsWith(ENCABEZADO + "\n") || fin < 0 || (fin > 0 && texto.charAt(fin - 1) != '\n')) {
+            throw new IOException("El manifiesto de " + carpeta.getName() + " está incompleto.");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(texto.substring(0, fin).getBytes(StandardCharsets.UTF_8));
+        try {
+            if (Long.parseLong(texto.substring(fin + 4).trim(), 16) != crc.getValue()) {
+                throw new IOException("El manifiesto de " + carpeta.getName() + " está dañado.");
+            }
+            String[] lineas = texto.substring(0, fin).split("\n");
+            String[] config = lineas[1].split("\\|");
+            this.tareasPorSegmento = Integer.parseInt(config[0]);
+            this.generacion = Long.parseLong(config[2]);
+            TreeMap<Integer, Segmento> leidos = new TreeMap<>();
+            for (int i = 2; i < lineas.length; i++) {
+                String[] partes = lineas[i].split("\\|");
+                Segmento segmento = new Segmento(Integer.parseInt(partes[0]), partes[1],
+                        Integer.parseInt(partes[2]), Long.parseLong(partes[3]), Long.parseLong(partes[4], 16));
+                leidos.put(segmento.numero, segmento);
+            }
+            this.segmentos = leidos;
+            return Integer.parseInt(config[1]);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("El manifiesto de " + carpeta.getName() + " está dañado.", e);
+        }
+    }
+
+    /**
+     * Sin manifiesto usable: para cada número de segmento tomamos el archivo
+     * de la generación más alta (siempre es un archivo completo, porque
+     * sólo se renombra después del fsync). No se puede verificar el CRC.
+     * @return El próximo ID (se recalcula al leer las tareas).
+     */
+    private int reconstruirManifiesto() {
+        TreeMap<Integer, Segmento> encontrados = new TreeMap<>();
+        TreeMap<Integer, Long> generaciones = new TreeMap<>();
+        File[] archivos = carpeta.listFiles();
+        for (File archivo : archivos == null ? new File[0] : archivos) {
+            String nombre = archivo.getName();
+            if (!nombre.startsWith(PREFIJO) || !nombre.endsWith(".txt")) {
+                continue;
+            }
+            String[] partes = nombre.substring(PREFIJO.length(), nombre.length() - 4).split("-");
+            try {
+                int numero = Integer.parseInt(partes[0]);
+                long gen = Long.parseLong(partes[1]);
+                if (gen > generaciones.getOrDefault(numero, -1L)) {
+                    generaciones.put(numero, gen);
+                    encontrados.put(numero, new Segmento(numero, nombre, 0, archivo.length(), -1));
+                }
+                generacion = Math.max(generacion, gen);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                // No es uno de nuestros archivos
+            }
+        }
+        this.segmentos = encontrados;
+        return 1;
+    }
+
+    // --- Cambios ---
+
+    @Override
+    public synchronized void alAgregar(Tarea tarea) {
+        sucios.set(numeroDeSegmento(tarea.getId()));
+    }
+
+    @Override
+    public synchronized void alCompletar(int id) {
+        sucios.set(numeroDeSegmento(id));
+    }
+
+    @Override
+    public synchronized void alEliminar(int id) {
+        sucios.set(numeroDeSegmento(id));
+    }
+
+    /**
+     * Marca como sucios los segmentos de todas estas tareas (para pasar
+     * de tareas.txt a segmentos, o después de rearmar el manifiesto).
+     */
+    public synchronized void marcarTodas(Iterable<Tarea> tareas) {
+        for (Tarea tarea : tareas) {
+            sucios.set(numeroDeSegmento(tarea.getId()));
+        }
+    }
+
+    // --- Guardado ---
+
+    /**
+     * Escribe los segmentos que cambiaron y después el manifiesto.
+     * Las tareas tienen que venir en orden de ID (como las da el almacén).
+     * @return Cuántos segmentos se escribieron, o -1 si hubo un error (en
+     * ese caso siguen sucios, para el próximo guardado).
+     */
+    public int guardar(Iterable<Tarea> tareas, int proximoId) {
+        return guardar(tareas, proximoId, tomarSucios());
+    }
+
+    /**
+     * Anota AHORA qué segmentos hay que escribir y devuelve "lo que hay que
+     * hacer" para escribirlos a partir de la foto, más tarde y en otro hilo
+     * (como TareaService.prepararGuardado, para el AutoGuardado).
+     */
+    public BooleanSupplier prepararGuardado(Iterable<Tarea> foto, int proximoId) {
+        BitSet aEscribir = tomarSucios();
+        return () -> guardar(foto, proximoId, aEscribir) >= 0;
+    }
+
+    private synchronized BitSet tomarSucios() {
+        BitSet aEscribir = (BitSet) sucios.clone();
+        sucios.clear();
+        return aEscribir;
+    }
+
+    private int guardar(Iterable<Tarea> tareas, int proximoId, BitSet aEscribir) {
+        synchronized (candadoGuardado) {
+            List<File> escritos = new ArrayList<>();
+            try {
+                int cantidad = escribir(tareas, proximoId, aEscribir, escritos);
+                borrarSobrantes();
+                return cantidad;
+            } catch (IOException e) {
+                System.err.println("Error al guardar los segmentos: " + e.getMessage());
+                for (File archivo : escritos) {
+                    archivo.delete(); // No llegaron al manifiesto: no sirven
+                }
+                synchronized (this) {
+                    sucios.or(aEscribir);
+                }
+                return -1;
+            }
+        }
+    }
+
+    private int escribir(Iterable<Tarea> tareas, int proximoId, BitSet aEscribir, List<File> escritos)
+            throws IOException {
+        if (aEscribir.isEmpty() && existe()) {
+            return 0; // No cambió nada
+        }
+        if (!carpeta.isDirectory() && !carpeta.mkdirs()) {
+            throw new IOException("No se pudo crear la carpeta " + carpeta.getName());
+        }
+        long nuevaGeneracion = generacion + 1;
+        TreeMap<Integer, Segmento> nuevos = new TreeMap<>(segmentos);
+        aEscribir.stream().forEach(nuevos::remove); // Si quedaron vacíos, desaparecen
+
+        // Las tareas vienen en orden de ID, así que las de cada segmento
+        // están todas juntas: las vamos juntando y escribimos de a un segmento.
+        int cantidad = 0;
+        int actual = -1;
+        List<Tarea> delSegmento = new ArrayList<>();
+        for (Tarea tarea : tareas) {
+            int numero = numeroDeSegmento(tarea.getId());
+            if (!aEscribir.get(numero)) {
+                continue;
+            }
+            if (numero != actual) {
+                if (numero < actual || nuevos.containsKey(numero)) {
+                    throw new IOException("Las tareas no están ordenadas por ID.");
+                }
+                if (!delSegmento.isEmpty()) {
+                    nuevos.put(actual, escribirSegmento(actual, nuevaGeneracion, delSegmento, escritos));
+                    cantidad++;
+                }
+                actual = numero;
+                delSegmento.clear();
+            }
+            delSegmento.add(tarea);
+        }
+        if (!delSegmento.isEmpty()) {
+            nuevos.put(actual, escribirSegmento(actual, nuevaGeneracion, delSegmento, escritos));
+            cantidad++;
+        }
+
+        // Recién ahora el guardado "cuenta": se reemplaza el manifiesto.
+        escribirManifiesto(nuevos, proximoId, nuevaGeneracion);
+        this.segmentos = nuevos;
+        this.generacion = nuevaGeneracion;
+        return cantidad;
+    }
+
+    private Segmento escribirSegmento(int numero, long gen, List<Tarea> tareas, List<File> escritos)
+            throws IOException {
+        String nombre = String.format("%s%06d-%d.txt", PREFIJO, numero, gen);
+        StringBuilder texto = new StringBuilder();
+        for (Tarea tarea : tareas) {
+            texto.append(tarea.toFileString()).append('\n');
+        }
+        File archivo = new File(carpeta, nombre);
+        long crc = escribirSeguro(archivo, texto.toString());
+        escritos.add(archivo);
+        return new Segmento(numero, nombre, tareas.size(), archivo.length(), crc);
+    }
+
+    private void escribirManifiesto(TreeMap<Integer, Segmento> nuevos, int proximoId, long gen)
+            throws IOException {
+        StringBuilder texto = new StringBuilder();
+        texto.append(ENCABEZADO).append('\n');
+        texto.append(tareasPorSegmento).append('|').append(proximoId).append('|').append(gen).append('\n');
+        for (Segmento segmento : nuevos.values()) {
+            texto.append(segmento.numero).append('|').append(segmento.archivo).append('|')
+                    .append(segmento.cantidad).append('|').append(segmento.bytes).append('|')
+                    .append(Long.toHexString(segmento.crc)).append('\n');
+        }
+        CRC32 crc = new CRC32();
+        crc.update(texto.toString().getBytes(StandardCharsets.UTF_8));
+        texto.append("FIN|").append(Long.toHexString(crc.getValue())).append('\n');
+        escribirSeguro(new File(carpeta, NOMBRE_MANIFIESTO), texto.toString());
+        sincronizarCarpeta(); // Que los cambios de nombre también lleguen al disco
+    }
+
+    /**
+     * Escribe un temporal, lo fuerza al disco y le pone el nombre definitivo
+     * (reemplazando al anterior, si había, de un solo paso).
+     * @return El CRC32 de lo escrito.
+     */
+    private long escribirSeguro(File destino, String texto) throws IOException {
+        File temporal = new File(destino.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream salida = new FileOutputStream(temporal)) {
+            BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(new CheckedOutputStream(salida, crc), StandardCharsets.UTF_8), 1 << 16);
+            writer.write(texto);
+            writer.flush();
+            salida.getFD().sync();
+        }
+        Files.move(temporal.toPath(), destino.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        MetricasTareas.contarBytesEscritos(destino.length());
+        return crc.getValue();
+    }
+
+    private void sincronizarCarpeta() {
+        try (FileChannel canal = FileChannel.open(carpeta.toPath(), StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // En algunos sistemas (Windows) no se puede abrir una carpeta así: no pasa nada.
+        }
+    }
+
+    /**
+     * Borra los segmentos que ya no están en el manifiesto (generaciones
+     * viejas y temporales de un guardado que se cortó). Los .danado quedan.
+     */
+    private void borrarSobrantes() {
+        File[] archivos = carpeta.listFiles();
+        if (archivos == null) {
+            return;
+        }
+        Set<String> vigentes = new HashSet<>();
+        for (Segmento segmento : segmentos.values()) {
+            vigentes.add(segmento.archivo);
+        }
+        for (File archivo : archivos) {
+            String nombre = archivo.getName();
+            boolean esNuestro = nombre.startsWith(PREFIJO) && (nombre.endsWith(".txt") || nombre.endsWith(".tmp"));
+            if (esNuestro && !vigentes.contains(nombre)) {
+                archivo.delete();
+            }
+        }
+    }
+
+    // --- Datos para mostrar ---
+
+    public int getCantidadSegmentos() {
+        return segmentos.size();
+    }
+
+    public int getSegmentosDanados() {
+        return segmentosDanados;
+    }
+
+    public int getTareasPerdidas() {
+        return tareasPerdidas;
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reparte IDs nuevos cuando varios procesos usan las mismas tareas (modo
+ * compartido), sin que dos procesos den nunca el mismo ID.
+ *
+ * En el archivo tareas.ids hay un solo número: el primer ID que todavía no
+ * le tocó a nadie. Cada proceso "alquila" un bloque de IDs seguidos (por
+ * ejemplo del 501 al 600): con el archivo bloqueado (FileLock, que también
+ * respetan los otros procesos) lee el número, le suma el tamaño del bloque
+ * y lo vuelve a escribir. Después reparte los IDs de su bloque sin tocar
+ * el disco ni bloquear nada (con un AtomicInteger), y recién cuando se le
+ * acaban alquila otro.
+ *
+ * Si un proceso termina sin usar todo su bloque, esos IDs quedan sin usar
+ * (no pasa nada: los IDs no tienen que ser seguidos, sólo distintos).
+ */
+public class AsignadorIds {
+
+    /** Un bloque alquilado: los IDs desde 'proximo' hasta 'fin' (sin incluirlo). */
+    private static class Bloque {
+        final AtomicInteger proximo;
+        final int fin;
+
+        Bloque(int inicio, int fin) {
+            this.proximo = new AtomicInteger(inicio);
+            this.fin = fin;
+        }
+    }
+
+    // El número ocupa siempre 11 caracteres más el salto de línea.
+    private static final int LARGO_CONTADOR = 12;
+
+    private final File archivo;
+    private final int tamanioBloque;
+    private final int minimo; // Nunca dar IDs menores a este (los que ya están en tareas.txt)
+    private volatile Bloque actual = new Bloque(0, 0); // Vacío: el primer pedido alquila uno
+    private int bloquesAlquilados;
+
+    /**
+     * @param minimo El próximo ID según tareas.txt (por si tareas.ids no existe o quedó atrás).
+     */
+    public AsignadorIds(File archivo, int minimo, int tamanioBloque) {
+        this.archivo = archivo;
+        this.minimo = minimo;
+        this.tamanioBloque = tamanioBloque;
+    }
+
+    /**
+     * Devuelve un ID que ningún otro proceso (ni otro hilo) va a recibir.
+     * Casi siempre es sólo un incremento atómico; cada 'tamanioBloque' IDs
+     * hay que alquilar otro bloque en el archivo.
+     */
+    public int siguiente() {
+        while (true) {
+            Bloque bloque = actual;
+            int id = bloque.proximo.getAndIncrement();
+            if (id < bloque.fin) {
+                return id;
+            }
+            // Se acabó el bloque: alquilamos otro (un solo hilo a la vez).
+            synchronized (this) {
+                if (actual == bloque) {
+                    actual = alquilar();
+                }
+            }
+        }
+    }
+
+    private Bloque alquilar() {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            FileLock candado = canal.lock(); // Espera si otro proceso lo tiene
+            try {
+                return alquilar(canal);
+            } finally {
+                candado.release();
+            }
+        } catch (IOException e) {
+            // Sin IDs no se puede agregar nada: que el error llegue hasta el menú.
+            throw new UncheckedIOException("No se pudo reservar IDs en " + archivo.getName(), e);
+        }
+    }
+
+    private Bloque alquilar(FileChannel canal) throws IOException {
+        ByteBuffer contenido = ByteBuffer.allocate(LARGO_CONTADOR);
+        while (contenido.hasRemaining() && canal.read(contenido, contenido.position()) > 0) {
+            // Leemos todo (es un número cortito)
+        }
+        String texto = new String(contenido.array(), 0, contenido.position(), StandardCharsets.US_ASCII).trim();
+        int inicio = minimo;
+        if (!texto.isEmpty()) {
+            try {
+                inicio = Math.max(minimo, Integer.parseInt(texto));
+            } catch (NumberFormatException e) {
+                System.err.println("Error al leer " + archivo.getName() + ", se usará " + minimo + ": " + texto);
+            }
+        }
+        int fin = inicio + tamanioBloque;
+        // Siempre con el mismo largo (con espacios adelante) y de una sola
+        // escritura: el archivo nunca queda vacío ni con medio número.
+        StringBuilder numero = new StringBuilder().append(fin);
+        while (numero.length() < LARGO_CONTADOR - 1) {
+            numero.insert(0, ' ');
+        }
+        numero.append('\n');
+        canal.write(ByteBuffer.wrap(numero.toString().getBytes(StandardCharsets.US_ASCII)), 0);
+        canal.force(true); // Que quede en el disco antes de soltar el candado
+        bloquesAlquilados++;
+        return new Bloque(inicio, fin);
+    }
+
+    public synchronized int getBloquesAlquilados() {
+        return bloquesAlquilados;
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.function.BooleanSupplier;
+
+/**
+ * Guarda las tareas solo, en segundo plano, un rato después de cada cambio.
+ * Así no hace falta esperar a salir (opción 0) para que queden en el disco,
+ * y el menú nunca se queda esperando a que se escriba el archivo.
+ *
+ * Cómo funciona:
+ * - Es un OyenteCambios: el servicio le avisa de cada cambio, y acá sólo
+ *   se anota que "hay algo sin guardar" (no se toca el disco).
+ * - Un hilo aparte espera a que pasen 'espera' milisegundos sin cambios
+ *   ("debounce"): si el usuario hace 20 cambios seguidos, se guarda una
+ *   sola vez al final, no 20. Pero si los cambios no paran nunca, igual
+ *   se guarda como mucho 'maximo' milisegundos después del primero.
+ * - Para guardar le pide al servicio una foto (instantánea) de las tareas,
+ *   que se saca en memoria en un momento, y recién después escribe esa foto
+ *   en el archivo, ya sin bloquear al servicio. Los cambios que llegan
+ *   mientras tanto quedan para el próximo guardado.
+ *
+ * El "retraso" de un guardado es cuánto pasó desde el primer cambio sin
+ * guardar hasta que quedó escrito: es lo máximo que se perdería si el
+ * programa se cortara de golpe.
+ */
+public class AutoGuardado implements OyenteCambios {
+
+    private final TareaService servicio;
+    private final long espera; // En milisegundos
+    private final long maximo;
+    private final Thread hilo;
+
+    // Todo lo que sigue se lee y se cambia con el candado de 'this'.
+    private boolean activo = true;
+    private long version;            // Sube con cada cambio
+    private long versionGuardada;    // La última que quedó en el disco
+    private long primerCambioSinGuardar; // System.nanoTime(), o 0 si no hay ninguno
+    private long ultimoCambio;
+    private int guardados;
+    private int fallidos;
+    private long ultimoRetrasoMs;
+    private long retrasoMaximoMs;
+
+    /**
+     * @param espera Cuántos milisegundos sin cambios esperar antes de guardar.
+     */
+    public AutoGuardado(TareaService servicio, long espera) {
+        if (espera <= 0) {
+            throw new IllegalArgumentException("La espera del autoguardado tiene que ser positiva.");
+        }
+        this.servicio = servicio;
+        this.espera = espera;
+        this.maximo = 5 * espera;
+        this.hilo = new Thread(this::trabajar, "autoguardado");
+        this.hilo.setDaemon(true); // Que no impida cerrar el programa
+    }
+
+    /**
+     * Empieza a escuchar los cambios del servicio y arranca el hilo.
+     */
+    public void iniciar() {
+        servicio.agregarOyente(this);
+        hilo.start();
+    }
+
+    /**
+     * Detiene el hilo (esperando a que termine si estaba escribiendo).
+     * No hace un último guardado: para eso está servicio.guardarDatos().
+     */
+    public void detener() {
+        synchronized (this) {
+            activo = false;
+            notifyAll();
+        }
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- OyenteCambios: sólo anotamos que hubo un cambio ---
+
+    @Override
+    public void alAgregar(Tarea tarea) {
+        huboCambio();
+    }
+
+    @Override
+    public void alCompletar(int id) {
+        huboCambio();
+    }
+
+    @Override
+    public void alEliminar(int id) {
+        huboCambio();
+    }
+
+    private synchronized void huboCambio() {
+        version++;
+        ultimoCambio = System.nanoTime();
+        if (primerCambioSinGuardar == 0) {
+            primerCambioSinGuardar = ultimoCambio;
+            notifyAll(); // Despertamos al hilo, que estaba esperando cambios
+        }
+    }
+
+    // --- El hilo que guarda ---
+
+    private void trabajar() {
+        while (true) {
+            long versionAGuardar;
+            long primerCambio;
+            synchronized (this) {
+                if (!esperarMomentoDeGuardar()) {
+                    return; // Nos pidieron detenernos
+                }
+                versionAGuardar = version;
+                primerCambio = primerCambioSinGuardar;
+                primerCambioSinGuardar = 0; // Los cambios que lleguen ahora van al próximo guardado
+            }
+
+            // Sin el candado de 'this': el servicio puede seguir avisando cambios.
+            // (La foto puede incluir alguno posterior a 'versionAGuardar': no pasa
+            // nada, a lo sumo el próximo guardado escribe lo mismo otra vez.)
+            long inicio = MetricasTareas.empezar();
+            BooleanSupplier escritura = servicio.prepararGuardado();
+            boolean salioBien = escritura.getAsBoolean();
+            MetricasTareas.terminar(MetricasTareas.Operacion.AUTOGUARDAR, inicio);
+
+            synchronized (this) {
+                if (salioBien) {
+                    versionGuardada = versionAGuardar;
+                    guardados++;
+                    long retraso = System.nanoTime() - primerCambio;
+                    MetricasTareas.registrar(MetricasTareas.Operacion.RETRASO_GUARDADO, retraso);
+                    ultimoRetrasoMs = retraso / 1_000_000;
+                    retrasoMaximoMs = Math.max(retrasoMaximoMs, ultimoRetrasoMs);
+                } else {
+                    // Los cambios siguen sin guardar desde el primero de antes.
+                    fallidos++;
+                    primerCambioSinGuardar = primerCambio;
+                    // Si el disco falla, no reintentamos sin parar: esperamos un poco.
+                    esperar(espera);
+                }
+            }
+        }
+    }
+
+    /**
+     * Espera (con el candado de 'this') a que haya cambios sin guardar y a
+     * que pase 'espera' desde el último (o 'maximo' desde el primero).
+     * @return 'false' si nos pidieron detenernos.
+     */
+    private boolean esperarMomentoDeGuardar() {
+        while (activo && version == versionGuardada) {
+            esperar(0); // 0 = hasta que alguien nos despierte
+        }
+        while (activo) {
+            long ahora = System.nanoTime();
+            long hasta = Math.min(ultimoCambio + espera * 1_000_000, primerCambioSinGuardar + maximo * 1_000_000);
+            if (ahora - hasta >= 0) {
+                return true;
+            }
+            // +1 para no despertarnos un poquito antes y dar una vuelta de más
+            esperar((hasta - ahora) / 1_000_000 + 1);
+        }
+        return false;
+    }
+
+    private void esperar(long milisegundos) {
+        try {
+            wait(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            activo = false;
+        }
+    }
+
+    // --- Para mostrar cómo viene ---
+
+    /** Cuántas veces se guardó bien. */
+    public synchronized int getGuardados() {
+        return guardados;
+    }
+
+    /** Cuántas veces falló la escritura (se vuelve a intentar solo). */
+    public synchronized int getFallidos() {
+        return fallidos;
+    }
+
+    /** Cuántos cambios hay hechos en memoria que todavía no están en el disco. */
+    public synchronized long getCambiosSinGuardar() {
+        return version - versionGuardada;
+    }
+
+    /** Retraso del último guardado, en milisegundos (ver la descripción de la clase). */
+    public synchronized long getUltimoRetrasoMs() {
+        return ultimoRetrasoMs;
+    }
+
+    /** El mayor retraso que tuvo un guardado, en milisegundos. */
+    public synchronized long getRetrasoMaximoMs() {
+        return retrasoMaximoMs;
+    }
+}
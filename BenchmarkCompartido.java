@@ -0,0 +1,201 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide el modo compartido (--compartido) con varios procesos de verdad
+ * trabajando a la vez sobre el mismo tareas.txt.
+ *
+ * Para 1, 2, 4... procesos: arma un tareas.txt inicial, lanza esa cantidad
+ * de JVMs "trabajadoras" y espera a que terminen. Cada trabajadora hace
+ * 'operaciones' cambios (70% agregar, 20% completar, 10% eliminar tareas
+ * del archivo inicial) y guarda cada 'guardarCada' cambios, compitiendo
+ * con las demás por el candado de tareas.lock y por los bloques de IDs.
+ *
+ * Al final revisa el archivo: que no haya IDs repetidos y que estén todas
+ * las tareas que agregó cada proceso (o sea, que nadie pisó a nadie).
+ * Muestra cuántas operaciones por segundo se hicieron entre todos y los
+ * tiempos (mediana y p99) de cada operación y de cada guardado.
+ *
+ * Escribe en la carpeta actual, así que hay que ejecutarlo en una carpeta vacía.
+ * Uso: java BenchmarkCompartido [procesos] [operaciones] [guardarCada] [tareasIniciales]
+ * Ejemplo: java BenchmarkCompartido 1,2,4 2000 200 10000
+ */
+public class BenchmarkCompartido {
+
+    private static final String[] ARCHIVOS = {"tareas.txt", "tareas.txt.tmp", "tareas.ids", "tareas.lock"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--trabajador")) {
+            trabajar(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                    Integer.parseInt(args[4]));
+            return;
+        }
+        String[] procesos = (args.length > 0 ? args[0] : "1,2,4").split(",");
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int guardarCada = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int tareasIniciales = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        if (new File("tareas.txt").exists()) {
+            System.err.println("Ya hay un tareas.txt en esta carpeta y el benchmark lo pisaría. "
+                    + "Ejecútelo en una carpeta vacía.");
+            return;
+        }
+        System.out.printf("[Benchmark compartido] %d operaciones por proceso, guardando cada %d, %d tareas iniciales%n",
+                operaciones, guardarCada, tareasIniciales);
+        System.out.println("procesos |   ops/s | operación p50/p99 (µs) | guardar p50/p99 (ms) | bloques de IDs | revisión");
+        try {
+            for (String cantidad : procesos) {
+                correr(Integer.parseInt(cantidad.trim()), operaciones, guardarCada, tareasIniciales);
+            }
+        } finally {
+            borrarArchivos();
+        }
+    }
+
+    private static void borrarArchivos() {
+        for (String nombre : ARCHIVOS) {
+            new File(nombre).delete();
+        }
+    }
+
+    // --- El proceso que coordina ---
+
+    private static void correr(int procesos, int operaciones, int guardarCada, int tareasIniciales)
+            throws IOException, InterruptedException {
+        borrarArchivos();
+        PrintStream consola = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        new GestorPersistencia().guardar(new GeneradorDatos(42).generar(tareasIniciales, 0.3, 40),
+                tareasIniciales + 1);
+        System.setOut(consola);
+
+        // Lanzamos todas las JVMs juntas y medimos hasta que termina la última.
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String claspath = System.getProperty("java.class.path");
+        List<Process> trabajadores = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < procesos; i++) {
+            ProcessBuilder constructor = new ProcessBuilder(java, "-cp", claspath, "BenchmarkCompartido",
+                    "--trabajador", String.valueOf(i), String.valueOf(operaciones), String.valueOf(guardarCada),
+                    String.valueOf(tareasIniciales));
+            constructor.redirectError(ProcessBuilder.Redirect.INHERIT);
+            trabajadores.add(constructor.start());
+        }
+        // Cada trabajador imprime un renglón: agregadas p50 p99 guardarP50 guardarP99 bloques
+        long[][] resultados = new long[procesos][];
+        for (int i = 0; i < procesos; i++) {
+            Process proceso = trabajadores.get(i);
+            try (BufferedReader lector = new BufferedReader(
+                    new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+                String linea = lector.readLine();
+                if (proceso.waitFor() != 0 || linea == null) {
+                    System.err.println("El proceso " + i + " terminó con error.");
+                    return;
+                }
+                String[] partes = linea.trim().split(" ");
+                resultados[i] = new long[partes.length];
+                for (int j = 0; j < partes.length; j++) {
+                    resultados[i][j] = Long.parseLong(partes[j]);
+                }
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        // Juntamos los números de todos (para p50/p99 tomamos el peor proceso)
+        long agregadas = 0;
+        long p50 = 0;
+        long p99 = 0;
+        long guardarP50 = 0;
+        long guardarP99 = 0;
+        long bloques = 0;
+        for (long[] r : resultados) {
+            agregadas += r[0];
+            p50 = Math.max(p50, r[1]);
+            p99 = Math.max(p99, r[2]);
+            guardarP50 = Math.max(guardarP50, r[3]);
+            guardarP99 = Math.max(guardarP99, r[4]);
+            bloques += r[5];
+        }
+        String revision = revisar(procesos, resultados, tareasIniciales);
+        System.out.printf("%8d | %7.0f | %10d / %-9d | %9d / %-8d | %14d | %s%n",
+                procesos, procesos * (double) operaciones / segundos, p50 / 1000, p99 / 1000,
+                guardarP50 / 1_000_000, guardarP99 / 1_000_000, bloques, revision);
+    }
+
+    /**
+     * Revisa el tareas.txt final: IDs sin repetir y todas las altas de cada proceso.
+     */
+    private static String revisar(int procesos, long[][] resultados, int tareasIniciales) throws IOException {
+        ResultadoCarga carga = new CargadorTareas().cargar(new File("tareas.txt"));
+        BitSet vistos = new BitSet();
+        int[] porProceso = new int[procesos];
+        for (Tarea tarea : carga.getTareas()) {
+            if (vistos.get(tarea.getId())) {
+                return "MAL: ID " + tarea.getId() + " repetido";
+            }
+            vistos.set(tarea.getId());
+            String descripcion = tarea.getDescripcion();
+            if (descripcion.startsWith("Proceso ")) {
+                porProceso[Integer.parseInt(descripcion.substring(8, descripcion.indexOf(' ', 8)))]++;
+            } else if (tarea.getId() > tareasIniciales) {
+                return "MAL: tarea desconocida " + tarea.getId();
+            }
+        }
+        for (int i = 0; i < procesos; i++) {
+            if (porProceso[i] != resultados[i][0]) {
+                return "MAL: del proceso " + i + " faltan " + (resultados[i][0] - porProceso[i]) + " tareas";
+            }
+        }
+        return "OK (" + carga.getTareas().size() + " tareas)";
+    }
+
+    // --- Cada proceso trabajador ---
+
+    private static void trabajar(int numero, int operaciones, int guardarCada, int tareasIniciales) {
+        PrintStream consola = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Que no se mezclen los "[Archivo] ..."
+        TareaService servicio = new TareaService();
+        servicio.setCompartido(true);
+        servicio.cargarDatos();
+
+        Random azar = new Random(numero);
+        HistogramaLatencia tiempos = new HistogramaLatencia();
+        HistogramaLatencia tiemposGuardar = new HistogramaLatencia();
+        int agregadas = 0;
+        for (int i = 1; i <= operaciones; i++) {
+            int tipo = azar.nextInt(10);
+            int id = 1 + azar.nextInt(tareasIniciales);
+            long inicio = System.nanoTime();
+            try {
+                if (tipo < 7) {
+                    servicio.agregarTarea("Proceso " + numero + " tarea " + i);
+                    agregadas++;
+                } else if (tipo < 9) {
+                    servicio.marcarComoCompletada(id);
+                } else {
+                    servicio.eliminarTarea(id);
+                }
+            } catch (TareaNoEncontradaException e) {
+                // Otro proceso (o nosotros) ya la había eliminado: es parte de la prueba.
+            }
+            tiempos.registrar(System.nanoTime() - inicio);
+            if (i % guardarCada == 0 || i == operaciones) {
+                long inicioGuardar = System.nanoTime();
+                servicio.guardarDatos();
+                tiemposGuardar.registrar(System.nanoTime() - inicioGuardar);
+            }
+        }
+        consola.println(agregadas + " " + tiempos.percentil(50) + " " + tiempos.percentil(99) + " "
+                + tiemposGuardar.percentil(50) + " " + tiemposGuardar.percentil(99) + " "
+                + servicio.getBloquesDeIds());
+    }
+}
@@ -0,0 +1,308 @@
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide cuánto tardan las operaciones principales de TareaService,
+ * GestorPersistencia y Tarea, para darnos cuenta si algún cambio las
+ * hace más lentas.
+ *
+ * Cada prueba se repite primero unas vueltas "de calentamiento" (para que
+ * la JVM compile el código) y después las vueltas que se miden. Por cada
+ * una mostramos:
+ *   - ns/op: nanosegundos por operación (promedio, y cuánto varía)
+ *   - B/op: bytes de memoria que se pidieron por operación
+ *   - GC: cuántas veces pasó el recolector de basura y cuánto tardó
+ *
+ * Los datos los inventa GeneradorDatos (siempre los mismos para la misma
+ * cantidad). Las pruebas de guardar/cargar escriben un tareas.txt en la
+ * carpeta actual, por eso hay que ejecutarlo en una carpeta vacía.
+ *
+ * Uso: java BenchmarkTareas [cantidad] [proporcionCompletadas] [largoDescripcion] [filtro] [--columnar]
+ * Ejemplo: java -Xmx4g BenchmarkTareas 1000000 0.3 40 guardar
+ * (el filtro es opcional: sólo se corren las pruebas cuyo nombre lo contenga)
+ *
+ * Para comparar con más confianza (cada prueba en su propia JVM) están las
+ * mismas pruebas con JMH: ver jmh/benchmark/BenchmarkJmh.java y el perfil
+ * "jmh" del pom.xml.
+ */
+public class BenchmarkTareas {
+
+    private static final int VUELTAS_CALENTAMIENTO = 5;
+    private static final int VUELTAS_MEDICION = 10;
+
+    // Mientras medimos, lo que imprimen las clases (ej: "[Archivo] Se guardaron...")
+    // va a parar acá, así no ensucia los resultados ni se mide la consola.
+    private static final PrintStream CONSOLA = System.out;
+    private static final PrintStream SILENCIO = new PrintStream(OutputStream.nullOutputStream());
+
+    // Sumamos acá algo de cada resultado para que la JVM no pueda
+    // "ahorrarse" el trabajo por ver que nadie lo usa.
+    private static long sumidero;
+
+    /**
+     * Lo que se mide en cada vuelta. Devuelve cuántas operaciones hizo,
+     * para poder dividir el tiempo total por operación.
+     */
+    private interface Operacion {
+        int ejecutar() throws Exception;
+    }
+
+    /**
+     * Lo que se hace antes de cada vuelta y no se mide.
+     */
+    private interface Preparacion {
+        void preparar() throws Exception;
+    }
+
+    private final List<Tarea> datos;
+    private final String[] lineas;
+    private final int[] idsAlAzar;
+    private final boolean columnar;
+    private final int cantidad;
+    private TareaService servicio;
+
+    private BenchmarkTareas(List<Tarea> datos, boolean columnar) {
+        this.datos = datos;
+        this.columnar = columnar;
+        this.cantidad = datos.size();
+        this.lineas = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            lineas[i] = datos.get(i).toFileString();
+        }
+        // Todos los IDs mezclados, para buscar/eliminar en un orden cualquiera
+        this.idsAlAzar = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            idsAlAzar[i] = i + 1;
+        }
+        Random azar = new Random(7);
+        for (int i = cantidad - 1; i > 0; i--) {
+            int j = azar.nextInt(i + 1);
+            int aux = idsAlAzar[i];
+            idsAlAzar[i] = idsAlAzar[j];
+            idsAlAzar[j] = aux;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> posicionales = new ArrayList<>();
+        boolean columnar = false;
+        for (String arg : args) {
+            if (arg.equals("--columnar")) {
+                columnar = true;
+            } else {
+                posicionales.add(arg);
+            }
+        }
+        int cantidad = posicionales.size() > 0 ? Integer.parseInt(posicionales.get(0)) : 100_000;
+        double proporcionCompletadas = posicionales.size() > 1 ? Double.parseDouble(posicionales.get(1)) : 0.3;
+        int largoDescripcion = posicionales.size() > 2 ? Integer.parseInt(posicionales.get(2)) : 40;
+        String filtro = posicionales.size() > 3 ? posicionales.get(3) : "";
+
+        File archivo = new File("tareas.txt");
+        if (archivo.exists()) {
+            System.err.println("Ya hay un tareas.txt en esta carpeta y las pruebas lo pisarían. "
+                    + "Ejecute el benchmark en una carpeta vacía.");
+            return;
+        }
+
+        System.out.printf("[Benchmark] %d tareas, %.0f%% completadas, descripciones de ~%d caracteres, almacén %s%n",
+                cantidad, proporcionCompletadas * 100, largoDescripcion, columnar ? "columnar" : "de objetos");
+        List<Tarea> datos = new GeneradorDatos(42).generar(cantidad, proporcionCompletadas, largoDescripcion);
+        BenchmarkTareas benchmark = new BenchmarkTareas(datos, columnar);
+        try {
+            benchmark.correr(filtro);
+        } finally {
+            archivo.delete();
+        }
+    }
+
+    private void correr(String filtro) throws Exception {
+        // Las listas son rápidas: las repetimos para que cada vuelta dure algo medible.
+        int repeticionesListar = Math.max(1, 1_000_000 / Math.max(1, cantidad));
+
+        // --- Tarea ---
+        medir(filtro, "Tarea.toFileString", null, () -> {
+            for (Tarea tarea : datos) {
+                sumidero += tarea.toFileString().length();
+            }
+            return cantidad;
+        });
+        medir(filtro, "Tarea.fromFileString", null, () -> {
+            for (String linea : lineas) {
+                sumidero += Tarea.fromFileString(linea).getId();
+            }
+            return cantidad;
+        });
+        medir(filtro, "Tarea.toString", null, () -> {
+            for (Tarea tarea : datos) {
+                sumidero += tarea.toString().length();
+            }
+            return cantidad;
+        });
+
+        // Exportar todas las tareas a un archivo, de a lotes
+        File exportacion = new File("benchmark_exportacion.txt");
+        medir(filtro, "RenderizadorTareas.escribir (archivo)", null, () -> {
+            try (RenderizadorTareas salida = RenderizadorTareas.aArchivo(exportacion.toPath())) {
+                for (Tarea tarea : datos) {
+                    salida.escribir(tarea);
+                }
+            }
+            return cantidad;
+        });
+        exportacion.delete();
+
+        // --- TareaService ---
+        medir(filtro, "TareaService.agregarTarea", () -> servicio = nuevoServicio(), () -> {
+            for (Tarea tarea : datos) {
+                sumidero += servicio.agregarTarea(tarea.getDescripcion()).getId();
+            }
+            return cantidad;
+        });
+        // marcarComoCompletada primero tiene que encontrar la tarea por su ID
+        medir(filtro, "TareaService.marcarComoCompletada", this::llenarServicio, () -> {
+            for (int id : idsAlAzar) {
+                sumidero += servicio.marcarComoCompletada(id).getId();
+            }
+            return cantidad;
+        });
+        medir(filtro, "TareaService.eliminarTarea", this::llenarServicio, () -> {
+            for (int id : idsAlAzar) {
+                servicio.eliminarTarea(id);
+            }
+            return cantidad;
+        });
+        // Con la regla conocida (usa el IndiceEstado) y con una lambda cualquiera (revisa todas)
+        medir(filtro, "TareaService.listarTareasFiltradas(PENDIENTES)", this::llenarServicio, () -> {
+            for (int i = 0; i < repeticionesListar; i++) {
+                sumidero += servicio.listarTareasFiltradas(TareaService.PENDIENTES).size();
+            }
+            return repeticionesListar;
+        });
+        medir(filtro, "TareaService.listarTareasFiltradas(lambda)", this::llenarServicio, () -> {
+            for (int i = 0; i < repeticionesListar; i++) {
+                sumidero += servicio.listarTareasFiltradas(tarea -> !tarea.isCompletada()).size();
+            }
+            return repeticionesListar;
+        });
+
+        // --- GestorPersistencia (ns/op = nanosegundos por tarea) ---
+        GestorPersistencia persistencia = new GestorPersistencia();
+        medir(filtro, "GestorPersistencia.guardar", null, () -> {
+            persistencia.guardar(datos, cantidad + 1);
+            return cantidad;
+        });
+        // Las pruebas de carga necesitan el archivo (aunque no se haya corrido la de guardar)
+        System.setOut(SILENCIO);
+        persistencia.guardar(datos, cantidad + 1);
+        System.setOut(CONSOLA);
+        medir(filtro, "GestorPersistencia.cargar", null, () -> {
+            sumidero += persistencia.cargar().getTareas().size();
+            return cantidad;
+        });
+
+        // Lo imprimimos para que el sumidero se "use" de verdad.
+        CONSOLA.println("[Benchmark] Listo (control: " + sumidero + ")");
+    }
+
+    private TareaService nuevoServicio() {
+        return new TareaService(false, columnar ? new AlmacenColumnar() : new AlmacenObjetos());
+    }
+
+    /**
+     * Deja en 'servicio' un servicio nuevo con todas las tareas de prueba
+     * (con los IDs 1..cantidad y la misma proporción de completadas).
+     */
+    private void llenarServicio() throws TareaNoEncontradaException {
+        servicio = nuevoServicio();
+        for (Tarea tarea : datos) {
+            Tarea nueva = servicio.agregarTarea(tarea.getDescripcion());
+            if (tarea.isCompletada()) {
+                servicio.marcarComoCompletada(nueva.getId());
+            }
+        }
+    }
+
+    /**
+     * Corre una prueba y muestra sus resultados.
+     *
+     * @param preparacion Lo que hay que hacer antes de cada vuelta y NO se mide (puede ser null).
+     * @param operacion Lo que se mide.
+     */
+    private static void medir(String filtro, String nombre, Preparacion preparacion, Operacion operacion) throws Exception {
+        if (!nombre.contains(filtro)) {
+            return;
+        }
+        // La JVM de HotSpot sabe cuántos bytes pidió cada hilo: así medimos la memoria.
+        com.sun.management.ThreadMXBean hilos =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        double[] nanosPorOperacion = new double[VUELTAS_MEDICION];
+        long bytes = 0;
+        long operaciones = 0;
+        long recolecciones = 0;
+        long milisRecolector = 0;
+
+        System.setOut(SILENCIO);
+        try {
+            for (int vuelta = 0; vuelta < VUELTAS_CALENTAMIENTO + VUELTAS_MEDICION; vuelta++) {
+                if (preparacion != null) {
+                    preparacion.preparar();
+                }
+                long recoleccionesAntes = contarRecolecciones();
+                long milisAntes = milisRecolector();
+                long bytesAntes = hilos.getCurrentThreadAllocatedBytes();
+                long inicio = System.nanoTime();
+
+                int hechas = operacion.ejecutar();
+
+                long nanos = System.nanoTime() - inicio;
+                if (vuelta >= VUELTAS_CALENTAMIENTO) {
+                    nanosPorOperacion[vuelta - VUELTAS_CALENTAMIENTO] = nanos / (double) hechas;
+                    bytes += hilos.getCurrentThreadAllocatedBytes() - bytesAntes;
+                    operaciones += hechas;
+                    recolecciones += contarRecolecciones() - recoleccionesAntes;
+                    milisRecolector += milisRecolector() - milisAntes;
+                }
+            }
+        } finally {
+            System.setOut(CONSOLA);
+        }
+
+        double promedio = 0;
+        for (double valor : nanosPorOperacion) {
+            promedio += valor;
+        }
+        promedio /= VUELTAS_MEDICION;
+        double varianza = 0;
+        for (double valor : nanosPorOperacion) {
+            varianza += (valor - promedio) * (valor - promedio);
+        }
+        double desvio = Math.sqrt(varianza / VUELTAS_MEDICION);
+
+        CONSOLA.printf("%-48s %12.1f ns/op  ±%5.1f%%  %10.1f B/op  %4d GC (%d ms)%n",
+                nombre, promedio, promedio == 0 ? 0 : desvio * 100 / promedio,
+                bytes / (double) operaciones, recolecciones, milisRecolector);
+    }
+
+    private static long contarRecolecciones() {
+        long total = 0;
+        for (GarbageCollectorMXBean recolector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, recolector.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long milisRecolector() {
+        long total = 0;
+        for (GarbageCollectorMXBean recolector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, recolector.getCollectionTime());
+        }
+        return total;
+    }
+}
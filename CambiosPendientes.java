@@ -0,0 +1,72 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Los cambios que hizo ESTE proceso desde la última vez que guardó, en el
+ * orden en que se hicieron. Se usa en el modo compartido (varios procesos
+ * con el mismo tareas.txt): al guardar no se escribe "nuestra" lista
+ * entera (eso borraría lo que guardaron los demás), sino que se vuelve a
+ * leer el archivo y se le aplican encima estos cambios (ver
+ * GestorPersistencia.guardarCombinando).
+ */
+public class CambiosPendientes implements OyenteCambios {
+
+    // Un cambio: 'A' (alta, con la tarea), 'C' (completar) o 'E' (eliminar).
+    private static class Cambio {
+        final char tipo;
+        final int id;
+        final Tarea tarea;
+
+        Cambio(char tipo, int id, Tarea tarea) {
+            this.tipo = tipo;
+            this.id = id;
+            this.tarea = tarea;
+        }
+    }
+
+    private List<Cambio> cambios = new ArrayList<>();
+
+    @Override
+    public void alAgregar(Tarea tarea) {
+        cambios.add(new Cambio('A', tarea.getId(), tarea));
+    }
+
+    @Override
+    public void alCompletar(int id) {
+        cambios.add(new Cambio('C', id, null));
+    }
+
+    @Override
+    public void alEliminar(int id) {
+        cambios.add(new Cambio('E', id, null));
+    }
+
+    public int getCantidad() {
+        return cambios.size();
+    }
+
+    /**
+     * Le "repite" los cambios a otro oyente (en el mismo orden).
+     */
+    public void aplicar(OyenteCambios destino) {
+        for (Cambio cambio : cambios) {
+            switch (cambio.tipo) {
+                case 'A':
+                    destino.alAgregar(cambio.tarea);
+                    break;
+                case 'C':
+                    destino.alCompletar(cambio.id);
+                    break;
+                default:
+                    destino.alEliminar(cambio.id);
+            }
+        }
+    }
+
+    /**
+     * Se llama cuando los cambios ya quedaron guardados.
+     */
+    public void limpiar() {
+        cambios = new ArrayList<>();
+    }
+}
@@ -0,0 +1,192 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Carga el archivo de tareas usando todos los núcleos del procesador.
+ *
+ * La idea es partir el archivo en "bloques" de muchas líneas (cortando
+ * siempre justo después de un '\n', para no partir ninguna línea al medio)
+ * y darle cada bloque a un hilo distinto. Cada hilo arma sus propias
+ * Tareas y, al final, juntamos los resultados respetando el orden del archivo.
+ *
+ * El archivo se lee "mapeado en memoria" (MappedByteBuffer): el sistema
+ * operativo nos deja ver el archivo como si fuera un arreglo de bytes, y
+ * cada hilo lee las tareas directo de ahí, sin copiar su bloque a un byte[].
+ */
+public class CargadorParalelo {
+
+    // Tamaño mínimo de cada bloque: con bloques muy chicos se pierde
+    // más tiempo repartiendo trabajo que leyendo.
+    private static final long TAMANIO_MINIMO_BLOQUE = 1024 * 1024;
+    // Tamaño máximo: cada bloque se mapea aparte (y se recorre con posiciones 'int').
+    private static final long TAMANIO_MAXIMO_BLOQUE = 256L * 1024 * 1024;
+
+    private final CargadorTareas cargador = new CargadorTareas();
+    private final ForkJoinPool pool;
+    private boolean mostrarTiempos;
+
+    public CargadorParalelo() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CargadorParalelo(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Si está activado, al terminar se imprime cuánto tardó cada bloque,
+     * para ver cómo escala la carga con la cantidad de núcleos.
+     */
+    public void setMostrarTiempos(boolean mostrarTiempos) {
+        this.mostrarTiempos = mostrarTiempos;
+    }
+
+    public ResultadoCarga cargar(File archivo) throws IOException {
+        long inicioTotal = System.nanoTime();
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+
+            // 1. La primera línea es el 'proximoId'.
+            long finPrimeraLinea = buscarFinDeLinea(canal, 0, tamanio);
+            byte[] primeraLinea = new byte[(int) Math.min(finPrimeraLinea, Integer.MAX_VALUE - 8)];
+            canal.read(ByteBuffer.wrap(primeraLinea), 0);
+            int proximoId = primeraLinea.length == 0 ? 1
+                    : cargador.leerProximoId(ByteBuffer.wrap(primeraLinea), 0, primeraLinea.length);
+
+            // 2. Partimos el resto en bloques que terminan justo después de un '\n'.
+            long inicioDatos = Math.min(finPrimeraLinea + 1, tamanio);
+            long tamanioBloque = (tamanio - inicioDatos) / (pool.getParallelism() * 4L) + 1;
+            tamanioBloque = Math.max(TAMANIO_MINIMO_BLOQUE, Math.min(TAMANIO_MAXIMO_BLOQUE, tamanioBloque));
+
+            List<Bloque> bloques = new ArrayList<>();
+            long inicio = inicioDatos;
+            while (inicio < tamanio) {
+                long fin = Math.min(tamanio, inicio + tamanioBloque);
+                if (fin < tamanio) {
+                    fin = Math.min(tamanio, buscarFinDeLinea(canal, fin, tamanio) + 1);
+                }
+                bloques.add(new Bloque(cargador, canal, bloques.size(), inicio, fin));
+                inicio = fin;
+            }
+
+            // 3. Mandamos todos los bloques al pool de hilos y esperamos que terminen.
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(bloques);
+                    return null;
+                }
+            });
+
+            // 4. Juntamos los resultados en el mismo orden que el archivo.
+            int total = 0;
+            int corruptas = 0;
+            for (Bloque bloque : bloques) {
+                if (bloque.error != null) {
+                    throw bloque.error;
+                }
+                total += bloque.tareas.size();
+                corruptas += bloque.corruptas;
+            }
+            List<Tarea> tareas = new ArrayList<>(total);
+            for (Bloque bloque : bloques) {
+                tareas.addAll(bloque.tareas);
+            }
+
+            if (mostrarTiempos) {
+                imprimirTiempos(bloques, System.nanoTime() - inicioTotal);
+            }
+            return new ResultadoCarga(tareas, proximoId, corruptas);
+        }
+    }
+
+    /**
+     * Devuelve la posición del primer '\n' a partir de 'desde' (o 'tamanio' si no hay).
+     * Lee de a pedacitos, sin necesidad de mapear todo el archivo.
+     */
+    private static long buscarFinDeLinea(FileChannel canal, long desde, long tamanio) throws IOException {
+        ByteBuffer pedazo = ByteBuffer.allocate(8192);
+        long posicion = desde;
+        while (posicion < tamanio) {
+            pedazo.clear();
+            int leidos = canal.read(pedazo, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (pedazo.get(i) == '\n') {
+                    return posicion + i;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamanio;
+    }
+
+    private void imprimirTiempos(List<Bloque> bloques, long nanosTotal) {
+        System.out.println("[Carga paralela] " + bloques.size() + " bloques en "
+                + pool.getParallelism() + " hilos, total " + (nanosTotal / 1_000_000) + " ms");
+        for (Bloque bloque : bloques) {
+            System.out.printf("  bloque %3d: %8.1f MB, %9d tareas, %6d ms (%s)%n",
+                    bloque.numero, (bloque.fin - bloque.inicio) / (1024.0 * 1024.0),
+                    bloque.tareas.size(), bloque.nanos / 1_000_000, bloque.hilo);
+        }
+    }
+
+    /**
+     * Un pedazo del archivo que procesa un solo hilo.
+     * (Es 'static': no necesita nada del CargadorParalelo más que el cargador.)
+     */
+    private static class Bloque extends RecursiveTask<Void> {
+
+        // RecursiveTask es Serializable, pero un Bloque nunca se serializa.
+        private static final long serialVersionUID = 1L;
+
+        private final transient CargadorTareas cargador;
+        private final transient FileChannel canal;
+        private final int numero;
+        private final long inicio;
+        private final long fin;
+
+        // Resultados (los completa el hilo que procesa el bloque).
+        private transient List<Tarea> tareas = new ArrayList<>();
+        private int corruptas;
+        private long nanos;
+        private String hilo;
+        private IOException error;
+
+        Bloque(CargadorTareas cargador, FileChannel canal, int numero, long inicio, long fin) {
+            this.cargador = cargador;
+            this.canal = canal;
+            this.numero = numero;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        @Override
+        protected Void compute() {
+            long comienzo = System.nanoTime();
+            hilo = Thread.currentThread().getName();
+            try {
+                MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio);
+                int tamanio = (int) (fin - inicio);
+                // Estimamos la cantidad de tareas para no agrandar la lista muchas veces.
+                tareas = new ArrayList<>(tamanio / 48 + 16);
+                corruptas = cargador.parsearLineas(mapa, 0, tamanio, tareas);
+            } catch (IOException e) {
+                error = e;
+            }
+            nanos = System.nanoTime() - comienzo;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee el archivo de tareas de una sola pasada y lo más rápido posible.
+ *
+ * En lugar de leer línea por línea con 'readLine()' y partir cada una con
+ * 'split', leemos bloques grandes de bytes y los recorremos "a mano",
+ * buscando los separadores '|' y los saltos de línea. Los números y las
+ * fechas también se arman a mano, dígito por dígito, así no creamos
+ * Strings intermedios ni lanzamos una excepción por cada línea rota.
+ *
+ * Los bytes se leen de un ByteBuffer: puede envolver un byte[] (como en
+ * cargar) o ser una parte del archivo mapeada en memoria (como en el
+ * CargadorParalelo), y así no hace falta copiarla antes a un byte[].
+ */
+public class CargadorTareas {
+
+    private static final int TAMANIO_BLOQUE = 64 * 1024;
+
+    // Marca de "esto no es un número válido" para los métodos de lectura.
+    private static final int INVALIDO = Integer.MIN_VALUE;
+
+    // El archivo se escribe con FileWriter, que usa la codificación del sistema.
+    // Los separadores, dígitos y fechas son ASCII, así que sólo hace falta
+    // decodificar la descripción.
+    private final Charset charset;
+
+    public CargadorTareas() {
+        this(Charset.defaultCharset());
+    }
+
+    public CargadorTareas(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Lee el archivo completo: primero el próximo ID y después las tareas.
+     */
+    public ResultadoCarga cargar(File archivo) throws IOException {
+        List<Tarea> tareas = new ArrayList<>();
+        int proximoId = 1;
+        int corruptas = 0;
+        int numeroLinea = 0;
+
+        try (InputStream entrada = new FileInputStream(archivo)) {
+            byte[] buffer = new byte[TAMANIO_BLOQUE];
+            ByteBuffer vista = ByteBuffer.wrap(buffer); // Para leer 'buffer' con los métodos de abajo
+            int ocupado = 0;    // Cuántos bytes válidos hay en 'buffer'
+            boolean fin = false;
+
+            while (!fin || ocupado > 0) {
+                if (!fin) {
+                    // Si una línea no entra en el buffer, lo agrandamos.
+                    if (ocupado == buffer.length) {
+                        byte[] mayor = new byte[buffer.length * 2];
+                        System.arraycopy(buffer, 0, mayor, 0, ocupado);
+                        buffer = mayor;
+                        vista = ByteBuffer.wrap(buffer);
+                    }
+                    int leidos = entrada.read(buffer, ocupado, buffer.length - ocupado);
+                    if (leidos < 0) {
+                        fin = true;
+                    } else {
+                        ocupado += leidos;
+                    }
+                }
+
+                // Recorremos todas las líneas completas que hay en el buffer.
+                int inicio = 0;
+                int i = 0;
+                while (i < ocupado) {
+                    if (buffer[i] == '\n') {
+                        numeroLinea++;
+                        if (numeroLinea == 1) {
+                            proximoId = leerProximoId(vista, inicio, i);
+                        } else if (!procesarLinea(vista, inicio, i, numeroLinea, tareas)) {
+                            corruptas++;
+                        }
+                        inicio = i + 1;
+                    }
+                    i++;
+                }
+
+                // La última línea del archivo puede no terminar en '\n'.
+                if (fin && inicio < ocupado) {
+                    numeroLinea++;
+                    if (numeroLinea == 1) {
+                        proximoId = leerProximoId(vista, inicio, ocupado);
+                    } else if (!procesarLinea(vista, inicio, ocupado, numeroLinea, tareas)) {
+                        corruptas++;
+                    }
+                    inicio = ocupado;
+                }
+
+                // Lo que quedó sin procesar (una línea a medias) pasa al principio.
+                ocupado -= inicio;
+                System.arraycopy(buffer, inicio, buffer, 0, ocupado);
+            }
+        }
+        return new ResultadoCarga(tareas, proximoId, corruptas);
+    }
+
+    int leerProximoId(ByteBuffer datos, int inicio, int fin) {
+        fin = sinRetornoDeCarro(datos, inicio, fin);
+        int id = leerEntero(datos, inicio, fin);
+        if (id == INVALIDO) {
+            System.err.println("Error al leer el ID, se usará 1 por defecto.");
+            return 1;
+        }
+        return id;
+    }
+
+    /**
+     * Convierte en Tareas todas las líneas de datos[inicio, fin) y las agrega
+     * a 'destino'. La usan el CargadorParalelo y el ArchivoSegmentado, que le
+     * pasan bloques de líneas completas (no saben en qué número de línea empiezan).
+     * @return La cantidad de líneas corruptas que se encontraron.
+     */
+    public int parsearLineas(byte[] datos, int inicio, int fin, List<Tarea> destino) {
+        return parsearLineas(ByteBuffer.wrap(datos), inicio, fin, destino);
+    }
+
+    /**
+     * Igual, pero leyendo de un ByteBuffer (por ejemplo, un MappedByteBuffer)
+     * sin copiarlo. 'inicio' y 'fin' son posiciones absolutas del buffer.
+     */
+    public int parsearLineas(ByteBuffer datos, int inicio, int fin, List<Tarea> destino) {
+        int corruptas = 0;
+        int desde = inicio;
+        for (int i = inicio; i <= fin; i++) {
+            if (i == fin || datos.get(i) == '\n') {
+                if (desde < i && !procesarLinea(datos, desde, i, -1, destino)) {
+                    corruptas++;
+                }
+                desde = i + 1;
+            }
+        }
+        return corruptas;
+    }
+
+    /**
+     * Convierte una línea en Tarea y la agrega a la lista.
+     * @param numeroLinea El número de línea para el mensaje de error, o -1 si no se sabe.
+     * @return 'false' si la línea está corrupta (ya se avisó por System.err).
+     */
+    private boolean procesarLinea(ByteBuffer datos, int inicio, int fin, int numeroLinea, List<Tarea> tareas) {
+        fin = sinRetornoDeCarro(datos, inicio, fin);
+        if (inicio == fin) {
+            return true; // Las líneas vacías no son un error, simplemente no tienen nada
+        }
+        Tarea tarea = parsearLinea(datos, inicio, fin);
+        if (tarea == null) {
+            String texto = leerTexto(datos, inicio, fin);
+            if (numeroLinea < 0) {
+                System.err.println("Error al leer línea de tarea: " + texto);
+            } else {
+                System.err.println("Error al leer línea " + numeroLinea + " de tarea: " + texto);
+            }
+            return false;
+        }
+        tareas.add(tarea);
+        return true;
+    }
+
+    /**
+     * Convierte los bytes [inicio, fin) de una línea "id|descripcion|completada|fecha"
+     * en una Tarea. Devuelve 'null' si la línea no tiene el formato correcto.
+     * No lanza excepciones: la idea es que una línea rota cueste lo mismo que una sana.
+     */
+    public Tarea parsearLinea(byte[] datos, int inicio, int fin) {
+        return parsearLinea(ByteBuffer.wrap(datos), inicio, fin);
+    }
+
+    /**
+     * Lo mismo, para una línea que ya se leyó como texto (por ejemplo, con
+     * un BufferedReader). Se pasa a bytes con el charset de este cargador.
+     */
+    public Tarea parsearLinea(String linea) {
+        byte[] datos = linea.getBytes(charset);
+        return parsearLinea(datos, 0, datos.length);
+    }
+
+    private Tarea parsearLinea(ByteBuffer datos, int inicio, int fin) {
+        // El ID va hasta el primer '|'.
+        int primerSeparador = buscar(datos, inicio, fin, (byte) '|');
+        // La fecha va después del último '|' y 'completada' antes de ese.
+        // Buscando desde atrás, la descripción puede tener '|' adentro sin romper nada.
+        int ultimoSeparador = buscarDesdeAtras(datos, inicio, fin, (byte) '|');
+        if (primerSeparador < 0 || ultimoSeparador <= primerSeparador) {
+            return null;
+        }
+        int anteultimoSeparador = buscarDesdeAtras(datos, primerSeparador + 1, ultimoSeparador, (byte) '|');
+        if (anteultimoSeparador < 0) {
+            return null;
+        }
+
+        int id = leerEntero(datos, inicio, primerSeparador);
+        if (id == INVALIDO) {
+            return null;
+        }
+        LocalDate fecha = leerFecha(datos, ultimoSeparador + 1, fin);
+        if (fecha == null) {
+            return null;
+        }
+        boolean completada = esTrue(datos, anteultimoSeparador + 1, ultimoSeparador);
+        String descripcion = leerTexto(datos, primerSeparador + 1, anteultimoSeparador);
+
+        return new Tarea(id, descripcion, completada, fecha);
+    }
+
+    // --- Métodos ayudantes para leer "a mano" ---
+
+    /**
+     * Convierte los bytes [inicio, fin) en texto. Si el buffer envuelve un
+     * byte[] se lee de ahí directo; si no (un archivo mapeado), se copian
+     * sólo esos bytes.
+     */
+    private String leerTexto(ByteBuffer datos, int inicio, int fin) {
+        if (datos.hasArray()) {
+            return new String(datos.array(), datos.arrayOffset() + inicio, fin - inicio, charset);
+        }
+        byte[] texto = new byte[fin - inicio];
+        datos.get(inicio, texto);
+        return new String(texto, charset);
+    }
+
+    private static int sinRetornoDeCarro(ByteBuffer datos, int inicio, int fin) {
+        // En Windows las líneas terminan en "\r\n": descartamos el '\r'.
+        if (fin > inicio && datos.get(fin - 1) == '\r') {
+            return fin - 1;
+        }
+        return fin;
+    }
+
+    private static int buscar(ByteBuffer datos, int inicio, int fin, byte b) {
+        for (int i = inicio; i < fin; i++) {
+            if (datos.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int buscarDesdeAtras(ByteBuffer datos, int inicio, int fin, byte b) {
+        for (int i = fin - 1; i >= inicio; i--) {
+            if (datos.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lee un entero (con signo opcional). Devuelve INVALIDO si no es un número
+     * o si no entra en un 'int'.
+     */
+    private static int leerEntero(ByteBuffer datos, int inicio, int fin) {
+        if (inicio >= fin) {
+            return INVALIDO;
+        }
+        boolean negativo = false;
+        int i = inicio;
+        if (datos.get(i) == '-' || datos.get(i) == '+') {
+            negativo = datos.get(i) == '-';
+            i++;
+            if (i == fin) {
+                return INVALIDO;
+            }
+        }
+        long valor = 0;
+        for (; i < fin; i++) {
+            int digito = datos.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return INVALIDO;
+            }
+            valor = valor * 10 + digito;
+            if (valor > Integer.MAX_VALUE) {
+                return INVALIDO;
+            }
+        }
+        return (int) (negativo ? -valor : valor);
+    }
+
+    /**
+     * Lee una fecha en formato "aaaa-mm-dd" (el que usa LocalDate.toString())
+     * sin pasar por DateTimeFormatter. Devuelve null si no es una fecha válida.
+     */
+    private static LocalDate leerFecha(ByteBuffer datos, int inicio, int fin) {
+        if (fin - inicio != 10 || datos.get(inicio + 4) != '-' || datos.get(inicio + 7) != '-') {
+            return null;
+        }
+        int anio = leerDigitos(datos, inicio, 4);
+        int mes = leerDigitos(datos, inicio + 5, 2);
+        int dia = leerDigitos(datos, inicio + 8, 2);
+        if (anio < 0 || mes < 1 || mes > 12 || dia < 1 || dia > diasDelMes(anio, mes)) {
+            return null;
+        }
+        return LocalDate.of(anio, mes, dia); // Ya validamos todo: esto no puede fallar
+    }
+
+    private static int leerDigitos(ByteBuffer datos, int inicio, int cantidad) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + cantidad; i++) {
+            int digito = datos.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private static int diasDelMes(int anio, int mes) {
+        switch (mes) {
+            case 2:
+                boolean bisiesto = (anio % 4 == 0 && anio % 100 != 0) || anio % 400 == 0;
+                return bisiesto ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Igual que Boolean.parseBoolean: sólo "true" (sin importar mayúsculas) es verdadero.
+     */
+    private static boolean esTrue(ByteBuffer datos, int inicio, int fin) {
+        return fin - inicio == 4
+                && (datos.get(inicio) | 0x20) == 't'
+                && (datos.get(inicio + 1) | 0x20) == 'r'
+                && (datos.get(inicio + 2) | 0x20) == 'u'
+                && (datos.get(inicio + 3) | 0x20) == 'e';
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador de carga para medir el modo servidor (ServidorHttp).
+ *
+ * Lanza varios hilos que, durante un tiempo fijo, hacen pedidos al servidor
+ * lo más rápido posible: 50% agregar, 30% completar, 10% eliminar y 10%
+ * listar pendientes. Al final muestra cuántos pedidos por segundo se
+ * atendieron y los tiempos de respuesta (mediana, percentil 99, máximo).
+ *
+ * Uso: java ClienteCarga [url] [hilos] [segundos]
+ * Ejemplo: java ClienteCarga http://localhost:8080/tareas 32 10
+ */
+public class ClienteCarga {
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/tareas";
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(hilos))
+                .build();
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+
+        System.out.println("[Carga] " + hilos + " hilos contra " + url + " durante " + segundos + " s...");
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        List<Future<Medicion>> resultados = new ArrayList<>();
+        for (int i = 0; i < hilos; i++) {
+            int semilla = i;
+            resultados.add(pool.submit(() -> trabajar(cliente, url, fin, new Random(semilla))));
+        }
+
+        // Juntamos las mediciones de todos los hilos.
+        Medicion total = new Medicion();
+        for (Future<Medicion> resultado : resultados) {
+            total.sumar(resultado.get());
+        }
+        pool.shutdown();
+        total.imprimir(segundos);
+        System.exit(0); // El pool interno del HttpClient no termina solo
+    }
+
+    private static Medicion trabajar(HttpClient cliente, String url, long fin, Random azar) {
+        Medicion medicion = new Medicion();
+        int mayorId = 1;
+        while (System.nanoTime() < fin) {
+            int dado = azar.nextInt(10);
+            HttpRequest pedido;
+            if (dado < 5) {
+                pedido = HttpRequest.newBuilder(URI.create(url))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"descripcion\":\"Tarea de prueba " + dado + "\"}"))
+                        .build();
+            } else if (dado < 8) {
+                pedido = HttpRequest.newBuilder(URI.create(url + "/" + (1 + azar.nextInt(mayorId)) + "/completar"))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            } else if (dado < 9) {
+                pedido = HttpRequest.newBuilder(URI.create(url + "/" + (1 + azar.nextInt(mayorId))))
+                        .DELETE()
+                        .build();
+            } else {
+                pedido = HttpRequest.newBuilder(URI.create(url + "?estado=pendientes")).GET().build();
+            }
+
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<String> respuesta = cliente.send(pedido, HttpResponse.BodyHandlers.ofString());
+                medicion.registrar(System.nanoTime() - inicio, respuesta.statusCode() >= 500);
+                if (respuesta.statusCode() == 201) {
+                    // Sacamos el ID de {"id":123,... para completar/eliminar tareas que existan
+                    String cuerpo = respuesta.body();
+                    int coma = cuerpo.indexOf(',');
+                    mayorId = Math.max(mayorId, Integer.parseInt(cuerpo.substring(6, coma)));
+                }
+            } catch (IOException e) {
+                medicion.registrar(System.nanoTime() - inicio, true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return medicion;
+    }
+
+    /**
+     * Tiempos de respuesta de un hilo (en nanosegundos).
+     */
+    private static class Medicion {
+        private long[] tiempos = new long[1024];
+        private int cantidad;
+        private int errores;
+
+        void registrar(long nanos, boolean error) {
+            if (cantidad == tiempos.length) {
+                tiempos = Arrays.copyOf(tiempos, cantidad * 2);
+            }
+            tiempos[cantidad++] = nanos;
+            if (error) {
+                errores++;
+            }
+        }
+
+        void sumar(Medicion otra) {
+            for (int i = 0; i < otra.cantidad; i++) {
+                registrar(otra.tiempos[i], false);
+            }
+            errores += otra.errores;
+        }
+
+        void imprimir(int segundos) {
+            Arrays.sort(tiempos, 0, cantidad);
+            System.out.printf("[Carga] %d pedidos (%d errores), %.0f pedidos/s%n",
+                    cantidad, errores, cantidad / (double) segundos);
+            if (cantidad > 0) {
+                System.out.printf("[Carga] latencia: mediana %.2f ms, p90 %.2f ms, p99 %.2f ms, máx %.2f ms%n",
+                        percentil(50), percentil(90), percentil(99), tiempos[cantidad - 1] / 1e6);
+            }
+        }
+
+        private double percentil(int p) {
+            int posicion = (int) Math.min(cantidad - 1, (long) cantidad * p / 100);
+            return tiempos[posicion] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Modo "por lotes": comandos que se ejecutan directo desde la línea de
+ * comandos, sin pasar por el menú, para trabajar con muchas tareas juntas.
+ *
+ * Uso (las opciones de siempre, como --diario o --columnar, van antes del comando):
+ *   java AppTareas importar <archivo|-> [--csv]
+ *       Agrega una tarea por renglón (la descripción). Con --csv (o si el
+ *       archivo termina en .csv) cada renglón es: descripcion,completada,fecha
+ *       (las dos últimas columnas son opcionales). También se puede importar
+ *       un CSV hecho con "exportar" (con la columna id, que se ignora).
+ *   java AppTareas exportar <archivo|-> [--estado=pendientes|completadas] [--csv]
+ *   java AppTareas completar <ids|->
+ *   java AppTareas eliminar <ids|->
+ *       Los IDs van separados por comas y pueden ser rangos: 1,5,7 o 10-200 o 1,3,10-20
+ *
+ * "-" significa la entrada o la salida estándar, para usarlo con tuberías:
+ *   cat pendientes.txt | java AppTareas importar -
+ *
+ * Primero se lee y se revisa toda la entrada: si hay un error, no se cambia nada.
+ */
+public class ComandosLote {
+
+    private static final List<String> COMANDOS = Arrays.asList("importar", "exportar", "completar", "eliminar");
+    // Para que un rango mal escrito (ej: 1-2000000000) no se coma toda la memoria.
+    private static final int MAXIMO_IDS = 50_000_000;
+
+    private final TareaService servicio;
+    private final PrintStream salida; // Donde van los datos de "exportar -"
+
+    public ComandosLote(TareaService servicio, PrintStream salida) {
+        this.servicio = servicio;
+        this.salida = salida;
+    }
+
+    public static boolean esComando(String argumento) {
+        return COMANDOS.contains(argumento);
+    }
+
+    /**
+     * Ejecuta un comando. Los mensajes van a System.out (el que llama puede
+     * mandarlos a la salida de errores para no mezclarlos con los datos).
+     *
+     * @param argumentos El nombre del comando y sus parámetros.
+     * @return 'true' si salió bien.
+     */
+    public boolean ejecutar(List<String> argumentos) {
+        String comando = argumentos.get(0);
+        List<String> parametros = new ArrayList<>();
+        boolean csv = false;
+        Predicate<Tarea> filtro = null;
+        for (String argumento : argumentos.subList(1, argumentos.size())) {
+            if (argumento.equals("--csv")) {
+                csv = true;
+            } else if (argumento.equals("--estado=pendientes")) {
+                filtro = TareaService.PENDIENTES;
+            } else if (argumento.equals("--estado=completadas")) {
+                filtro = TareaService.COMPLETADAS;
+            } else {
+                parametros.add(argumento);
+            }
+        }
+        if (parametros.size() != 1) {
+            System.out.println("Error: el comando '" + comando + "' necesita un parámetro (ver ComandosLote).");
+            return false;
+        }
+        String parametro = parametros.get(0);
+
+        try {
+            switch (comando) {
+                case "importar":
+                    return importar(parametro, csv || parametro.toLowerCase().endsWith(".csv"));
+                case "exportar":
+                    return exportar(parametro, filtro, csv || parametro.toLowerCase().endsWith(".csv"));
+                case "completar":
+                    int[] aCompletar = leerIds(parametro);
+                    int completadas = servicio.completarTareas(aCompletar);
+                    System.out.println("Se completaron " + completadas + " tareas"
+                            + noEncontrados(aCompletar.length - completadas) + ".");
+                    return true;
+                default: // "eliminar"
+                    int[] aEliminar = leerIds(parametro);
+                    int eliminadas = servicio.eliminarTareas(aEliminar);
+                    System.out.println("Se eliminaron " + eliminadas + " tareas"
+                            + noEncontrados(aEliminar.length - eliminadas) + ".");
+                    return true;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error de lectura/escritura: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private static String noEncontrados(int cantidad) {
+        return cantidad == 0 ? "" : " (" + cantidad + " IDs no existían o estaban repetidos)";
+    }
+
+    // --- importar ---
+
+    private boolean importar(String origen, boolean csv) throws IOException {
+        List<Tarea> tareas = new ArrayList<>();
+        List<Integer> renglonesConError = new ArrayList<>();
+        boolean conId = false; // El CSV de "exportar" (con encabezado) trae el ID como primera columna
+        try (BufferedReader lector = abrir(origen)) {
+            String linea;
+            int numero = 0;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                if (linea.trim().isEmpty()) {
+                    continue; // Renglones vacíos: no son tareas
+                }
+                if (!csv) {
+                    if (Tarea.tieneCaracteresDeControl(linea)) {
+                        renglonesConError.add(numero);
+                    } else {
+                        tareas.add(new Tarea(0, linea.trim()));
+                    }
+                    continue;
+                }
+                if (numero == 1 && linea.equals(RenderizadorTareas.ENCABEZADO_CSV)) {
+                    // Sólo el encabezado exacto de "exportar": una tarea que se llame
+                    // "id" o "descripcion" en el primer renglón se importa como cualquier otra.
+                    conId = true;
+                    continue;
+                }
+                List<String> campos = leerCsv(linea);
+                if (conId && campos != null) {
+                    campos = campos.subList(1, campos.size()); // El ID viejo no se usa
+                }
+                Tarea tarea = campos == null || campos.isEmpty() ? null : tareaDesdeCsv(campos);
+                if (tarea == null) {
+                    renglonesConError.add(numero);
+                } else {
+                    tareas.add(tarea);
+                }
+            }
+        }
+        if (!renglonesConError.isEmpty()) {
+            List<Integer> primeros = renglonesConError.subList(0, Math.min(10, renglonesConError.size()));
+            System.out.println("Error: hay " + renglonesConError.size() + " renglones mal escritos (por ejemplo: "
+                    + primeros + "). No se importó nada.");
+            return false;
+        }
+        servicio.importarTareas(tareas);
+        System.out.println("Se importaron " + tareas.size() + " tareas.");
+        return true;
+    }
+
+    private static BufferedReader abrir(String origen) throws IOException {
+        if (origen.equals("-")) {
+            return new BufferedReader(new InputStreamReader(System.in), 1 << 16);
+        }
+        return Files.newBufferedReader(Paths.get(origen));
+    }
+
+    /**
+     * Parte un renglón CSV en campos. Un campo entre comillas puede tener
+     * comas adentro, y "" dentro de las comillas es una comilla.
+     * A los campos sin comillas se les sacan los espacios de los extremos;
+     * los que van entre comillas quedan tal cual (así "exportar" puede
+     * guardar una descripción que empieza o termina con espacios).
+     * @return Los campos, o 'null' si falta cerrar una comilla.
+     */
+    static List<String> leerCsv(String linea) {
+        List<String> campos = new ArrayList<>(3);
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean conComillas = false; // Si el campo actual empezó con una comilla
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                if (!conComillas && campo.toString().trim().isEmpty()) {
+                    campo.setLength(0); // Los espacios antes de la comilla no son parte del campo
+                    conComillas = true;
+                }
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(conComillas ? campo.toString() : campo.toString().trim());
+                campo.setLength(0);
+                conComillas = false;
+            } else if (!conComillas || c > ' ') {
+                campo.append(c); // (los espacios después de la comilla de cierre se ignoran)
+            }
+        }
+        if (entreComillas) {
+            return null;
+        }
+        campos.add(conComillas ? campo.toString() : campo.toString().trim());
+        return campos;
+    }
+
+    /**
+     * Arma una tarea (con ID 0: el servicio le pone uno nuevo) desde
+     * los campos descripcion[,completada[,fecha]].
+     * @return La tarea, o 'null' si algún campo no es válido.
+     */
+    private static Tarea tareaDesdeCsv(List<String> campos) {
+        if (campos.size() > 3) {
+            return null;
+        }
+        String descripcion = campos.get(0); // leerCsv ya sacó los espacios si no tenía comillas
+        if (descripcion.trim().isEmpty() || Tarea.tieneCaracteresDeControl(descripcion)) {
+            return null;
+        }
+        boolean completada = false;
+        if (campos.size() > 1 && !campos.get(1).trim().isEmpty()) {
+            String valor = campos.get(1).trim();
+            if (valor.equalsIgnoreCase("true") || valor.equals("1") || valor.equalsIgnoreCase("si")) {
+                completada = true;
+            } else if (!(valor.equalsIgnoreCase("false") || valor.equals("0") || valor.equalsIgnoreCase("no"))) {
+                return null;
+            }
+        }
+        LocalDate fecha = LocalDate.now();
+        if (campos.size() > 2 && !campos.get(2).trim().isEmpty()) {
+            try {
+                fecha = LocalDate.parse(campos.get(2).trim());
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+        return new Tarea(0, descripcion, completada, fecha);
+    }
+
+    // --- exportar ---
+
+    private boolean exportar(String destino, Predicate<Tarea> filtro, boolean csv) throws IOException {
+        int[] cantidad = new int[1]; // Arreglo para poder sumar desde la lambda
+        try (RenderizadorTareas escritor = destino.equals("-")
+                ? RenderizadorTareas.aSalida(salida)
+                : RenderizadorTareas.aArchivo(Paths.get(destino))) {
+            if (csv) {
+                escritor.escribirLinea(RenderizadorTareas.ENCABEZADO_CSV);
+            }
+            servicio.recorrerTareas(filtro).forEach(tarea -> {
+                if (csv) {
+                    escritor.escribirCsv(tarea);
+                } else {
+                    escritor.escribir(tarea);
+                }
+                cantidad[0]++;
+            });
+        }
+        System.out.println("Se exportaron " + cantidad[0] + " tareas.");
+        return true;
+    }
+
+    // --- completar / eliminar ---
+
+    /**
+     * Lee una lista de IDs como "1,5,7", "10-200" o "1,3,10-20".
+     * Con "-" los lee de la entrada estándar (separados por comas, espacios o renglones).
+     */
+    private static int[] leerIds(String texto) throws IOException {
+        if (texto.equals("-")) {
+            StringBuilder todo = new StringBuilder();
+            try (BufferedReader lector = abrir("-")) {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    todo.append(linea).append(',');
+                }
+            }
+            texto = todo.toString();
+        }
+        int[] ids = new int[16];
+        int cantidad = 0;
+        for (String parte : texto.split("[,\\s]+")) {
+            if (parte.isEmpty()) {
+                continue;
+            }
+            int guion = parte.indexOf('-', 1); // Desde 1: "-5" sería un número negativo, no un rango
+            int desde;
+            int hasta;
+            try {
+                desde = Integer.parseInt(guion < 0 ? parte : parte.substring(0, guion));
+                hasta = guion < 0 ? desde : Integer.parseInt(parte.substring(guion + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("ID no válido: '" + parte + "'");
+            }
+            if (hasta < desde) {
+                throw new IllegalArgumentException("Rango al revés: '" + parte + "'");
+            }
+            long largo = (long) hasta - desde + 1;
+            if (cantidad + largo > MAXIMO_IDS) {
+                throw new IllegalArgumentException("Demasiados IDs (el máximo es " + MAXIMO_IDS + ").");
+            }
+            int necesarios = (int) (cantidad + largo);
+            if (necesarios > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(necesarios, ids.length * 2));
+            }
+            for (long id = desde; id <= hasta; id++) {
+                ids[cantidad++] = (int) id;
+            }
+        }
+        return Arrays.copyOf(ids, cantidad);
+    }
+}
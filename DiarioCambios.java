@@ -0,0 +1,231 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * El "diario" (log) de cambios. En vez de reescribir todo el archivo de
+ * tareas cada vez, anotamos al final de este archivo una línea cortita
+ * por cada cambio. Así guardar cuesta lo mismo haya 10 o un millón de tareas,
+ * y si el programa se cierra de golpe no se pierde lo que ya se anotó.
+ *
+ * Formato de cada línea:
+ *   A|id|descripcion|completada|fechaCreacion   (se agregó una tarea)
+ *   C|id                                        (se completó una tarea)
+ *   E|id                                        (se eliminó una tarea)
+ */
+public class DiarioCambios implements OyenteCambios {
+
+    private final File archivo;
+    private BufferedWriter writer;
+    private int registros; // Cuántas líneas tiene el diario desde la última compactación
+    private boolean enLote; // Durante un lote vaciamos el buffer sólo al final
+
+    public DiarioCambios(File archivo) {
+        this.archivo = archivo;
+    }
+
+    /**
+     * Lee el diario de principio a fin y le "repite" cada cambio al destino.
+     * Se usa al arrancar, después de cargar la última foto (snapshot) del archivo.
+     * @return La cantidad de cambios que se repitieron.
+     */
+    public int reproducir(OyenteCambios destino) {
+        registros = 0;
+        if (!archivo.exists()) {
+            return 0;
+        }
+        try {
+            cortarLineaIncompleta();
+        } catch (IOException e) {
+            System.err.println("Error al leer el diario: " + e.getMessage());
+            return 0;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                registros++;
+                // Una línea rota en el medio del archivo (editado a mano,
+                // por ejemplo): la salteamos y seguimos.
+                if (linea.length() < 3 || linea.charAt(1) != '|') {
+                    System.err.println("Error al leer línea del diario: " + linea);
+                    MetricasTareas.contarErroresDeLectura(1);
+                    continue;
+                }
+                String resto = linea.substring(2);
+                try {
+                    switch (linea.charAt(0)) {
+                        case 'A':
+                            Tarea tarea = Tarea.fromFileString(resto);
+                            if (tarea != null) {
+                                destino.alAgregar(tarea);
+                            }
+                            break;
+                        case 'C':
+                            destino.alCompletar(Integer.parseInt(resto));
+                            break;
+                        case 'E':
+                            destino.alEliminar(Integer.parseInt(resto));
+                            break;
+                        default:
+                            System.err.println("Error al leer línea del diario: " + linea);
+                            MetricasTareas.contarErroresDeLectura(1);
+                    }
+                } catch (NumberFormatException e) {
+                    System.err.println("Error al leer línea del diario: " + linea);
+                    MetricasTareas.contarErroresDeLectura(1);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer el diario: " + e.getMessage());
+        }
+        MetricasTareas.contarBytesLeidos(archivo.length());
+        if (registros > 0) {
+            System.out.println("[Diario] Se repitieron " + registros + " cambios.");
+        }
+        return registros;
+    }
+
+    /**
+     * Si el programa se cortó a mitad de un cambio, la última línea quedó
+     * sin '\n' (por ejemplo "E|12" en vez de "E|123"). No se puede saber
+     * qué decía, así que la borramos del archivo antes de leerlo: si no, se
+     * completaría o eliminaría otra tarea, y el próximo cambio se le pegaría.
+     * (El feed hace lo mismo, ver FeedCambios.leerUltimaSecuencia.)
+     */
+    private void cortarLineaIncompleta() throws IOException {
+        try (RandomAccessFile archivoDiario = new RandomAccessFile(archivo, "rw")) {
+            long largo = archivoDiario.length();
+            if (largo == 0) {
+                return;
+            }
+            archivoDiario.seek(largo - 1);
+            if (archivoDiario.read() == '\n') {
+                return; // Lo normal: la última línea está completa
+            }
+            // Buscamos el último '\n' de atrás para adelante, de a bloques.
+            byte[] bloque = new byte[4096];
+            long fin = largo;
+            long nuevoLargo = 0;
+            while (fin > 0 && nuevoLargo == 0) {
+                long desde = Math.max(0, fin - bloque.length);
+                archivoDiario.seek(desde);
+                archivoDiario.readFully(bloque, 0, (int) (fin - desde));
+                for (int i = (int) (fin - desde) - 1; i >= 0; i--) {
+                    if (bloque[i] == '\n') {
+                        nuevoLargo = desde + i + 1;
+                        break;
+                    }
+                }
+                fin = desde;
+            }
+            archivoDiario.setLength(nuevoLargo);
+            System.err.println("[Diario] La última línea estaba cortada (" + (largo - nuevoLargo)
+                    + " bytes): se descartó.");
+            MetricasTareas.contarErroresDeLectura(1);
+        }
+    }
+
+    /**
+     * Abre el diario para seguir escribiendo al final (modo "append").
+     */
+    public void abrir() {
+        try {
+            this.writer = new BufferedWriter(new FileWriter(archivo, true));
+        } catch (IOException e) {
+            System.err.println("Error al abrir el diario: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void alAgregar(Tarea tarea) {
+        escribir("A|" + tarea.toFileString());
+    }
+
+    @Override
+    public void alCompletar(int id) {
+        escribir("C|" + id);
+    }
+
+    @Override
+    public void alEliminar(int id) {
+        escribir("E|" + id);
+    }
+
+    private void escribir(String registro) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(registro);
+            writer.newLine();
+            // Vaciamos el buffer en cada cambio: si el programa se corta,
+            // el cambio ya está en el archivo.
+            if (!enLote) {
+                writer.flush();
+            }
+            registros++;
+            // Aproximado: un byte por carácter (las tildes ocupan dos en el archivo).
+            MetricasTareas.contarBytesEscritos(registro.length() + 1);
+        } catch (IOException e) {
+            System.err.println("Error al escribir en el diario: " + e.getMessage());
+        }
+    }
+
+    /**
+     * En un lote de miles de cambios, hacer un flush por cada uno es lo que
+     * más tarda. Los juntamos y vaciamos el buffer una sola vez al terminar
+     * (si el programa se corta en el medio, puede quedar sólo una parte del lote).
+     */
+    @Override
+    public void alEmpezarLote() {
+        enLote = true;
+    }
+
+    @Override
+    public void alTerminarLote() {
+        enLote = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error al escribir en el diario: " + e.getMessage());
+        }
+    }
+
+    public int getRegistros() {
+        return registros;
+    }
+
+    /**
+     * Vacía el diario. Se llama justo después de guardar una foto nueva
+     * del archivo de tareas, porque esos cambios ya quedaron adentro.
+     */
+    public void reiniciar() {
+        cerrar();
+        try {
+            new FileWriter(archivo, false).close(); // Abrir sin 'append' lo deja vacío
+        } catch (IOException e) {
+            System.err.println("Error al vaciar el diario: " + e.getMessage());
+        }
+        registros = 0;
+        abrir();
+    }
+
+    public void cerrar() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el diario: " + e.getMessage());
+        }
+        writer = null;
+    }
+}
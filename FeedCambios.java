@@ -0,0 +1,253 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.TreeMap;
+
+/**
+ * El "feed" de cambios (tareas.feed): como el diario, una línea por cada
+ * cambio, pero pensado para que OTROS programas lo lean mientras se escribe
+ * (ver SeguidorCambios y ReplicaTareas) y sin que ninguno tenga que leer
+ * tareas.txt entero.
+ *
+ * Diferencias con el diario:
+ * - Cada línea tiene un número de secuencia (1, 2, 3...) que no se repite
+ *   nunca, ni entre ejecuciones: así quien lo lee puede decir "seguí
+ *   desde el cambio 1500".
+ * - Nunca se vacía (el diario se vacía cada vez que se compacta), porque
+ *   no sabemos hasta dónde leyó cada programa que lo sigue.
+ * - Cada línea lleva la hora en que se escribió, para medir el retraso.
+ * - La primera vez que se crea, empieza con un alta por cada tarea que ya
+ *   existía: así alguien que empieza desde el cambio 0 arma la lista entera.
+ * - Cada cambio se fuerza al disco (no sólo se pasa al sistema operativo):
+ *   si se corta la luz, un cambio que alguna réplica ya leyó no desaparece.
+ *   En un lote se fuerza una sola vez, al final.
+ *
+ * Formato de cada línea:
+ *   secuencia|milisegundos|A|id|descripcion|completada|fechaCreacion
+ *   secuencia|milisegundos|C|id
+ *   secuencia|milisegundos|E|id
+ */
+public class FeedCambios implements OyenteCambios {
+
+    private final File archivo;
+    private FileOutputStream salida; // Para forzar al disco lo que pasa por el 'writer'
+    private BufferedWriter writer;
+    private long secuencia; // La del último cambio escrito
+    private boolean enLote;
+
+    public FeedCambios(File archivo) {
+        this.archivo = archivo;
+    }
+
+    /**
+     * Abre el feed para seguir escribiendo al final. Si no existía, lo crea
+     * con un alta por cada una de las tareas actuales.
+     */
+    public void abrir(Iterable<Tarea> tareasActuales) {
+        boolean nuevo = !archivo.exists() || archivo.length() == 0;
+        try {
+            secuencia = nuevo ? 0 : leerUltimaSecuencia(archivo);
+            salida = new FileOutputStream(archivo, true);
+            writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 1 << 16);
+        } catch (IOException e) {
+            System.err.println("Error al abrir el feed de cambios: " + e.getMessage());
+            return;
+        }
+        if (nuevo) {
+            alEmpezarLote();
+            for (Tarea tarea : tareasActuales) {
+                alAgregar(tarea);
+            }
+            alTerminarLote();
+            System.out.println("[Feed] Se creó " + archivo.getName() + " con " + secuencia + " tareas.");
+        }
+    }
+
+    /**
+     * Busca el número de secuencia de la última línea completa, leyendo
+     * sólo el final del archivo (no todo). Si el programa se cortó a mitad
+     * de una línea, la última queda sin '\n': la borramos, para que el
+     * próximo cambio no se pegue a ella. (Si alguien que sigue el feed ya
+     * había leído esa mitad, se da cuenta de que cambió y la descarta.)
+     */
+    static long leerUltimaSecuencia(File archivo) throws IOException {
+        try (RandomAccessFile lector = new RandomAccessFile(archivo, "rw")) {
+            long largo = lector.length();
+            int bloque = 4096;
+            while (true) {
+                long desde = Math.max(0, largo - bloque);
+                byte[] bytes = new byte[(int) (largo - desde)];
+                lector.seek(desde);
+                lector.readFully(bytes);
+                // Buscamos, de atrás para adelante, una línea completa.
+                int fin = bytes.length - 1;
+                while (fin >= 0 && bytes[fin] != '\n') {
+                    fin--;
+                }
+                if (fin < bytes.length - 1 && (fin >= 0 || desde == 0)) {
+                    largo = desde + fin + 1;
+                    lector.setLength(largo); // Sacamos la línea cortada
+                }
+                if (fin >= 0) {
+                    int inicio = fin - 1;
+                    while (inicio >= 0 && bytes[inicio] != '\n') {
+                        inicio--;
+                    }
+                    if (inicio >= 0 || desde == 0) {
+                        String linea = new String(bytes, inicio + 1, fin - inicio - 1, StandardCharsets.UTF_8);
+                        return Long.parseLong(linea.substring(0, linea.indexOf('|')));
+                    }
+                } else if (desde == 0) {
+                    return 0; // Ninguna línea completa
+                }
+                bloque *= 4; // La línea es más larga que el bloque: leemos más
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IOException("La última línea de " + archivo.getName() + " está dañada.");
+        }
+    }
+
+    /**
+     * Repite el feed desde el principio para ver qué tareas tendría una
+     * réplica, lo compara con las tareas actuales y agrega al feed los
+     * cambios que faltan para que coincidan. Hace falta cuando las tareas
+     * cambiaron sin pasar por el feed (una ejecución sin --feed, o un corte
+     * justo entre el diario y el feed).
+     * @return Cuántos cambios se agregaron.
+     */
+    public int ponerAlDia(Iterable<Tarea> tareasActuales) throws IOException {
+        TreeMap<Integer, Tarea> segunFeed = new TreeMap<>();
+        new SeguidorCambios(archivo, 0).leerNuevos(new OyenteCambios() {
+            @Override
+            public void alAgregar(Tarea tarea) {
+                segunFeed.putIfAbsent(tarea.getId(), tarea);
+            }
+
+            @Override
+            public void alCompletar(int id) {
+                Tarea tarea = segunFeed.get(id);
+                if (tarea != null) {
+                    tarea.setCompletada(true); // Son copias nuestras: se pueden cambiar
+                }
+            }
+
+            @Override
+            public void alEliminar(int id) {
+                segunFeed.remove(id);
+            }
+        });
+
+        long antes = secuencia;
+        alEmpezarLote();
+        for (Tarea tarea : tareasActuales) {
+            Tarea enFeed = segunFeed.remove(tarea.getId());
+            if (enFeed == null) {
+                alAgregar(tarea);
+            } else if (!enFeed.toFileString().equals(tarea.toFileString())) {
+                boolean soloFaltaCompletar = tarea.isCompletada() && !enFeed.isCompletada()
+                        && enFeed.getDescripcion().equals(tarea.getDescripcion())
+                        && enFeed.getFechaCreacion().equals(tarea.getFechaCreacion());
+                if (soloFaltaCompletar) {
+                    alCompletar(tarea.getId());
+                } else {
+                    // No hay un cambio "volver a pendiente": la damos de baja y de alta otra vez.
+                    alEliminar(tarea.getId());
+                    alAgregar(tarea);
+                }
+            }
+        }
+        for (int id : segunFeed.keySet()) {
+            alEliminar(id); // Las que ya no existen
+        }
+        alTerminarLote();
+        return (int) (secuencia - antes);
+    }
+
+    @Override
+    public void alAgregar(Tarea tarea) {
+        escribir('A', tarea.toFileString());
+    }
+
+    @Override
+    public void alCompletar(int id) {
+        escribir('C', String.valueOf(id));
+    }
+
+    @Override
+    public void alEliminar(int id) {
+        escribir('E', String.valueOf(id));
+    }
+
+    private void escribir(char tipo, String datos) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            secuencia++;
+            writer.write(Long.toString(secuencia));
+            writer.write('|');
+            writer.write(Long.toString(System.currentTimeMillis()));
+            writer.write('|');
+            writer.write(tipo);
+            writer.write('|');
+            writer.write(datos);
+            writer.write('\n'); // Siempre '\n', en cualquier sistema: así lo busca el SeguidorCambios
+            // Como en el diario: cada cambio llega al archivo enseguida (salvo en un lote),
+            // así los que siguen el feed lo ven con poco retraso.
+            if (!enLote) {
+                vaciar();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al escribir en el feed de cambios: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pasa lo que quedó en el 'writer' al archivo y lo fuerza al disco.
+     */
+    private void vaciar() throws IOException {
+        writer.flush();
+        salida.getChannel().force(false);
+    }
+
+    @Override
+    public void alEmpezarLote() {
+        enLote = true;
+    }
+
+    @Override
+    public void alTerminarLote() {
+        enLote = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            vaciar();
+        } catch (IOException e) {
+            System.err.println("Error al escribir en el feed de cambios: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return El número de secuencia del último cambio escrito.
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    public void cerrar() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el feed de cambios: " + e.getMessage());
+        }
+        writer = null;
+    }
+}
@@ -0,0 +1,78 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Genera tareas "de mentira" para hacer pruebas de rendimiento con muchos
+ * datos (de 10 mil a 10 millones de tareas, o las que se pidan).
+ *
+ * Se puede elegir qué proporción de las tareas sale completada y qué tan
+ * larga es la descripción. Con la misma semilla siempre se generan las
+ * mismas tareas, así las mediciones se pueden comparar entre sí.
+ *
+ * Uso (escribe un tareas.txt en la carpeta actual):
+ *   java GeneradorDatos [cantidad] [proporcionCompletadas] [largoDescripcion]
+ * Ejemplo: java GeneradorDatos 1000000 0.3 40
+ */
+public class GeneradorDatos {
+
+    // Palabras con las que se arman las descripciones (algunas con tildes,
+    // para que también se prueben los caracteres que no son ASCII).
+    private static final String[] PALABRAS = {
+        "comprar", "pan", "leche", "llamar", "médico", "pagar", "factura", "luz",
+        "enviar", "correo", "revisar", "informe", "reunión", "equipo", "limpiar",
+        "cocina", "estudiar", "examen", "java", "lavar", "auto", "regar", "plantas",
+        "preparar", "presentación", "cliente", "turno", "banco", "ordenar", "garaje"
+    };
+
+    private final Random azar;
+
+    public GeneradorDatos(long semilla) {
+        this.azar = new Random(semilla);
+    }
+
+    /**
+     * @param cantidad Cuántas tareas generar (con IDs de 1 a 'cantidad').
+     * @param proporcionCompletadas Entre 0 y 1: qué parte sale completada.
+     * @param largoDescripcion Largo aproximado (en caracteres) de cada descripción.
+     */
+    public List<Tarea> generar(int cantidad, double proporcionCompletadas, int largoDescripcion) {
+        if (cantidad < 0 || proporcionCompletadas < 0 || proporcionCompletadas > 1 || largoDescripcion < 1) {
+            throw new IllegalArgumentException("Parámetros no válidos para generar tareas.");
+        }
+        List<Tarea> tareas = new ArrayList<>(cantidad);
+        // Las fechas van repartidas en los últimos 3 años
+        long hoy = LocalDate.now().toEpochDay();
+        StringBuilder descripcion = new StringBuilder(largoDescripcion + 16);
+        for (int id = 1; id <= cantidad; id++) {
+            tareas.add(new Tarea(id,
+                    generarDescripcion(descripcion, largoDescripcion),
+                    azar.nextDouble() < proporcionCompletadas,
+                    LocalDate.ofEpochDay(hoy - azar.nextInt(3 * 365))));
+        }
+        return tareas;
+    }
+
+    private String generarDescripcion(StringBuilder descripcion, int largo) {
+        descripcion.setLength(0);
+        while (descripcion.length() < largo) {
+            if (descripcion.length() > 0) {
+                descripcion.append(' ');
+            }
+            descripcion.append(PALABRAS[azar.nextInt(PALABRAS.length)]);
+        }
+        // La primera letra en mayúscula, como lo escribiría una persona
+        descripcion.setCharAt(0, Character.toUpperCase(descripcion.charAt(0)));
+        return descripcion.toString();
+    }
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        double proporcionCompletadas = args.length > 1 ? Double.parseDouble(args[1]) : 0.3;
+        int largoDescripcion = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+
+        List<Tarea> tareas = new GeneradorDatos(42).generar(cantidad, proporcionCompletadas, largoDescripcion);
+        new GestorPersistencia().guardar(tareas, cantidad + 1);
+    }
+}
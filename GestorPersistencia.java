@@ -1,11 +1,22 @@
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 /**
  * Esta clase se encarga de la "persistencia".
@@ -16,75 +27,127 @@ public class GestorPersistencia {
 
     // El nombre del archivo donde guardaremos todo.
     private static final String NOMBRE_ARCHIVO = "tareas.txt";
+    // El diario de cambios (sólo se usa en "modo diario").
+    private static final String NOMBRE_DIARIO = "tareas.log";
+    // La versión binaria compacta del archivo de tareas.
+    private static final String NOMBRE_BINARIO = "tareas.bin";
+    // El índice de búsqueda por texto (opcional).
+    private static final String NOMBRE_INDICE_TEXTO = "tareas.idx";
+    // Las tareas completadas viejas, comprimidas (ver ArchivoHistorico).
+    private static final String NOMBRE_HISTORICO = "tareas.hist.gz";
+    // El feed de cambios que leen otros programas (ver FeedCambios).
+    private static final String NOMBRE_FEED = "tareas.feed";
+    // Hasta qué número de secuencia llegaba el feed la última vez que se
+    // cerró, y cómo estaban tareas.txt y tareas.log en ese momento.
+    private static final String NOMBRE_MARCA_FEED = "tareas.feed.marca";
+    // Modo compartido: el contador de IDs y el candado para guardar (ver guardarCombinando).
+    private static final String NOMBRE_IDS = "tareas.ids";
+    private static final String NOMBRE_CANDADO = "tareas.lock";
+    // Modo segmentado: la carpeta con los segmentos y su manifiesto (ver ArchivoSegmentado).
+    private static final String NOMBRE_SEGMENTOS = "tareas.seg";
+
+    private DiarioCambios diario;
+    private FeedCambios feed;
+    private ArchivoSegmentado segmentos;
+
+    // Si es 'true', el archivo se carga en paralelo usando todos los núcleos.
+    private boolean cargaParalela;
 
     /**
-     * Carga SÓLO la lista de tareas desde el archivo.
-     * Lee el archivo línea por línea y convierte cada una en un objeto Tarea.
+     * Activa la carga en paralelo (pensada para archivos muy grandes).
+     * En ese modo también se imprime cuánto tardó cada bloque.
      */
-    public List<Tarea> cargarTareas() {
-        List<Tarea> tareas = new ArrayList<>();
+    public void setCargaParalela(boolean cargaParalela) {
+        this.cargaParalela = cargaParalela;
+    }
+
+    /**
+     * Carga las tareas Y el 'proximoId' leyendo el archivo una sola vez.
+     * Es la forma rápida: usa el CargadorTareas, que no parte las líneas
+     * con 'split' ni lanza una excepción por cada línea rota.
+     */
+    public ResultadoCarga cargar() {
         File archivo = new File(NOMBRE_ARCHIVO);
 
-        // Si no existe el archivo, simplemente devolvemos una lista vacía.
         if (!archivo.exists()) {
             System.out.println("[Archivo] No se encontró " + NOMBRE_ARCHIVO + ". Se creará uno nuevo al salir.");
-            return tareas;
+            return new ResultadoCarga(new ArrayList<>(), 1, 0);
         }
 
-        // 'try-with-resources' se asegura de que el 'reader' se cierre solo
-        // aunque haya un error. Es la forma moderna de leer archivos.
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-
-            // Omitimos la primera línea (la del ID)
-            reader.readLine();
-
-            String linea;
-            // Leemos el resto del archivo línea por línea
-            while ((linea = reader.readLine()) != null) {
-                Tarea tarea = Tarea.fromFileString(linea);
-                if (tarea != null) { // fromFileString devuelve null si hay un error
-                    tareas.add(tarea);
-                }
+        try {
+            ResultadoCarga resultado;
+            if (cargaParalela) {
+                CargadorParalelo cargador = new CargadorParalelo();
+                cargador.setMostrarTiempos(true);
+                resultado = cargador.cargar(archivo);
+            } else {
+                resultado = new CargadorTareas().cargar(archivo);
             }
-            System.out.println("[Archivo] Se cargaron " + tareas.size() + " tareas.");
-
+            MetricasTareas.contarBytesLeidos(archivo.length());
+            MetricasTareas.contarErroresDeLectura(resultado.getLineasCorruptas());
+            System.out.println("[Archivo] Se cargaron " + resultado.getTareas().size() + " tareas.");
+            if (resultado.getLineasCorruptas() > 0) {
+                System.err.println("[Archivo] Se ignoraron " + resultado.getLineasCorruptas() + " líneas corruptas.");
+            }
+            return resultado;
         } catch (IOException e) {
             System.err.println("Error al leer el archivo de tareas: " + e.getMessage());
+            return new ResultadoCarga(new ArrayList<>(), 1, 0);
         }
-        return tareas;
     }
 
     /**
-     * Carga SÓLO el 'proximoId' desde la primera línea del archivo.
+     * Guarda la lista de tareas y el próximo ID en el archivo.
+     * Sobrescribe el archivo por completo.
+     * Recibe un 'Iterable' (una lista o un AlmacenTareas): sólo necesita recorrerlas.
      */
-    public int cargarProximoId() {
-        File archivo = new File(NOMBRE_ARCHIVO);
-
-        if (!archivo.exists()) {
-            return 1; // Si no hay archivo, empezamos en 1
+    public void guardar(Iterable<Tarea> tareas, int proximoId) {
+        int cantidad = escribirArchivo(new File(NOMBRE_ARCHIVO), tareas, proximoId, false);
+        if (cantidad >= 0) {
+            System.out.println("[Archivo] Se guardaron " + cantidad + " tareas.");
         }
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-            // Leemos solo la primera línea
-            String lineaId = reader.readLine();
-            if (lineaId != null && !lineaId.isEmpty()) {
-                // Convertimos el texto a número y lo devolvemos
-                return Integer.parseInt(lineaId);
-            }
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Error al leer el ID, se usará 1 por defecto: " + e.getMessage());
+    /**
+     * Igual que guardar, pero primero escribe un archivo temporal y recién
+     * cuando está completo reemplaza a tareas.txt. Si el programa se corta a
+     * la mitad, tareas.txt queda como estaba. No imprime nada (lo usa el
+     * AutoGuardado desde otro hilo, mientras el usuario usa el menú).
+     *
+     * El temporal se fuerza al disco antes de renombrarlo, y la carpeta
+     * después: compactarDiario vacía tareas.log apenas esto vuelve, así que
+     * si se corta la luz el tareas.txt nuevo ya tiene que estar en el disco.
+     * @return 'true' si se guardó.
+     */
+    public boolean guardarSinInterrumpir(Iterable<Tarea> tareas, int proximoId) {
+        File temporal = new File(NOMBRE_ARCHIVO + ".tmp");
+        if (escribirArchivo(temporal, tareas, proximoId, true) < 0) {
+            return false;
+        }
+        try {
+            File destino = new File(NOMBRE_ARCHIVO);
+            Files.move(temporal.toPath(), destino.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            sincronizarCarpeta(destino.getAbsoluteFile().getParentFile());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error al reemplazar el archivo de tareas: " + e.getMessage());
+            return false;
         }
-
-        return 1; // Si la primera línea está vacía o corrupta, empezamos en 1.
     }
 
     /**
-     * Guarda la lista de tareas y el próximo ID en el archivo.
-     * Sobrescribe el archivo por completo.
+     * @param forzarAlDisco Si es 'true', antes de cerrar espera a que el
+     *        sistema operativo haya escrito el archivo en el disco (no sólo
+     *        en su caché).
+     * @return Cuántas tareas se escribieron, o -1 si hubo un error.
      */
-    public void guardar(List<Tarea> tareas, int proximoId) {
-        // 'try-with-resources' para el 'writer'
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(NOMBRE_ARCHIVO))) {
+    private int escribirArchivo(File destino, Iterable<Tarea> tareas, int proximoId, boolean forzarAlDisco) {
+        int cantidad = 0;
+        // 'try-with-resources' para el archivo; el 'writer' se vacía a mano
+        // para poder forzar el archivo al disco antes de cerrarlo.
+        try (FileOutputStream salida = new FileOutputStream(destino)) {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(salida));
 
             // 1. Escribimos el 'proximoId' en la primera línea
             writer.write(String.valueOf(proximoId));
@@ -94,11 +157,510 @@ public class GestorPersistencia {
             for (Tarea tarea : tareas) {
                 writer.write(tarea.toFileString());
                 writer.newLine();
+                cantidad++;
+            }
+            writer.flush();
+            if (forzarAlDisco) {
+                salida.getFD().sync();
             }
-            System.out.println("[Archivo] Se guardaron " + tareas.size() + " tareas.");
-
         } catch (IOException e) {
             System.err.println("Error al guardar el archivo: " + e.getMessage());
+            return -1;
+        }
+        // Recién con el archivo cerrado (y el buffer vaciado) sabemos cuánto ocupa.
+        MetricasTareas.contarBytesEscritos(destino.length());
+        return cantidad;
+    }
+
+
+    /**
+     * Fuerza al disco la carpeta, para que un cambio de nombre (el paso del
+     * temporal al archivo definitivo) no se pierda si se corta la luz.
+     */
+    static void sincronizarCarpeta(File carpeta) {
+        try (FileChannel canal = FileChannel.open(carpeta.toPath(), StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // En algunos sistemas (Windows) no se puede abrir una carpeta así: no pasa nada.
+        }
+    }
+
+
+    // --- Formato binario ---
+
+    /**
+     * Abre tareas.bin sin armar ninguna Tarea: cada una se lee del archivo
+     * recién cuando se la pide (ver ArchivoBinario).
+     * @return El archivo abierto, o 'null' si no existe o no se pudo leer.
+     */
+    public ArchivoBinario abrirBinario() {
+        File archivo = new File(NOMBRE_BINARIO);
+        if (!archivo.exists()) {
+            System.out.println("[Archivo] No se encontró " + NOMBRE_BINARIO + ".");
+            return null;
+        }
+        try {
+            ArchivoBinario binario = ArchivoBinario.abrir(archivo);
+            // Se lee "a pedido" (mapeado en memoria): contamos el archivo entero.
+            MetricasTareas.contarBytesLeidos(archivo.length());
+            return binario;
+        } catch (IOException e) {
+            System.err.println("Error al leer el archivo binario: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Carga para el modo binario (ver AlmacenBinario): abre tareas.bin sin
+     * leer las tareas, que se leen recién cuando se piden. Si todavía no hay
+     * tareas.bin, se cargan las de tareas.txt y al guardar se pasan a tareas.bin.
+     * Si tareas.bin está dañado, se deja aparte como tareas.bin.danado (así
+     * no se pisa al guardar) y también se vuelve a tareas.txt.
+     */
+    public ResultadoCarga cargarBinario() {
+        File archivo = new File(NOMBRE_BINARIO);
+        if (archivo.exists()) {
+            ArchivoBinario binario = abrirBinario();
+            if (binario != null) {
+                System.out.println("[Archivo] Se abrieron " + binario.tamanio() + " tareas de " + NOMBRE_BINARIO
+                        + " (se leen a medida que se usan).");
+                return new ResultadoCarga(binario.comoLista(), binario.getProximoId(), 0);
+            }
+            MetricasTareas.contarErroresDeLectura(1);
+            File danado = new File(NOMBRE_BINARIO + ".danado");
+            if (!archivo.renameTo(danado)) {
+                // No podemos apartarlo: mejor no seguir que pisarlo al guardar.
+                throw new IllegalStateException("No se pudo apartar " + NOMBRE_BINARIO + " dañado.");
+            }
+            System.err.println("[Archivo] " + NOMBRE_BINARIO + " está dañado: se dejó aparte como "
+                    + danado.getName() + ".");
+        }
+        System.out.println("[Archivo] Se usan las tareas de " + NOMBRE_ARCHIVO + "; al guardar se pasan a "
+                + NOMBRE_BINARIO + ".");
+        return cargar();
+    }
+
+    /**
+     * Guarda las tareas y el próximo ID en tareas.bin (reemplazándolo de un solo paso).
+     */
+    public void guardarBinario(Iterable<Tarea> tareas, int proximoId) {
+        int cantidad = escribirBinario(tareas, proximoId);
+        if (cantidad >= 0) {
+            System.out.println("[Archivo] Se guardaron " + cantidad + " tareas en " + NOMBRE_BINARIO + ".");
+        }
+    }
+
+    /**
+     * Igual que guardarBinario, pero sin imprimir nada (para el AutoGuardado).
+     * @return 'true' si se guardó.
+     */
+    public boolean guardarBinarioSinInterrumpir(Iterable<Tarea> tareas, int proximoId) {
+        return escribirBinario(tareas, proximoId) >= 0;
+    }
+
+    /**
+     * @return Cuántas tareas se escribieron, o -1 si hubo un error.
+     */
+    private int escribirBinario(Iterable<Tarea> tareas, int proximoId) {
+        try {
+            File archivo = new File(NOMBRE_BINARIO);
+            int cantidad = ArchivoBinario.escribir(archivo, tareas, proximoId);
+            MetricasTareas.contarBytesEscritos(archivo.length());
+            return cantidad;
+        } catch (IOException e) {
+            System.err.println("Error al guardar el archivo binario: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Convierte tareas.txt en tareas.bin (tareas.txt no se toca).
+     * Las tareas se ordenan por ID, así tareas.bin se puede buscar por ID.
+     */
+    public void convertirTextoABinario() {
+        ResultadoCarga carga = cargar();
+        List<Tarea> tareas = carga.getTareas();
+        tareas.sort(Comparator.comparingInt(Tarea::getId));
+        guardarBinario(tareas, carga.getProximoId());
+    }
+
+    /**
+     * Convierte tareas.bin en tareas.txt (tareas.txt se sobrescribe).
+     */
+    public void convertirBinarioATexto() {
+        ArchivoBinario binario = abrirBinario();
+        if (binario != null) {
+            guardar(binario.cargarTodas(), binario.getProximoId());
+        }
+    }
+
+    // --- Índice de búsqueda ---
+
+    /**
+     * Guarda el índice de texto en tareas.idx. Al principio anotamos el
+     * tamaño y la fecha de modificación de tareas.txt: si al arrancar el
+     * archivo de tareas cambió, el índice ya no corresponde y se descarta.
+     * Hay que llamarlo justo después de guardar tareas.txt.
+     */
+    public void guardarIndiceTexto(IndiceTexto indice) {
+        File tareas = new File(NOMBRE_ARCHIVO);
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(NOMBRE_INDICE_TEXTO)))) {
+            salida.writeLong(tareas.length());
+            salida.writeLong(tareas.lastModified());
+            indice.escribir(salida);
+            salida.flush();
+            MetricasTareas.contarBytesEscritos(salida.size());
+        } catch (IOException e) {
+            System.err.println("Error al guardar el índice de búsqueda: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return El índice guardado, o 'null' si no existe o si no corresponde
+     * al tareas.txt actual (en ese caso se rearma la primera vez que se busque).
+     */
+    public IndiceTexto cargarIndiceTexto() {
+        File archivo = new File(NOMBRE_INDICE_TEXTO);
+        if (!archivo.exists()) {
+            return null;
         }
+        File tareas = new File(NOMBRE_ARCHIVO);
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(archivo)))) {
+            if (entrada.readLong() != tareas.length() || entrada.readLong() != tareas.lastModified()) {
+                System.out.println("[Archivo] El índice de búsqueda está desactualizado: se va a rearmar.");
+                return null;
+            }
+            IndiceTexto indice = IndiceTexto.leer(entrada);
+            MetricasTareas.contarBytesLeidos(archivo.length());
+            System.out.println("[Archivo] Se cargó el índice de búsqueda (" + indice.cantidadDePalabras() + " palabras).");
+            return indice;
+        } catch (IOException e) {
+            System.err.println("Error al leer el índice de búsqueda: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // --- Modo diario ---
+
+    /**
+     * Repite sobre 'destino' los cambios anotados en el diario desde la última
+     * compactación. Se llama después de cargar el archivo de tareas.
+     */
+    public int reproducirDiario(OyenteCambios destino) {
+        return obtenerDiario().reproducir(destino);
+    }
+
+    /**
+     * @return 'true' si en tareas.log quedaron cambios que todavía no
+     * están en tareas.txt (de una sesión con --diario que se cortó).
+     */
+    public boolean hayDiarioPendiente() {
+        return new File(NOMBRE_DIARIO).length() > 0; // length() da 0 si no existe
+    }
+
+    /**
+     * Para los modos que no usan el diario: si quedaron cambios en
+     * tareas.log, los repite sobre 'destino' para no perderlos. Si devuelve
+     * más de 0, el que llama tiene que pasarlos a la foto con compactarDiario.
+     */
+    public int recuperarDiarioPendiente(OyenteCambios destino) {
+        if (!hayDiarioPendiente()) {
+            return 0;
+        }
+        System.out.println("[Diario] Quedaron cambios en " + NOMBRE_DIARIO + " de una sesión anterior: se recuperan.");
+        return reproducirDiario(destino);
+    }
+
+    /**
+     * Abre el diario para ir anotando los cambios nuevos.
+     * @return El diario, para que el servicio le avise de cada cambio.
+     */
+    public DiarioCambios abrirDiario() {
+        DiarioCambios d = obtenerDiario();
+        d.abrir();
+        return d;
+    }
+
+    private DiarioCambios obtenerDiario() {
+        if (diario == null) {
+            diario = new DiarioCambios(new File(NOMBRE_DIARIO));
+        }
+        return diario;
+    }
+
+    /**
+     * Compacta el diario: guarda una foto completa de las tareas y vacía el diario.
+     * La foto se escribe primero en un archivo temporal y recién cuando está
+     * completa reemplaza al original. Así, si el programa se corta a la mitad,
+     * seguimos teniendo la foto anterior más el diario entero.
+     */
+    public void compactarDiario(Iterable<Tarea> tareas, int proximoId) {
+        if (!guardarSinInterrumpir(tareas, proximoId)) {
+            return; // No pudimos escribir la foto: el diario sigue valiendo
+        }
+        obtenerDiario().reiniciar();
+    }
+
+    public void cerrarDiario() {
+        if (diario != null) {
+            diario.cerrar();
+        }
+    }
+
+
+    // --- Feed de cambios ---
+
+    /**
+     * Abre el feed de cambios para ir anotando cada cambio con su número.
+     * Si todavía no existe, lo empieza con las tareas actuales.
+     *
+     * Si ya existía, se fija en tareas.feed.marca que las tareas guardadas
+     * sean las mismas que cuando se cerró el feed. Si no (se usaron sin
+     * --feed, o el programa se cortó), le agrega los cambios que faltan,
+     * así las réplicas no se quedan con otra versión de las tareas.
+     * @return El feed, para que el servicio le avise de cada cambio.
+     */
+    public FeedCambios abrirFeed(Iterable<Tarea> tareasActuales) {
+        if (feed == null) {
+            File archivo = new File(NOMBRE_FEED);
+            boolean existia = archivo.length() > 0;
+            feed = new FeedCambios(archivo);
+            feed.abrir(tareasActuales);
+            if (existia && !marcaDelFeed(feed.getSecuencia()).equals(leerMarcaDelFeed())) {
+                try {
+                    int agregados = feed.ponerAlDia(tareasActuales);
+                    System.err.println("[Feed] Las tareas cambiaron sin pasar por " + NOMBRE_FEED + ": se agregaron "
+                            + agregados + " cambios para ponerlo al día.");
+                } catch (IOException e) {
+                    System.err.println("Error al poner al día el feed de cambios: " + e.getMessage());
+                }
+            }
+        }
+        return feed;
+    }
+
+    public void cerrarFeed() {
+        if (feed != null) {
+            feed.cerrar();
+            try {
+                Files.writeString(new File(NOMBRE_MARCA_FEED).toPath(), marcaDelFeed(feed.getSecuencia()));
+            } catch (IOException e) {
+                // Sin marca, la próxima vez se revisa el feed entero: no se pierde nada.
+                System.err.println("Error al guardar " + NOMBRE_MARCA_FEED + ": " + e.getMessage());
+            }
+            feed = null;
+        }
+    }
+
+    /**
+     * La secuencia del feed, más el tamaño y la fecha de tareas.txt y de
+     * tareas.log (como en tareas.idx): si alguno cambió, cambia la marca.
+     */
+    private static String marcaDelFeed(long secuencia) {
+        File tareas = new File(NOMBRE_ARCHIVO);
+        File diario = new File(NOMBRE_DIARIO);
+        return secuencia + "|" + tareas.length() + "|" + tareas.lastModified()
+                + "|" + diario.length() + "|" + diario.lastModified();
+    }
+
+    /**
+     * @return La marca guardada al cerrar el feed, o "" si no hay.
+     */
+    private static String leerMarcaDelFeed() {
+        try {
+            return Files.readString(new File(NOMBRE_MARCA_FEED).toPath()).trim();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Para leer el feed desde otro programa (ver ReplicaTareas).
+     * @param desdeSecuencia Sólo los cambios con un número mayor a este.
+     */
+    public SeguidorCambios seguirFeed(long desdeSecuencia) {
+        return new SeguidorCambios(new File(NOMBRE_FEED), desdeSecuencia);
+    }
+
+
+    // --- Modo compartido (varios procesos con las mismas tareas) ---
+
+    /**
+     * @return 'true' si estas tareas se usan (o se usaron) en modo
+     * compartido: los IDs nuevos hay que pedirlos al AsignadorIds.
+     */
+    public boolean usaModoCompartido() {
+        return new File(NOMBRE_IDS).exists();
+    }
+
+    /**
+     * El que reparte IDs sin repetir entre procesos (ver AsignadorIds).
+     * @param proximoId El próximo ID según tareas.txt.
+     */
+    public AsignadorIds abrirAsignadorIds(int proximoId, int tamanioBloque) {
+        return new AsignadorIds(new File(NOMBRE_IDS), proximoId, tamanioBloque);
+    }
+
+    /**
+     * Guarda sin pisar lo que guardaron otros procesos: con tareas.lock
+     * bloqueado (así guarda un proceso por vez), vuelve a leer tareas.txt
+     * tal como está ahora, le aplica encima 'cambios' (los de este proceso)
+     * y lo escribe con guardarSinInterrumpir. Completar o borrar una tarea
+     * que otro proceso ya borró no hace nada.
+     *
+     * @return Cómo quedaron las tareas (las de todos), o 'null' si no se pudo guardar.
+     */
+    public ResultadoCarga guardarCombinando(CambiosPendientes cambios, int proximoId) {
+        try (FileChannel canal = FileChannel.open(new File(NOMBRE_CANDADO).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock candado = canal.lock(); // Espera si otro proceso está guardando
+            try {
+                return combinar(cambios, proximoId);
+            } finally {
+                candado.release();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al guardar en modo compartido: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private ResultadoCarga combinar(CambiosPendientes cambios, int proximoId) throws IOException {
+        File archivo = new File(NOMBRE_ARCHIVO);
+        ResultadoCarga enDisco = archivo.exists()
+                ? new CargadorTareas().cargar(archivo)
+                : new ResultadoCarga(new ArrayList<>(), 1, 0);
+        MetricasTareas.contarBytesLeidos(archivo.length());
+
+        AlmacenObjetos combinado = new AlmacenObjetos();
+        combinado.cargar(enDisco.getTareas());
+        cambios.aplicar(new OyenteCambios() {
+            @Override
+            public void alAgregar(Tarea tarea) {
+                if (!combinado.contiene(tarea.getId())) {
+                    combinado.agregar(tarea);
+                }
+            }
+
+            @Override
+            public void alCompletar(int id) {
+                combinado.marcarCompletada(id);
+            }
+
+            @Override
+            public void alEliminar(int id) {
+                combinado.eliminar(id);
+            }
+        });
+        // Las altas de este proceso quedaron al final: volvemos a ordenar por ID
+        // (ya está casi ordenada, así que es rápido).
+        List<Tarea> tareas = combinado.todas();
+        tareas.sort(Comparator.comparingInt(Tarea::getId));
+        int proximo = Math.max(enDisco.getProximoId(), proximoId);
+        if (!guardarSinInterrumpir(tareas, proximo)) {
+            return null;
+        }
+        System.out.println("[Archivo] Se combinaron " + cambios.getCantidad() + " cambios; quedaron "
+                + tareas.size() + " tareas.");
+        return new ResultadoCarga(tareas, proximo, 0);
+    }
+
+
+    // --- Modo segmentado ---
+
+    /**
+     * Carga las tareas de la carpeta tareas.seg, verificando cada segmento
+     * (en paralelo) y salteando los dañados. La primera vez, si todavía no
+     * hay segmentos, carga tareas.txt y al guardar lo pasa a segmentos.
+     * @param tareasPorSegmento Cuántos IDs van en cada segmento (sólo si es nuevo).
+     */
+    public ResultadoCarga cargarSegmentado(int tareasPorSegmento) {
+        segmentos = new ArchivoSegmentado(new File(NOMBRE_SEGMENTOS), tareasPorSegmento);
+        if (!segmentos.existe()) {
+            ResultadoCarga resultado = cargar();
+            segmentos.marcarTodas(resultado.getTareas());
+            if (!resultado.getTareas().isEmpty()) {
+                System.out.println("[Archivo] Al guardar, las tareas se pasarán a " + NOMBRE_SEGMENTOS + ".");
+            }
+            return resultado;
+        }
+        try {
+            ResultadoCarga resultado = segmentos.cargar();
+            MetricasTareas.contarErroresDeLectura(resultado.getLineasCorruptas() + segmentos.getTareasPerdidas());
+            System.out.println("[Archivo] Se cargaron " + resultado.getTareas().size() + " tareas de "
+                    + (segmentos.getCantidadSegmentos() - segmentos.getSegmentosDanados()) + " segmentos.");
+            if (segmentos.getSegmentosDanados() > 0) {
+                System.err.println("[Archivo] Se apartaron " + segmentos.getSegmentosDanados()
+                        + " segmentos dañados (" + segmentos.getTareasPerdidas() + " tareas).");
+            }
+            if (resultado.getLineasCorruptas() > 0) {
+                System.err.println("[Archivo] Se ignoraron " + resultado.getLineasCorruptas() + " líneas corruptas.");
+            }
+            return resultado;
+        } catch (IOException e) {
+            System.err.println("Error al leer los segmentos de tareas: " + e.getMessage());
+            return new ResultadoCarga(new ArrayList<>(), 1, 0);
+        }
+    }
+
+    /**
+     * @return 'true' si las tareas están guardadas en tareas.seg (y no en tareas.txt).
+     */
+    public boolean hayDatosSegmentados() {
+        return new ArchivoSegmentado(new File(NOMBRE_SEGMENTOS), 1).existe();
+    }
+
+    /**
+     * El que anota qué segmentos cambiaron (hay que sumarlo a los oyentes).
+     * Sólo existe después de cargarSegmentado.
+     */
+    public OyenteCambios getOyenteSegmentos() {
+        return segmentos;
+    }
+
+    /**
+     * Guarda sólo los segmentos que cambiaron desde el último guardado.
+     */
+    public void guardarSegmentado(Iterable<Tarea> tareas, int proximoId) {
+        int escritos = segmentos.guardar(tareas, proximoId);
+        if (escritos >= 0) {
+            System.out.println("[Archivo] Se guardaron " + escritos + " segmentos de "
+                    + segmentos.getCantidadSegmentos() + ".");
+        }
+    }
+
+    /**
+     * Como guardarSegmentado, pero para hacerlo después y en otro hilo
+     * (sin imprimir nada). Lo usa el AutoGuardado.
+     */
+    public BooleanSupplier prepararGuardadoSegmentado(Iterable<Tarea> foto, int proximoId) {
+        return segmentos.prepararGuardado(foto, proximoId);
+    }
+
+    // --- Archivo histórico ---
+
+    /**
+     * Agrega las tareas al archivo histórico (tareas.hist.gz).
+     * @return 'true' si quedaron guardadas (recién ahí se pueden sacar de memoria).
+     */
+    public boolean archivar(List<Tarea> tareas) {
+        try {
+            new ArchivoHistorico(new File(NOMBRE_HISTORICO)).agregar(tareas);
+            System.out.println("[Archivo] Se archivaron " + tareas.size() + " tareas completadas en "
+                    + NOMBRE_HISTORICO + ".");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error al escribir el archivo histórico: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * El archivo histórico, para leerlo (ver ArchivoHistorico.recorrer).
+     */
+    public ArchivoHistorico abrirHistorico() {
+        return new ArchivoHistorico(new File(NOMBRE_HISTORICO));
     }
 }
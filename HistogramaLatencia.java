@@ -0,0 +1,120 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de tiempos (en nanosegundos), al estilo de HdrHistogram:
+ * en vez de guardar cada medición, cuenta cuántas cayeron en cada "balde".
+ * Ocupa siempre lo mismo (unos 30 KB) y permite sacar percentiles
+ * (mediana, p99...) con un error menor al 2%.
+ *
+ * Los baldes son "logarítmicos": hasta 127 ns hay uno por nanosegundo, y
+ * de ahí en más cada potencia de 2 se parte en 64 baldes iguales. Así un
+ * tiempo de 1 ms se guarda con una precisión de ~16 µs, y uno de 1 s con
+ * una de ~16 ms: siempre la misma precisión relativa.
+ *
+ * Registrar es "sin bloqueo" (lock-free): sólo incrementa un contador
+ * atómico, así que muchos hilos pueden registrar a la vez sin esperarse.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUB_BALDES = 6;
+    private static final int SUB_BALDES = 1 << BITS_SUB_BALDES; // 64
+    // 'long' tiene 64 bits: alcanza con (64 - 7 + 1) grupos de 64 baldes.
+    private static final int CANTIDAD_BALDES = (64 - BITS_SUB_BALDES) * SUB_BALDES;
+
+    private final AtomicLongArray baldes = new AtomicLongArray(CANTIDAD_BALDES);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Anota una medición (negativos cuentan como 0).
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        baldes.incrementAndGet(balde(valor));
+        cantidad.increment();
+        total.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * En qué balde cae un valor. Para valores de 7 bits o menos (< 128) el
+     * balde es el valor mismo. Para los demás, nos quedamos con sus 7 bits
+     * más altos (entre 64 y 127) y sumamos 64 baldes por cada bit descartado.
+     */
+    static int balde(long valor) {
+        int bits = 64 - Long.numberOfLeadingZeros(valor);
+        if (bits <= BITS_SUB_BALDES + 1) {
+            return (int) valor;
+        }
+        int descartados = bits - (BITS_SUB_BALDES + 1);
+        return (descartados << BITS_SUB_BALDES) + (int) (valor >>> descartados);
+    }
+
+    /**
+     * El menor valor que cae en ese balde (lo contrario de balde()).
+     */
+    static long valorDelBalde(int indice) {
+        if (indice < 2 * SUB_BALDES) {
+            return indice;
+        }
+        int descartados = (indice >> BITS_SUB_BALDES) - 1;
+        long altos = indice - ((long) descartados << BITS_SUB_BALDES);
+        return altos << descartados;
+    }
+
+    public long getCantidad() {
+        return cantidad.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getPromedio() {
+        long n = cantidad.sum();
+        return n == 0 ? 0 : total.sum() / (double) n;
+    }
+
+    /**
+     * El valor por debajo del cual cae el 'porcentaje' % de las mediciones
+     * (ej: percentil(99) = el p99). Si mientras tanto otros hilos siguen
+     * registrando, el resultado es aproximado (pero nunca se rompe).
+     */
+    public long percentil(double porcentaje) {
+        long[] copia = new long[CANTIDAD_BALDES];
+        long n = 0;
+        for (int i = 0; i < CANTIDAD_BALDES; i++) {
+            copia[i] = baldes.get(i);
+            n += copia[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long buscado = Math.max(1, (long) Math.ceil(n * porcentaje / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CANTIDAD_BALDES; i++) {
+            acumulado += copia[i];
+            if (acumulado >= buscado) {
+                // No puede ser más que el máximo que realmente se registró
+                return Math.min(valorDelBalde(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    /**
+     * Vuelve todo a cero. Si otros hilos registran mientras tanto, alguna
+     * de esas mediciones puede quedar en un contador y no en otro.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CANTIDAD_BALDES; i++) {
+            baldes.set(i, 0);
+        }
+        cantidad.reset();
+        total.reset();
+        maximo.reset();
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice "secundario" por estado: sabe qué tareas están pendientes y cuáles
+ * completadas sin tener que mirar cada Tarea.
+ *
+ * Usa dos BitSet (arreglos de bits) donde el bit número 'id' está prendido
+ * si la tarea con ese ID está en ese estado. Para listar las pendientes
+ * saltamos de bit prendido en bit prendido ('nextSetBit'), que revisa 64
+ * tareas de una vez, en lugar de llamar a una lambda por cada tarea.
+ * Y para contarlas ni siquiera hace falta recorrer: llevamos la cuenta.
+ *
+ * Como los IDs se asignan en orden, recorrer los bits de menor a mayor da
+ * el mismo orden en que se agregaron las tareas. Si alguna vez llega una
+ * tarea con un ID menor al anterior, el índice deja de ser "confiable" para
+ * listar y el servicio vuelve a recorrer todas las tareas.
+ *
+ * Un BitSet ocupa según el ID más grande (no según cuántas tareas hay), y
+ * no admite posiciones negativas. Por eso los IDs "raros" (0 o negativos,
+ * de un archivo editado a mano, o mayores a MAXIMO_ID_EN_BITS) no van a
+ * los BitSet sino a un mapa aparte: las cuentas y 'tiene' siguen bien, los
+ * BitSet nunca pasan de unos 8 MB cada uno y, como esos IDs no se pueden
+ * recorrer en orden, el índice deja de ser confiable para listar.
+ */
+public class IndiceEstado {
+
+    // Con IDs de hasta 2^26 (unos 67 millones) cada BitSet ocupa como mucho 8 MB.
+    private static final int MAXIMO_ID_EN_BITS = 1 << 26;
+
+    private final BitSet pendientes = new BitSet();
+    private final BitSet completadas = new BitSet();
+    // Los IDs que no entran en los BitSet (ver arriba): ID -> completada.
+    private final Map<Integer, Boolean> otrosIds = new HashMap<>();
+    private int cantidadPendientes;
+    private int cantidadCompletadas;
+
+    private int ultimoId;
+    private boolean confiable = true;
+
+    /**
+     * Vacía el índice y lo vuelve a armar con todas las tareas del almacén.
+     */
+    public void reconstruir(Iterable<Tarea> tareas) {
+        pendientes.clear();
+        completadas.clear();
+        otrosIds.clear();
+        cantidadPendientes = 0;
+        cantidadCompletadas = 0;
+        ultimoId = 0;
+        confiable = true;
+        for (Tarea tarea : tareas) {
+            agregar(tarea);
+        }
+    }
+
+    private static boolean entraEnBits(int id) {
+        return id > 0 && id <= MAXIMO_ID_EN_BITS;
+    }
+
+    public void agregar(Tarea tarea) {
+        int id = tarea.getId();
+        if (id <= ultimoId || !entraEnBits(id)) {
+            confiable = false; // Llegó fuera de orden: ya no sirve para listar
+        }
+        ultimoId = Math.max(ultimoId, id);
+        if (!entraEnBits(id)) {
+            if (otrosIds.putIfAbsent(id, tarea.isCompletada()) != null) {
+                return; // Ya estaba: no la contamos dos veces
+            }
+        } else {
+            (tarea.isCompletada() ? completadas : pendientes).set(id);
+        }
+        if (tarea.isCompletada()) {
+            cantidadCompletadas++;
+        } else {
+            cantidadPendientes++;
+        }
+    }
+
+    public void completar(int id) {
+        if (entraEnBits(id) ? pendientes.get(id) : Boolean.FALSE.equals(otrosIds.get(id))) {
+            if (entraEnBits(id)) {
+                pendientes.clear(id);
+                completadas.set(id);
+            } else {
+                otrosIds.put(id, true);
+            }
+            cantidadPendientes--;
+            cantidadCompletadas++;
+        }
+    }
+
+    public void eliminar(int id) {
+        if (!entraEnBits(id)) {
+            Boolean completada = otrosIds.remove(id);
+            if (completada == null) {
+                return;
+            }
+            if (completada) {
+                cantidadCompletadas--;
+            } else {
+                cantidadPendientes--;
+            }
+            return;
+        }
+        if (pendientes.get(id)) {
+            pendientes.clear(id);
+            cantidadPendientes--;
+        } else if (completadas.get(id)) {
+            completadas.clear(id);
+            cantidadCompletadas--;
+        }
+    }
+
+    /**
+     * @return 'true' si se puede usar el índice para listar en el orden correcto.
+     */
+    public boolean isConfiable() {
+        return confiable;
+    }
+
+    public int contarPendientes() {
+        return cantidadPendientes;
+    }
+
+    public int contarCompletadas() {
+        return cantidadCompletadas;
+    }
+
+    /**
+     * @return 'true' si la tarea con ese ID está en ese estado.
+     */
+    public boolean tiene(boolean completada, int id) {
+        if (!entraEnBits(id)) {
+            return Boolean.valueOf(completada).equals(otrosIds.get(id));
+        }
+        return (completada ? completadas : pendientes).get(id);
+    }
+
+    /**
+     * Devuelve el primer ID en ese estado que sea mayor o igual a 'desde',
+     * o -1 si no hay más. Sólo sirve si el índice es confiable (si no, puede
+     * faltar algún ID de los que van aparte). Se usa así:
+     * for (int id = indice.siguiente(false, 0); id >= 0; id = indice.siguiente(false, id + 1))
+     */
+    public int siguiente(boolean completada, int desde) {
+        return (completada ? completadas : pendientes).nextSetBit(desde);
+    }
+}
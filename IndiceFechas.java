@@ -0,0 +1,206 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Índice "secundario" por fecha de creación: para cada día sabe qué tareas
+ * se crearon ese día y cuántas de ellas están pendientes o completadas.
+ *
+ * Las claves son "días desde el 01/01/1970" (LocalDate.toEpochDay), en un
+ * TreeMap, que las mantiene ordenadas. Así, para pedir "las tareas de esta
+ * semana" se busca el primer día del rango (O(log d), con d = cantidad de
+ * días distintos) y se recorren sólo los días del rango y sus tareas
+ * (O(k)), sin mirar las demás. Y los totales por día ya están calculados:
+ * armar un resumen no toca ninguna Tarea.
+ *
+ * Los IDs de cada día se guardan en un arreglo de int ordenado (4 bytes
+ * por tarea). Como los IDs nuevos son siempre los más grandes, agregar
+ * casi siempre es poner uno al final.
+ *
+ * Eliminar no corre el resto del arreglo (con miles de tareas del mismo
+ * día, borrarlas todas sería O(n²)): sólo marca la posición como borrada
+ * en un BitSet, como las lápidas del AlmacenObjetos. Cuando las borradas
+ * pasan de la mitad, el día se "compacta" de una vez.
+ */
+public class IndiceFechas {
+
+    private final TreeMap<Long, Dia> dias = new TreeMap<>();
+
+    /** Las tareas de un día y sus totales. */
+    private static class Dia {
+        int[] ids = new int[4];
+        int cantidad; // Posiciones usadas de 'ids' (contando las borradas)
+        final BitSet borradas = new BitSet(); // Posiciones borradas
+        int cantidadBorradas;
+        int pendientes;
+        int completadas;
+
+        int vivas() {
+            return cantidad - cantidadBorradas;
+        }
+
+        /**
+         * @return 'false' si ya estaba.
+         */
+        boolean agregar(int id) {
+            if (cantidad == ids.length) {
+                ids = Arrays.copyOf(ids, cantidad * 2);
+            }
+            if (cantidad == 0 || ids[cantidad - 1] < id) {
+                ids[cantidad++] = id; // Lo normal: el ID más nuevo va al final
+                return true;
+            }
+            int posicion = Arrays.binarySearch(ids, 0, cantidad, id);
+            if (posicion >= 0) {
+                if (!borradas.get(posicion)) {
+                    return false; // Ya estaba
+                }
+                borradas.clear(posicion); // Estaba borrada: vuelve
+                cantidadBorradas--;
+                return true;
+            }
+            // Hay que meterlo en el medio: antes sacamos las borradas, así
+            // al correr los IDs no se desacomodan las posiciones del BitSet.
+            compactar();
+            posicion = -Arrays.binarySearch(ids, 0, cantidad, id) - 1;
+            System.arraycopy(ids, posicion, ids, posicion + 1, cantidad - posicion);
+            ids[posicion] = id;
+            cantidad++;
+            return true;
+        }
+
+        boolean quitar(int id) {
+            int posicion = Arrays.binarySearch(ids, 0, cantidad, id);
+            if (posicion < 0 || borradas.get(posicion)) {
+                return false;
+            }
+            borradas.set(posicion);
+            cantidadBorradas++;
+            if (cantidadBorradas > cantidad / 2) {
+                compactar(); // Cada compactación "se paga" con las bajas anteriores
+            }
+            return true;
+        }
+
+        /** Saca del arreglo las posiciones borradas, en una sola pasada. */
+        void compactar() {
+            if (cantidadBorradas == 0) {
+                return;
+            }
+            int destino = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (!borradas.get(i)) {
+                    ids[destino++] = ids[i];
+                }
+            }
+            cantidad = destino;
+            borradas.clear();
+            cantidadBorradas = 0;
+        }
+
+        IntStream stream() {
+            if (cantidadBorradas == 0) {
+                return Arrays.stream(ids, 0, cantidad);
+            }
+            return IntStream.range(0, cantidad).filter(i -> !borradas.get(i)).map(i -> ids[i]);
+        }
+    }
+
+    /**
+     * Vacía el índice y lo vuelve a armar con todas las tareas del almacén.
+     */
+    public void reconstruir(Iterable<Tarea> tareas) {
+        dias.clear();
+        for (Tarea tarea : tareas) {
+            agregar(tarea);
+        }
+    }
+
+    public void agregar(Tarea tarea) {
+        Dia dia = dias.computeIfAbsent(tarea.getFechaCreacion().toEpochDay(), clave -> new Dia());
+        if (!dia.agregar(tarea.getId())) {
+            return; // Repetida: no la contamos dos veces
+        }
+        if (tarea.isCompletada()) {
+            dia.completadas++;
+        } else {
+            dia.pendientes++;
+        }
+    }
+
+    /**
+     * Una tarea que estaba pendiente se completó.
+     */
+    public void completar(Tarea tarea) {
+        Dia dia = dias.get(tarea.getFechaCreacion().toEpochDay());
+        if (dia != null && dia.pendientes > 0) {
+            dia.pendientes--;
+            dia.completadas++;
+        }
+    }
+
+    public void eliminar(Tarea tarea) {
+        long clave = tarea.getFechaCreacion().toEpochDay();
+        Dia dia = dias.get(clave);
+        if (dia == null || !dia.quitar(tarea.getId())) {
+            return;
+        }
+        if (tarea.isCompletada()) {
+            dia.completadas--;
+        } else {
+            dia.pendientes--;
+        }
+        if (dia.vivas() == 0) {
+            dias.remove(clave); // Que no queden días vacíos en el mapa
+        }
+    }
+
+    /**
+     * Los IDs de las tareas creadas entre 'desde' y 'hasta' (los dos
+     * incluidos), ordenados por fecha y, dentro de cada día, por ID.
+     * Se van sacando a medida que se piden.
+     */
+    public IntStream ids(LocalDate desde, LocalDate hasta) {
+        return rango(desde, hasta).values().stream()
+                .flatMapToInt(Dia::stream);
+    }
+
+    /**
+     * Cuántas tareas se crearon entre esas fechas (sin mirar ninguna tarea).
+     */
+    public int contar(LocalDate desde, LocalDate hasta) {
+        int total = 0;
+        for (Dia dia : rango(desde, hasta).values()) {
+            total += dia.vivas();
+        }
+        return total;
+    }
+
+    /**
+     * Un renglón por cada día del rango que tenga tareas, con sus totales.
+     */
+    public List<ResumenDia> resumen(LocalDate desde, LocalDate hasta) {
+        Map<Long, Dia> enRango = rango(desde, hasta);
+        List<ResumenDia> resumen = new ArrayList<>(enRango.size());
+        for (Map.Entry<Long, Dia> entrada : enRango.entrySet()) {
+            Dia dia = entrada.getValue();
+            resumen.add(new ResumenDia(LocalDate.ofEpochDay(entrada.getKey()), dia.pendientes, dia.completadas));
+        }
+        return resumen;
+    }
+
+    private Map<Long, Dia> rango(LocalDate desde, LocalDate hasta) {
+        long primero = desde.toEpochDay();
+        long ultimo = hasta.toEpochDay();
+        if (ultimo < primero) {
+            return new TreeMap<>();
+        }
+        // subMap no copia nada: es una "vista" de esa parte del TreeMap.
+        return dias.subMap(primero, true, ultimo, true);
+    }
+}
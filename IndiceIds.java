@@ -0,0 +1,170 @@
+import java.util.Arrays;
+
+/**
+ * Índice que relaciona el ID de una tarea con su posición en la lista.
+ * Es como un HashMap, pero guarda los números como 'int' directamente
+ * (sin convertirlos a 'Integer'), así ocupa mucha menos memoria y
+ * no genera basura cada vez que buscamos algo.
+ *
+ * Usa "direccionamiento abierto": si el casillero que le toca a un ID
+ * está ocupado, prueba con el siguiente, y así hasta encontrar lugar.
+ */
+public class IndiceIds {
+
+    // Valor que devolvemos cuando un ID no está en el índice.
+    public static final int NO_ENCONTRADO = -1;
+
+    // Marca de casillero vacío. Los IDs de tareas nunca son 0 (empiezan en 1),
+    // pero igual lo tratamos aparte por si algún archivo trae un 0.
+    private static final int VACIO = 0;
+
+    private int[] claves;   // Los IDs
+    private int[] valores;  // La posición de cada ID en la lista
+    private int cantidad;   // Cuántos IDs hay guardados (sin contar el 0)
+
+    // El ID 0 no entra en la tabla porque lo usamos como marca de "vacío".
+    private boolean tieneCero;
+    private int valorCero;
+
+    public IndiceIds() {
+        this(16);
+    }
+
+    public IndiceIds(int capacidadInicial) {
+        int capacidad = 16;
+        // La tabla siempre tiene un tamaño potencia de 2 y se mantiene
+        // llena a menos de la mitad, para que las búsquedas sean cortas.
+        while (capacidad < capacidadInicial * 2) {
+            capacidad <<= 1;
+        }
+        this.claves = new int[capacidad];
+        this.valores = new int[capacidad];
+    }
+
+    /**
+     * Devuelve la posición guardada para ese ID, o NO_ENCONTRADO.
+     */
+    public int obtener(int id) {
+        if (id == VACIO) {
+            return tieneCero ? valorCero : NO_ENCONTRADO;
+        }
+        int mascara = claves.length - 1;
+        int i = mezclar(id) & mascara;
+        while (claves[i] != VACIO) {
+            if (claves[i] == id) {
+                return valores[i];
+            }
+            i = (i + 1) & mascara; // Probamos con el casillero siguiente
+        }
+        return NO_ENCONTRADO;
+    }
+
+    /**
+     * Guarda (o actualiza) la posición de un ID.
+     */
+    public void poner(int id, int posicion) {
+        if (id == VACIO) {
+            if (!tieneCero) {
+                tieneCero = true;
+                cantidad++;
+            }
+            valorCero = posicion;
+            return;
+        }
+        // Si la tabla está por llenarse a la mitad, la agrandamos.
+        if ((cantidad + 1) * 2 > claves.length) {
+            agrandar();
+        }
+        int mascara = claves.length - 1;
+        int i = mezclar(id) & mascara;
+        while (claves[i] != VACIO) {
+            if (claves[i] == id) {
+                valores[i] = posicion;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = id;
+        valores[i] = posicion;
+        cantidad++;
+    }
+
+    /**
+     * Saca un ID del índice. No hace nada si no estaba.
+     */
+    public void quitar(int id) {
+        if (id == VACIO) {
+            if (tieneCero) {
+                tieneCero = false;
+                cantidad--;
+            }
+            return;
+        }
+        int mascara = claves.length - 1;
+        int i = mezclar(id) & mascara;
+        while (claves[i] != id) {
+            if (claves[i] == VACIO) {
+                return; // No estaba
+            }
+            i = (i + 1) & mascara;
+        }
+        // Al borrar no podemos dejar un "agujero", porque cortaría la cadena
+        // de búsqueda de otros IDs. Entonces corremos hacia atrás los que
+        // estaban más adelante y les correspondía un lugar anterior.
+        int hueco = i;
+        int j = (i + 1) & mascara;
+        while (claves[j] != VACIO) {
+            int ideal = mezclar(claves[j]) & mascara;
+            // ¿El elemento en 'j' puede ocupar el hueco sin perderse?
+            if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                claves[hueco] = claves[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+            j = (j + 1) & mascara;
+        }
+        claves[hueco] = VACIO;
+        cantidad--;
+    }
+
+    public int tamanio() {
+        return cantidad;
+    }
+
+    /**
+     * Vacía el índice, conservando la memoria ya reservada.
+     */
+    public void limpiar() {
+        Arrays.fill(claves, VACIO);
+        tieneCero = false;
+        cantidad = 0;
+    }
+
+    private void agrandar() {
+        int[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        claves = new int[viejasClaves.length * 2];
+        valores = new int[viejasClaves.length * 2];
+        int mascara = claves.length - 1;
+        for (int k = 0; k < viejasClaves.length; k++) {
+            int id = viejasClaves[k];
+            if (id != VACIO) {
+                int i = mezclar(id) & mascara;
+                while (claves[i] != VACIO) {
+                    i = (i + 1) & mascara;
+                }
+                claves[i] = id;
+                valores[i] = viejosValores[k];
+            }
+        }
+    }
+
+    /**
+     * "Desordena" los bits del ID. Los IDs son consecutivos (1, 2, 3...)
+     * y sin esto quedarían todos amontonados en la misma zona de la tabla.
+     */
+    private static int mezclar(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,434 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Índice "invertido" para buscar tareas por las palabras de su descripción.
+ *
+ * Es como el índice de palabras al final de un libro: para cada palabra
+ * guardamos la lista de IDs de las tareas que la contienen. Así, buscar
+ * "pan" no obliga a leer todas las descripciones: vamos directo a la lista.
+ *
+ * Las palabras se guardan "normalizadas": en minúscula y sin tildes, para
+ * que "Jardín", "jardin" y "JARDÍN" sean la misma palabra.
+ * Las palabras están ordenadas (TreeMap), así que buscar por prefijo
+ * ("jard*") es recorrer un rango del mapa.
+ */
+public class IndiceTexto {
+
+    private static final int MARCA = 0x49445854; // "IDXT"
+    private static final int VERSION = 1;
+
+    // Puntaje de cada palabra de la consulta: coincidencia exacta o sólo por prefijo.
+    private static final int PUNTAJE_EXACTO = 2;
+    private static final int PUNTAJE_PREFIJO = 1;
+
+    // palabra -> IDs (ordenados) de las tareas que la contienen
+    private final TreeMap<String, ListaIds> palabras = new TreeMap<>();
+
+    // --- Mantenimiento del índice ---
+
+    public void agregar(Tarea tarea) {
+        for (String palabra : palabrasDistintas(tarea.getDescripcion())) {
+            palabras.computeIfAbsent(palabra, p -> new ListaIds()).agregar(tarea.getId());
+        }
+    }
+
+    /**
+     * Saca la tarea del índice. Necesita la tarea (no sólo el ID) para
+     * saber en qué listas de palabras está.
+     */
+    public void eliminar(Tarea tarea) {
+        for (String palabra : palabrasDistintas(tarea.getDescripcion())) {
+            ListaIds lista = palabras.get(palabra);
+            if (lista != null) {
+                lista.quitar(tarea.getId());
+                if (lista.vivas() == 0) {
+                    palabras.remove(palabra);
+                }
+            }
+        }
+    }
+
+    public int cantidadDePalabras() {
+        return palabras.size();
+    }
+
+    // --- Búsqueda ---
+
+    /**
+     * Busca las tareas que contienen las palabras de la consulta.
+     * Una palabra que termina en '*' busca por prefijo ("comp*" encuentra
+     * "compra", "computadora", ...).
+     *
+     * @param todasLasPalabras 'true' = tienen que estar todas (Y),
+     *                         'false' = alcanza con alguna (O).
+     * @return Los IDs encontrados y su puntaje (más alto = más relevante),
+     * ordenados por ID.
+     */
+    public Coincidencias buscar(String consulta, boolean todasLasPalabras) {
+        Coincidencias resultado = null;
+        for (String termino : consulta.trim().split("\\s+")) {
+            boolean prefijo = termino.endsWith("*");
+            List<String> partes = tokenizar(prefijo ? termino.substring(0, termino.length() - 1) : termino);
+            if (partes.isEmpty()) {
+                continue;
+            }
+            // Si el término tiene signos ("e-mail"), cada parte cuenta como una palabra.
+            for (int i = 0; i < partes.size(); i++) {
+                boolean esUltima = i == partes.size() - 1;
+                Coincidencias delTermino = buscarPalabra(partes.get(i), prefijo && esUltima);
+                if (resultado == null) {
+                    resultado = delTermino;
+                } else if (todasLasPalabras) {
+                    resultado = resultado.interseccion(delTermino);
+                } else {
+                    resultado = resultado.union(delTermino);
+                }
+            }
+        }
+        return resultado == null ? new Coincidencias(new int[0], new int[0], 0) : resultado;
+    }
+
+    private Coincidencias buscarPalabra(String palabra, boolean prefijo) {
+        if (!prefijo) {
+            ListaIds lista = palabras.get(palabra);
+            if (lista == null) {
+                return new Coincidencias(new int[0], new int[0], 0);
+            }
+            int[] puntajes = new int[lista.vivas()];
+            Arrays.fill(puntajes, PUNTAJE_EXACTO);
+            return new Coincidencias(lista.copiarVivos(), puntajes, puntajes.length);
+        }
+        // Todas las palabras entre "prefijo" y "prefijo" + (el carácter más alto)
+        // empiezan con el prefijo. Juntamos los IDs de todas esas palabras.
+        Map<String, ListaIds> rango = palabras.subMap(palabra, true, palabra + Character.MAX_VALUE, false);
+        int total = 0;
+        for (ListaIds lista : rango.values()) {
+            total += lista.vivas();
+        }
+        // Guardamos cada par (ID, puntaje) en un solo 'long' para poder ordenarlos
+        // juntos por ID: el ID en la parte alta y el puntaje en la baja.
+        long[] pares = new long[total];
+        int n = 0;
+        for (Map.Entry<String, ListaIds> entrada : rango.entrySet()) {
+            int puntaje = entrada.getKey().equals(palabra) ? PUNTAJE_EXACTO : PUNTAJE_PREFIJO;
+            ListaIds lista = entrada.getValue();
+            for (int i = 0; i < lista.cantidad; i++) {
+                if (!lista.borradas.get(i)) {
+                    pares[n++] = ((long) lista.ids[i] << 32) | puntaje;
+                }
+            }
+        }
+        Arrays.sort(pares);
+        // Si una tarea tiene varias palabras con el prefijo, aparece una sola vez
+        // (con el mejor puntaje: como están ordenados, el último de cada ID).
+        int[] ids = new int[total];
+        int[] puntajes = new int[total];
+        int cantidad = 0;
+        for (int i = 0; i < total; i++) {
+            int id = (int) (pares[i] >> 32);
+            if (cantidad > 0 && ids[cantidad - 1] == id) {
+                cantidad--;
+            }
+            ids[cantidad] = id;
+            puntajes[cantidad++] = (int) pares[i];
+        }
+        return new Coincidencias(ids, puntajes, cantidad);
+    }
+
+    // --- Palabras ---
+
+    /**
+     * Parte un texto en palabras normalizadas (minúsculas, sin tildes).
+     * Ejemplo: "¡Comprar PAN en la Panadería!" -> [comprar, pan, en, la, panaderia]
+     */
+    public static List<String> tokenizar(String texto) {
+        // NFD separa cada letra de su tilde ("á" -> "a" + "´"); después
+        // descartamos las tildes (Character.NON_SPACING_MARK).
+        String separado = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        List<String> resultado = new ArrayList<>();
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i < separado.length(); i++) {
+            char c = separado.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                palabra.append(c);
+            } else if (palabra.length() > 0) {
+                resultado.add(palabra.toString().toLowerCase(Locale.ROOT));
+                palabra.setLength(0);
+            }
+        }
+        if (palabra.length() > 0) {
+            resultado.add(palabra.toString().toLowerCase(Locale.ROOT));
+        }
+        return resultado;
+    }
+
+    private static List<String> palabrasDistintas(String texto) {
+        List<String> todas = tokenizar(texto);
+        List<String> distintas = new ArrayList<>(todas.size());
+        for (String palabra : todas) {
+            if (!distintas.contains(palabra)) { // Las descripciones son cortas: esto alcanza
+                distintas.add(palabra);
+            }
+        }
+        return distintas;
+    }
+
+    // --- Guardar y leer el índice (para no rearmarlo en cada arranque) ---
+
+    /**
+     * Escribe el índice. Los IDs de cada lista se guardan como diferencias
+     * con el anterior, en pocos bytes (los números chicos ocupan 1 byte).
+     */
+    public void escribir(DataOutputStream salida) throws IOException {
+        salida.writeInt(MARCA);
+        salida.writeInt(VERSION);
+        salida.writeInt(palabras.size());
+        for (Map.Entry<String, ListaIds> entrada : palabras.entrySet()) {
+            salida.writeUTF(entrada.getKey());
+            ListaIds lista = entrada.getValue();
+            escribirVarInt(salida, lista.vivas());
+            int anterior = 0;
+            for (int i = 0; i < lista.cantidad; i++) {
+                if (!lista.borradas.get(i)) {
+                    escribirVarInt(salida, lista.ids[i] - anterior);
+                    anterior = lista.ids[i];
+                }
+            }
+        }
+    }
+
+    public static IndiceTexto leer(DataInputStream entrada) throws IOException {
+        if (entrada.readInt() != MARCA || entrada.readInt() != VERSION) {
+            throw new IOException("No es un índice de texto válido");
+        }
+        IndiceTexto indice = new IndiceTexto();
+        int cantidadPalabras = entrada.readInt();
+        for (int p = 0; p < cantidadPalabras; p++) {
+            String palabra = entrada.readUTF();
+            int cantidad = leerVarInt(entrada);
+            ListaIds lista = new ListaIds(cantidad);
+            int anterior = 0;
+            for (int i = 0; i < cantidad; i++) {
+                anterior += leerVarInt(entrada);
+                lista.ids[i] = anterior;
+            }
+            lista.cantidad = cantidad;
+            indice.palabras.put(palabra, lista);
+        }
+        return indice;
+    }
+
+    private static void escribirVarInt(DataOutputStream salida, int valor) throws IOException {
+        // 7 bits por byte; el bit más alto dice "sigue otro byte".
+        while ((valor & ~0x7F) != 0) {
+            salida.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        salida.writeByte(valor);
+    }
+
+    private static int leerVarInt(DataInputStream entrada) throws IOException {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 32; desplazamiento += 7) {
+            int b = entrada.readUnsignedByte();
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Número mal formado en el índice de texto");
+    }
+
+    /**
+     * Lista de IDs ordenada de menor a mayor, guardada en un int[] que crece.
+     *
+     * Quitar un ID no corre el resto del arreglo (eso hacía que borrar muchas
+     * tareas con una palabra en común costara n * n): sólo se marca su
+     * posición en 'borradas', como en IndiceFechas.Dia, y cuando las borradas
+     * pasan de la mitad se compacta la lista de una vez.
+     */
+    private static class ListaIds {
+        private int[] ids;
+        private int cantidad; // Posiciones usadas de 'ids' (contando las borradas)
+        private final BitSet borradas = new BitSet(); // Posiciones borradas
+        private int cantidadBorradas;
+
+        ListaIds() {
+            this(4);
+        }
+
+        ListaIds(int capacidad) {
+            ids = new int[Math.max(4, capacidad)];
+        }
+
+        int vivas() {
+            return cantidad - cantidadBorradas;
+        }
+
+        void agregar(int id) {
+            // Lo normal es que el ID nuevo sea el mayor: va al final.
+            int posicion = cantidad;
+            if (cantidad > 0 && ids[cantidad - 1] >= id) {
+                posicion = Arrays.binarySearch(ids, 0, cantidad, id);
+                if (posicion >= 0) {
+                    if (borradas.get(posicion)) {
+                        borradas.clear(posicion); // Estaba borrado: vuelve
+                        cantidadBorradas--;
+                    }
+                    return;
+                }
+                // Hay que meterlo en el medio: antes sacamos las borradas, así
+                // al correr los IDs no se desacomodan las posiciones del BitSet.
+                if (cantidadBorradas > 0) {
+                    compactar();
+                    posicion = -Arrays.binarySearch(ids, 0, cantidad, id) - 1;
+                } else {
+                    posicion = -posicion - 1;
+                }
+            }
+            if (cantidad == ids.length) {
+                ids = Arrays.copyOf(ids, cantidad * 2);
+            }
+            System.arraycopy(ids, posicion, ids, posicion + 1, cantidad - posicion);
+            ids[posicion] = id;
+            cantidad++;
+        }
+
+        void quitar(int id) {
+            int posicion = Arrays.binarySearch(ids, 0, cantidad, id);
+            if (posicion < 0 || borradas.get(posicion)) {
+                return;
+            }
+            borradas.set(posicion);
+            cantidadBorradas++;
+            if (cantidadBorradas > cantidad / 2) {
+                compactar(); // Cada compactación "se paga" con las bajas anteriores
+            }
+        }
+
+        /** Saca del arreglo las posiciones borradas, en una sola pasada. */
+        void compactar() {
+            if (cantidadBorradas == 0) {
+                return;
+            }
+            int destino = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (!borradas.get(i)) {
+                    ids[destino++] = ids[i];
+                }
+            }
+            cantidad = destino;
+            borradas.clear();
+            cantidadBorradas = 0;
+        }
+
+        /** @return Una copia de los IDs, sin los borrados. */
+        int[] copiarVivos() {
+            if (cantidadBorradas == 0) {
+                return Arrays.copyOf(ids, cantidad);
+            }
+            int[] copia = new int[vivas()];
+            int n = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (!borradas.get(i)) {
+                    copia[n++] = ids[i];
+                }
+            }
+            return copia;
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda: IDs ordenados, cada uno con su puntaje.
+     */
+    public static class Coincidencias {
+        private final int[] ids;
+        private final int[] puntajes;
+        private final int cantidad;
+
+        Coincidencias(int[] ids, int[] puntajes, int cantidad) {
+            this.ids = ids;
+            this.puntajes = puntajes;
+            this.cantidad = cantidad;
+        }
+
+        public int cantidad() {
+            return cantidad;
+        }
+
+        public int getId(int i) {
+            return ids[i];
+        }
+
+        public int getPuntaje(int i) {
+            return puntajes[i];
+        }
+
+        /** Y: sólo los IDs que están en las dos; los puntajes se suman. */
+        Coincidencias interseccion(Coincidencias otra) {
+            return combinar(otra, true);
+        }
+
+        /** O: los IDs que están en alguna; los puntajes se suman. */
+        Coincidencias union(Coincidencias otra) {
+            return combinar(otra, false);
+        }
+
+        /**
+         * Recorre las dos listas ordenadas a la vez (como al mezclar dos mazos
+         * de cartas ordenados), así cuesta lo que suman las dos listas.
+         */
+        private Coincidencias combinar(Coincidencias otra, boolean soloComunes) {
+            int maximo = soloComunes ? Math.min(cantidad, otra.cantidad) : cantidad + otra.cantidad;
+            int[] nuevosIds = new int[maximo];
+            int[] nuevosPuntajes = new int[maximo];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < cantidad && j < otra.cantidad) {
+                if (ids[i] == otra.ids[j]) {
+                    nuevosIds[n] = ids[i];
+                    nuevosPuntajes[n++] = puntajes[i] + otra.puntajes[j];
+                    i++;
+                    j++;
+                } else if (ids[i] < otra.ids[j]) {
+                    if (!soloComunes) {
+                        nuevosIds[n] = ids[i];
+                        nuevosPuntajes[n++] = puntajes[i];
+                    }
+                    i++;
+                } else {
+                    if (!soloComunes) {
+                        nuevosIds[n] = otra.ids[j];
+                        nuevosPuntajes[n++] = otra.puntajes[j];
+                    }
+                    j++;
+                }
+            }
+            if (!soloComunes) {
+                for (; i < cantidad; i++) {
+                    nuevosIds[n] = ids[i];
+                    nuevosPuntajes[n++] = puntajes[i];
+                }
+                for (; j < otra.cantidad; j++) {
+                    nuevosIds[n] = otra.ids[j];
+                    nuevosPuntajes[n++] = otra.puntajes[j];
+                }
+            }
+            return new Coincidencias(nuevosIds, nuevosPuntajes, n);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Convierte Tareas a JSON "a mano", escribiendo directo en un StringBuilder.
+ * No usamos ninguna librería: el formato es fijo y así evitamos crear
+ * objetos intermedios (mapas, Strings de cada campo, etc.) por cada tarea.
+ *
+ * Ejemplo de una tarea:
+ * {"id":1,"descripcion":"Comprar pan","completada":false,"fechaCreacion":"2024-05-01"}
+ */
+public class JsonTareas {
+
+    private static final char[] HEXA = "0123456789abcdef".toCharArray();
+
+    /**
+     * Agrega una tarea en formato JSON al final de 'json'.
+     */
+    public static void escribir(StringBuilder json, Tarea tarea) {
+        json.append("{\"id\":").append(tarea.getId());
+        json.append(",\"descripcion\":");
+        escribirTexto(json, tarea.getDescripcion());
+        json.append(",\"completada\":").append(tarea.isCompletada());
+        json.append(",\"fechaCreacion\":\"");
+        escribirFecha(json, tarea.getFechaCreacion());
+        json.append("\"}");
+    }
+
+    /**
+     * Agrega una lista de tareas como un arreglo JSON: [{...},{...}]
+     */
+    public static void escribirLista(StringBuilder json, List<Tarea> tareas) {
+        json.append('[');
+        for (int i = 0; i < tareas.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            escribir(json, tareas.get(i));
+        }
+        json.append(']');
+    }
+
+    /**
+     * Agrega un texto entre comillas, "escapando" los caracteres especiales
+     * (comillas, barras, saltos de línea...) como pide el formato JSON.
+     */
+    public static void escribirTexto(StringBuilder json, String texto) {
+        json.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        // Los demás caracteres de control van como \\u00XX
+                        json.append("\\u00").append(HEXA[c >> 4]).append(HEXA[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Escribe la fecha como "aaaa-mm-dd" sin crear un String intermedio.
+     */
+    private static void escribirFecha(StringBuilder json, LocalDate fecha) {
+        int anio = fecha.getYear();
+        if (anio < 1000 || anio > 9999) {
+            // Años raros (que no tienen 4 cifras): que se encargue LocalDate
+            json.append(fecha);
+            return;
+        }
+        json.append(anio).append('-');
+        dosDigitos(json, fecha.getMonthValue());
+        json.append('-');
+        dosDigitos(json, fecha.getDayOfMonth());
+    }
+
+    private static void dosDigitos(StringBuilder json, int valor) {
+        json.append((char) ('0' + valor / 10)).append((char) ('0' + valor % 10));
+    }
+
+    /**
+     * Lee el campo "descripcion" de un JSON como {"descripcion":"Comprar pan"}.
+     * Es un lector mínimo: sólo entiende ese campo de texto.
+     * @return La descripción, o 'null' si el JSON no la tiene o está mal formado.
+     */
+    public static String leerDescripcion(String json) {
+        int clave = json.indexOf("\"descripcion\"");
+        if (clave < 0) {
+            return null;
+        }
+        int i = clave + "\"descripcion\"".length();
+        // Salteamos espacios y los ':'
+        while (i < json.length() && (json.charAt(i) == ':' || Character.isWhitespace(json.charAt(i)))) {
+            i++;
+        }
+        if (i >= json.length() || json.charAt(i) != '"') {
+            return null;
+        }
+        StringBuilder texto = new StringBuilder();
+        for (i++; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                return texto.toString();
+            }
+            if (c != '\\') {
+                texto.append(c);
+                continue;
+            }
+            if (++i >= json.length()) {
+                return null;
+            }
+            char escapado = json.charAt(i);
+            switch (escapado) {
+                case 'n':
+                    texto.append('\n');
+                    break;
+                case 'r':
+                    texto.append('\r');
+                    break;
+                case 't':
+                    texto.append('\t');
+                    break;
+                case 'b':
+                    texto.append('\b');
+                    break;
+                case 'f':
+                    texto.append('\f');
+                    break;
+                case 'u':
+                    if (i + 4 >= json.length()) {
+                        return null;
+                    }
+                    try {
+                        texto.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    i += 4;
+                    break;
+                default:
+                    texto.append(escapado); // \" \\ \/
+            }
+        }
+        return null; // Faltó la comilla de cierre
+    }
+}
@@ -0,0 +1,240 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de la aplicación: cuántas veces se hizo cada operación y cuánto
+ * tardó (con un HistogramaLatencia por operación), cuántos bytes se leyeron
+ * y escribieron, cuántos renglones no se pudieron leer y cuántas tareas hay.
+ *
+ * Hay una sola instancia para todo el programa, y sólo existe si se activó
+ * (opción --metricas). Mientras no se active, getInstancia() devuelve 'null'
+ * y las clases que miden no hacen nada, así que no cuesta nada.
+ *
+ * Los números se pueden ver:
+ * - por JMX (JConsole, VisualVM...), como el MBean "Tpintegrador:type=MetricasTareas";
+ * - en el archivo metricas.log, donde se agrega un resumen cada tanto.
+ */
+public class MetricasTareas implements MetricasTareasMBean {
+
+    /**
+     * Las operaciones que se miden.
+     */
+    public enum Operacion {
+        CARGAR, GUARDAR, AGREGAR, COMPLETAR, ELIMINAR, LISTAR, LISTAR_FILTRADAS,
+        LISTAR_PAGINA, BUSCAR_TEXTO, RESUMEN_FECHAS, LOTE, ARCHIVAR,
+        // Del AutoGuardado: cuánto tarda escribir la foto, y cuánto pasa
+        // desde el primer cambio sin guardar hasta que queda en el disco.
+        AUTOGUARDAR, RETRASO_GUARDADO
+    }
+
+    private static final String NOMBRE_JMX = "Tpintegrador:type=MetricasTareas";
+    private static final String ARCHIVO_RESUMEN = "metricas.log";
+
+    private static volatile MetricasTareas instancia;
+
+    private final HistogramaLatencia[] tiempos = new HistogramaLatencia[Operacion.values().length];
+    private final LongAdder bytesLeidos = new LongAdder();
+    private final LongAdder bytesEscritos = new LongAdder();
+    private final LongAdder erroresDeLectura = new LongAdder();
+    private volatile IntSupplier tamanioAlmacen = () -> 0;
+    private ScheduledExecutorService programador;
+
+    private MetricasTareas() {
+        for (int i = 0; i < tiempos.length; i++) {
+            tiempos[i] = new HistogramaLatencia();
+        }
+    }
+
+    /**
+     * Crea las métricas (si no existían), las publica por JMX y, si
+     * 'segundosEntreResumenes' es mayor a 0, agrega un resumen a
+     * metricas.log cada esa cantidad de segundos.
+     */
+    public static synchronized MetricasTareas activar(int segundosEntreResumenes) {
+        if (instancia != null) {
+            return instancia;
+        }
+        MetricasTareas metricas = new MetricasTareas();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metricas, new ObjectName(NOMBRE_JMX));
+        } catch (JMException e) {
+            System.err.println("No se pudieron publicar las métricas por JMX: " + e.getMessage());
+        }
+        if (segundosEntreResumenes > 0) {
+            metricas.programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "resumen-metricas");
+                hilo.setDaemon(true); // No impide que el programa termine
+                return hilo;
+            });
+            metricas.programador.scheduleAtFixedRate(metricas::escribirResumen,
+                    segundosEntreResumenes, segundosEntreResumenes, TimeUnit.SECONDS);
+            // Un último resumen al salir, con los números finales.
+            Runtime.getRuntime().addShutdownHook(new Thread(metricas::escribirResumen));
+        }
+        instancia = metricas;
+        return metricas;
+    }
+
+    /**
+     * @return Las métricas, o 'null' si no se activaron.
+     */
+    public static MetricasTareas getInstancia() {
+        return instancia;
+    }
+
+    // --- Atajos para medir (no hacen nada si las métricas no están activas) ---
+
+    /**
+     * Se usa así:
+     *   long inicio = MetricasTareas.empezar();
+     *   ... la operación ...
+     *   MetricasTareas.terminar(Operacion.AGREGAR, inicio);
+     */
+    public static long empezar() {
+        return instancia == null ? 0 : System.nanoTime();
+    }
+
+    public static void terminar(Operacion operacion, long inicio) {
+        MetricasTareas metricas = instancia;
+        if (metricas != null && inicio != 0) {
+            metricas.tiempos[operacion.ordinal()].registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Para tiempos que no se miden con empezar()/terminar() (ej: un retraso).
+     */
+    public static void registrar(Operacion operacion, long nanos) {
+        MetricasTareas metricas = instancia;
+        if (metricas != null) {
+            metricas.tiempos[operacion.ordinal()].registrar(nanos);
+        }
+    }
+
+    public static void contarBytesLeidos(long bytes) {
+        MetricasTareas metricas = instancia;
+        if (metricas != null) {
+            metricas.bytesLeidos.add(bytes);
+        }
+    }
+
+    public static void contarBytesEscritos(long bytes) {
+        MetricasTareas metricas = instancia;
+        if (metricas != null) {
+            metricas.bytesEscritos.add(bytes);
+        }
+    }
+
+    public static void contarErroresDeLectura(int cantidad) {
+        MetricasTareas metricas = instancia;
+        if (metricas != null && cantidad > 0) {
+            metricas.erroresDeLectura.add(cantidad);
+        }
+    }
+
+    /**
+     * Quién sabe cuántas tareas hay en memoria (ej: servicio::contarTareas).
+     */
+    public void setTamanioAlmacen(IntSupplier tamanioAlmacen) {
+        this.tamanioAlmacen = tamanioAlmacen;
+    }
+
+    public HistogramaLatencia getTiempos(Operacion operacion) {
+        return tiempos[operacion.ordinal()];
+    }
+
+    // --- MetricasTareasMBean ---
+
+    @Override
+    public int getTareasEnMemoria() {
+        return tamanioAlmacen.getAsInt();
+    }
+
+    @Override
+    public long getBytesLeidos() {
+        return bytesLeidos.sum();
+    }
+
+    @Override
+    public long getBytesEscritos() {
+        return bytesEscritos.sum();
+    }
+
+    @Override
+    public long getErroresDeLectura() {
+        return erroresDeLectura.sum();
+    }
+
+    @Override
+    public String[] getOperaciones() {
+        Operacion[] operaciones = Operacion.values();
+        String[] renglones = new String[operaciones.length];
+        for (int i = 0; i < operaciones.length; i++) {
+            HistogramaLatencia h = tiempos[i];
+            renglones[i] = String.format("%-16s n=%-9d prom=%9s  p50=%9s  p90=%9s  p99=%9s  máx=%9s",
+                    operaciones[i].name().toLowerCase(), h.getCantidad(), duracion((long) h.getPromedio()),
+                    duracion(h.percentil(50)), duracion(h.percentil(90)), duracion(h.percentil(99)),
+                    duracion(h.getMaximo()));
+        }
+        return renglones;
+    }
+
+    @Override
+    public String resumen() {
+        StringBuilder texto = new StringBuilder(1024);
+        texto.append("[Métricas ").append(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)).append("] ")
+                .append("tareas=").append(getTareasEnMemoria())
+                .append(" leídos=").append(getBytesLeidos()).append(" B")
+                .append(" escritos=").append(getBytesEscritos()).append(" B")
+                .append(" errores de lectura=").append(getErroresDeLectura())
+                .append(System.lineSeparator());
+        for (String renglon : getOperaciones()) {
+            texto.append("  ").append(renglon).append(System.lineSeparator());
+        }
+        return texto.toString();
+    }
+
+    @Override
+    public void reiniciar() {
+        for (HistogramaLatencia h : tiempos) {
+            h.reiniciar();
+        }
+        bytesLeidos.reset();
+        bytesEscritos.reset();
+        erroresDeLectura.reset();
+    }
+
+    private void escribirResumen() {
+        try (PrintWriter salida = new PrintWriter(new FileWriter(ARCHIVO_RESUMEN, true))) {
+            salida.print(resumen());
+        } catch (IOException e) {
+            System.err.println("Error al escribir " + ARCHIVO_RESUMEN + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra nanosegundos en la unidad más cómoda: "850 ns", "12.3 us", "4.5 ms", "2.1 s".
+     */
+    private static String duracion(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        } else if (nanos < 1_000_000) {
+            return String.format("%.1f us", nanos / 1e3);
+        } else if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.1f s", nanos / 1e9);
+    }
+}
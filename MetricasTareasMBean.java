@@ -0,0 +1,28 @@
+/**
+ * Lo que MetricasTareas muestra por JMX (por ejemplo, con JConsole o
+ * VisualVM, en la pestaña "MBeans" -> Tpintegrador -> MetricasTareas).
+ *
+ * Java exige que esta interfaz se llame igual que la clase más "MBean",
+ * y cada getX() aparece como un atributo "X".
+ */
+public interface MetricasTareasMBean {
+
+    /** Cuántas tareas hay en memoria ahora. */
+    int getTareasEnMemoria();
+
+    long getBytesLeidos();
+
+    long getBytesEscritos();
+
+    /** Renglones que no se pudieron leer (archivo de tareas, diario, etc.). */
+    long getErroresDeLectura();
+
+    /** Un renglón por operación: cantidad y tiempos (mediana, p90, p99, máximo). */
+    String[] getOperaciones();
+
+    /** Todo lo anterior como texto (lo mismo que se escribe periódicamente). */
+    String resumen();
+
+    /** Pone a cero los contadores y los histogramas. */
+    void reiniciar();
+}
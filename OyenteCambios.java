@@ -0,0 +1,33 @@
+/**
+ * Interfaz para los objetos que quieren "enterarse" de cada cambio
+ * que se hace en las tareas (por ejemplo, el diario de cambios).
+ * El TareaService avisa a todos sus oyentes después de cada operación.
+ */
+public interface OyenteCambios {
+
+    /**
+     * Se llama cuando se agrega una tarea nueva.
+     */
+    void alAgregar(Tarea tarea);
+
+    /**
+     * Se llama cuando una tarea se marca como completada.
+     */
+    void alCompletar(int id);
+
+    /**
+     * Se llama cuando se elimina una tarea.
+     */
+    void alEliminar(int id);
+
+    /**
+     * Se llaman antes y después de una operación "por lotes" (por ejemplo,
+     * importar miles de tareas). En el medio llegan los avisos de siempre,
+     * uno por tarea. Por defecto no hacen nada.
+     */
+    default void alEmpezarLote() {
+    }
+
+    default void alTerminarLote() {
+    }
+}
@@ -0,0 +1,45 @@
+import java.util.List;
+
+/**
+ * Una página de un listado: unas pocas tareas (en orden de ID) y el
+ * "cursor" para pedir la página siguiente.
+ *
+ * El cursor es simplemente el ID de la última tarea de la página: la
+ * siguiente página empieza en la primera tarea con un ID mayor. Como los
+ * IDs nuevos siempre son más grandes que los existentes, agregar tareas
+ * mientras alguien pagina no corre las páginas: no se repite ni se saltea
+ * ninguna tarea (las nuevas aparecen al final).
+ */
+public class PaginaTareas {
+
+    /** Cursor para pedir la primera página (es menor que cualquier ID). */
+    public static final int DESDE_EL_PRINCIPIO = Integer.MIN_VALUE;
+
+    private final List<Tarea> tareas;
+    private final int cursor;
+    private final boolean hayMas;
+
+    public PaginaTareas(List<Tarea> tareas, int cursor, boolean hayMas) {
+        this.tareas = tareas;
+        this.cursor = cursor;
+        this.hayMas = hayMas;
+    }
+
+    public List<Tarea> getTareas() {
+        return tareas;
+    }
+
+    /**
+     * @return Lo que hay que pasar para pedir la página siguiente.
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return 'true' si hay más tareas después de esta página.
+     */
+    public boolean hayMasPaginas() {
+        return hayMas;
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de estrés del TareaServiceConcurrente: muchos hilos agregando,
+ * completando y eliminando a la vez sobre el mismo servicio.
+ *
+ * Antes de empezar se agregan unas tareas "compartidas". Después cada hilo
+ * hace 'operaciones' cambios al azar:
+ * - agrega tareas (y se anota qué ID le tocó a cada una),
+ * - completa tareas propias y de cualquier otro hilo,
+ * - elimina algunas de sus propias tareas,
+ * - e intenta eliminar tareas compartidas, compitiendo con los demás.
+ *
+ * Al final revisa que:
+ * - ningún ID se haya dado dos veces (ni repetido en el listado),
+ * - cada tarea compartida la haya podido eliminar un solo hilo,
+ * - la cantidad de tareas sea exactamente compartidas + agregadas - eliminadas,
+ * - cada tarea propia completada (y no eliminada) siga completada.
+ *
+ * No lee ni escribe archivos. Si algo falla termina con código de error 1.
+ * Uso: java PruebaEstresConcurrente [hilos] [operaciones] [compartidas]
+ * Ejemplo: java PruebaEstresConcurrente 8 100000 1000
+ */
+public class PruebaEstresConcurrente {
+
+    public static void main(String[] args) throws InterruptedException {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int compartidas = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        TareaServiceConcurrente servicio = new TareaServiceConcurrente();
+        for (int i = 1; i <= compartidas; i++) {
+            servicio.agregarTarea("Compartida " + i);
+        }
+
+        Trabajador[] trabajadores = new Trabajador[hilos];
+        Thread[] hilosCreados = new Thread[hilos];
+        // Cuántas veces se pudo eliminar cada tarea compartida (tiene que ser 0 o 1).
+        AtomicInteger[] bajasCompartidas = new AtomicInteger[compartidas + 1];
+        for (int i = 0; i < bajasCompartidas.length; i++) {
+            bajasCompartidas[i] = new AtomicInteger();
+        }
+        // Todos los hilos arrancan juntos, para que compitan de verdad.
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int i = 0; i < hilos; i++) {
+            trabajadores[i] = new Trabajador(servicio, i, operaciones, compartidas, bajasCompartidas, largada);
+            hilosCreados[i] = new Thread(trabajadores[i], "estres-" + i);
+            hilosCreados[i].start();
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Thread hilo : hilosCreados) {
+            hilo.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        String resultado = revisar(servicio, trabajadores, compartidas, bajasCompartidas);
+        System.out.printf("[Estrés] %d hilos x %d operaciones en %.2f s (%.0f ops/s): %s%n",
+                hilos, operaciones, segundos, hilos * (double) operaciones / segundos, resultado);
+        if (!resultado.startsWith("OK")) {
+            System.exit(1);
+        }
+    }
+
+    private static String revisar(TareaServiceConcurrente servicio, Trabajador[] trabajadores,
+                                  int compartidas, AtomicInteger[] bajasCompartidas) {
+        // 1. Ningún ID se dio dos veces.
+        BitSet dados = new BitSet();
+        dados.set(1, compartidas + 1);
+        int agregadas = 0;
+        int eliminadasPropias = 0;
+        for (Trabajador trabajador : trabajadores) {
+            if (trabajador.error != null) {
+                return "MAL: el hilo " + trabajador.numero + " falló: " + trabajador.error;
+            }
+            for (int id : trabajador.agregadas) {
+                if (dados.get(id)) {
+                    return "MAL: el ID " + id + " se dio dos veces";
+                }
+                dados.set(id);
+            }
+            agregadas += trabajador.agregadas.size();
+            eliminadasPropias += trabajador.eliminadas.cardinality();
+        }
+
+        // 2. Cada compartida se eliminó como mucho una vez.
+        int eliminadasCompartidas = 0;
+        for (int id = 1; id <= compartidas; id++) {
+            int bajas = bajasCompartidas[id].get();
+            if (bajas > 1) {
+                return "MAL: la tarea compartida " + id + " se eliminó " + bajas + " veces";
+            }
+            eliminadasCompartidas += bajas;
+        }
+
+        // 3. El listado: IDs en orden, sin repetir, y la cantidad justa.
+        List<Tarea> todas = servicio.listarTodasLasTareas();
+        int idAnterior = 0;
+        for (Tarea tarea : todas) {
+            if (tarea.getId() <= idAnterior) {
+                return "MAL: el listado tiene el ID " + tarea.getId() + " repetido o fuera de orden";
+            }
+            if (!dados.get(tarea.getId())) {
+                return "MAL: apareció la tarea " + tarea.getId() + ", que nadie agregó";
+            }
+            idAnterior = tarea.getId();
+        }
+        int esperadas = compartidas + agregadas - eliminadasPropias - eliminadasCompartidas;
+        if (todas.size() != esperadas) {
+            return "MAL: hay " + todas.size() + " tareas y tendría que haber " + esperadas;
+        }
+
+        // 4. Las propias completadas siguen completadas (y las eliminadas no están).
+        for (Trabajador trabajador : trabajadores) {
+            for (int id : trabajador.agregadas) {
+                boolean eliminada = trabajador.eliminadas.get(id);
+                try {
+                    Tarea tarea = servicio.buscarTarea(id);
+                    if (eliminada) {
+                        return "MAL: la tarea " + id + " se eliminó pero sigue estando";
+                    }
+                    if (trabajador.completadas.get(id) && !tarea.isCompletada()) {
+                        return "MAL: la tarea " + id + " se completó pero figura pendiente";
+                    }
+                } catch (TareaNoEncontradaException e) {
+                    if (!eliminada) {
+                        return "MAL: falta la tarea " + id;
+                    }
+                }
+            }
+        }
+        return "OK (" + todas.size() + " tareas, " + agregadas + " agregadas, "
+                + (eliminadasPropias + eliminadasCompartidas) + " eliminadas)";
+    }
+
+    /**
+     * Lo que hace cada hilo. Se anota sus altas, bajas y completadas para
+     * poder revisar todo al final.
+     */
+    private static class Trabajador implements Runnable {
+        private final TareaServiceConcurrente servicio;
+        private final int numero;
+        private final int operaciones;
+        private final int compartidas;
+        private final AtomicInteger[] bajasCompartidas;
+        private final CountDownLatch largada;
+
+        private final List<Integer> agregadas = new ArrayList<>();
+        private final BitSet eliminadas = new BitSet();  // Propias que eliminó
+        private final BitSet completadas = new BitSet(); // Propias que completó
+        private volatile String error;
+
+        Trabajador(TareaServiceConcurrente servicio, int numero, int operaciones, int compartidas,
+                   AtomicInteger[] bajasCompartidas, CountDownLatch largada) {
+            this.servicio = servicio;
+            this.numero = numero;
+            this.operaciones = operaciones;
+            this.compartidas = compartidas;
+            this.bajasCompartidas = bajasCompartidas;
+            this.largada = largada;
+        }
+
+        @Override
+        public void run() {
+            Random azar = new Random(numero);
+            try {
+                largada.await();
+                for (int i = 0; i < operaciones && error == null; i++) {
+                    int tipo = azar.nextInt(10);
+                    if (tipo < 5 || agregadas.isEmpty()) {
+                        agregadas.add(servicio.agregarTarea("Hilo " + numero + " tarea " + i).getId());
+                    } else if (tipo < 7) {
+                        completarPropia(agregadas.get(azar.nextInt(agregadas.size())));
+                    } else if (tipo < 8) {
+                        completarCualquiera(1 + azar.nextInt(agregadas.get(agregadas.size() - 1)));
+                    } else if (tipo < 9) {
+                        eliminarPropia(agregadas.get(azar.nextInt(agregadas.size())));
+                    } else if (compartidas > 0) {
+                        eliminarCompartida(1 + azar.nextInt(compartidas));
+                    }
+                }
+            } catch (InterruptedException | RuntimeException e) {
+                error = e.toString();
+            }
+        }
+
+        private void completarPropia(int id) {
+            try {
+                if (!servicio.marcarComoCompletada(id).isCompletada()) {
+                    error = "marcarComoCompletada(" + id + ") devolvió una tarea pendiente";
+                }
+                completadas.set(id);
+            } catch (TareaNoEncontradaException e) {
+                if (!eliminadas.get(id)) {
+                    error = "no se encontró la tarea propia " + id;
+                }
+            }
+        }
+
+        private void completarCualquiera(int id) {
+            try {
+                servicio.marcarComoCompletada(id);
+            } catch (TareaNoEncontradaException e) {
+                // Otro hilo la eliminó: es parte de la prueba.
+            }
+        }
+
+        private void eliminarPropia(int id) {
+            try {
+                servicio.eliminarTarea(id);
+                eliminadas.set(id);
+            } catch (TareaNoEncontradaException e) {
+                if (!eliminadas.get(id)) {
+                    error = "no se pudo eliminar la tarea propia " + id;
+                }
+            }
+        }
+
+        private void eliminarCompartida(int id) {
+            try {
+                servicio.eliminarTarea(id);
+                bajasCompartidas[id].incrementAndGet();
+            } catch (TareaNoEncontradaException e) {
+                // Ya la eliminó otro hilo (o este mismo).
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe tareas como texto (el mismo formato que Tarea.toString) de la
+ * forma más rápida posible, para listar o exportar millones de tareas.
+ *
+ * - Cada renglón se arma directamente en un StringBuilder que se reusa
+ *   (sin String.format, que tiene que interpretar el patrón cada vez).
+ * - La fecha se escribe dígito por dígito, sin crear un DateTimeFormatter
+ *   ni un String por tarea.
+ * - Los renglones se juntan y se mandan a la consola (o al archivo) de a
+ *   lotes de unos 64 KB, en lugar de un println (y un flush) por tarea.
+ *
+ * Hay que llamar a vaciar() (o close()) al terminar, para que se escriba
+ * lo que quedó en el último lote.
+ */
+public class RenderizadorTareas implements Closeable {
+
+    private static final int TAMANIO_LOTE = 64 * 1024;
+    private static final String FIN_DE_LINEA = System.lineSeparator();
+    // Sólo para años raros (de más o menos de 4 cifras); se crea una única vez.
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final StringBuilder lote = new StringBuilder(TAMANIO_LOTE + 256);
+    private final Appendable destino;
+    private final boolean cerrarDestino;
+
+    private RenderizadorTareas(Appendable destino, boolean cerrarDestino) {
+        this.destino = destino;
+        this.cerrarDestino = cerrarDestino;
+    }
+
+    /**
+     * Para mostrar en la consola (System.out). close() no cierra la consola.
+     */
+    public static RenderizadorTareas aConsola() {
+        return aSalida(System.out);
+    }
+
+    /**
+     * Para escribir en una salida ya abierta (que close() no cierra).
+     */
+    public static RenderizadorTareas aSalida(PrintStream salida) {
+        return new RenderizadorTareas(salida, false);
+    }
+
+    /**
+     * Para exportar a un archivo de texto (en UTF-8). Si ya existe, se reemplaza.
+     */
+    public static RenderizadorTareas aArchivo(Path archivo) throws IOException {
+        Writer escritor = Files.newBufferedWriter(archivo);
+        return new RenderizadorTareas(escritor, true);
+    }
+
+    /**
+     * Agrega un renglón con la tarea.
+     */
+    public void escribir(Tarea tarea) {
+        formatear(lote, tarea);
+        lote.append(FIN_DE_LINEA);
+        vaciarSiHaceFalta();
+    }
+
+    /**
+     * Agrega un renglón con la tarea en formato CSV (ver formatearCsv).
+     */
+    public void escribirCsv(Tarea tarea) {
+        formatearCsv(lote, tarea);
+        lote.append(FIN_DE_LINEA);
+        vaciarSiHaceFalta();
+    }
+
+    /**
+     * Agrega un renglón de texto (por ejemplo un título).
+     */
+    public void escribirLinea(String texto) {
+        lote.append(texto).append(FIN_DE_LINEA);
+        vaciarSiHaceFalta();
+    }
+
+    private void vaciarSiHaceFalta() {
+        if (lote.length() >= TAMANIO_LOTE) {
+            vaciar();
+        }
+    }
+
+    /**
+     * Manda lo que se juntó hasta ahora a la consola o al archivo.
+     */
+    public void vaciar() {
+        try {
+            destino.append(lote);
+            lote.setLength(0);
+            if (destino instanceof Flushable) {
+                ((Flushable) destino).flush();
+            }
+        } catch (IOException e) {
+            // Appendable obliga a declarar IOException; la pasamos como
+            // "no chequeada" para poder usar escribir() desde una lambda.
+            throw new UncheckedIOException(e);
+        }
+        if (destino instanceof PrintStream && ((PrintStream) destino).checkError()) {
+            throw new UncheckedIOException(new IOException("No se pudo escribir en la consola."));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        vaciar();
+        if (cerrarDestino) {
+            ((Closeable) destino).close();
+        }
+    }
+
+    // --- Formato de un renglón ---
+
+    /**
+     * Agrega la tarea a 'texto' con el formato:
+     * "ID: 7   | [ ] Pendiente | 01/05/2024 | Comprar pan"
+     * (igual a String.format("ID: %-3d | %-13s | %s | %s", ...)).
+     */
+    public static void formatear(StringBuilder texto, Tarea tarea) {
+        int inicio = texto.length();
+        texto.append("ID: ").append(tarea.getId());
+        // %-3d: el número ocupa al menos 3 lugares, completando con espacios a la derecha
+        for (int usados = texto.length() - inicio - 4; usados < 3; usados++) {
+            texto.append(' ');
+        }
+        // "[X] Completada" ya tiene 14 letras y "[ ] Pendiente" justo 13 (%-13s)
+        texto.append(tarea.isCompletada() ? " | [X] Completada | " : " | [ ] Pendiente | ");
+        escribirFecha(texto, tarea.getFechaCreacion());
+        texto.append(" | ").append(tarea.getDescripcion());
+    }
+
+    /** Primer renglón de un archivo CSV exportado. */
+    public static final String ENCABEZADO_CSV = "id,descripcion,completada,fechaCreacion";
+
+    /**
+     * Agrega la tarea a 'texto' como CSV: 7,Comprar pan,false,2024-05-01
+     * Si la descripción tiene comas, comillas o espacios (o tabulaciones)
+     * en los extremos, va entre comillas (y las comillas de adentro se
+     * duplican): al importar, a los campos sin comillas se les sacan.
+     */
+    public static void formatearCsv(StringBuilder texto, Tarea tarea) {
+        texto.append(tarea.getId()).append(',');
+        String descripcion = tarea.getDescripcion();
+        boolean entreComillas = descripcion.indexOf(',') >= 0 || descripcion.indexOf('"') >= 0
+                || (!descripcion.isEmpty() && (descripcion.charAt(0) <= ' '
+                        || descripcion.charAt(descripcion.length() - 1) <= ' '));
+        if (entreComillas) {
+            texto.append('"');
+            for (int i = 0; i < descripcion.length(); i++) {
+                char c = descripcion.charAt(i);
+                if (c == '"') {
+                    texto.append('"');
+                }
+                texto.append(c);
+            }
+            texto.append('"');
+        } else {
+            texto.append(descripcion);
+        }
+        texto.append(',').append(tarea.isCompletada()).append(',');
+        LocalDate fecha = tarea.getFechaCreacion();
+        int anio = fecha.getYear();
+        if (anio < 1000 || anio > 9999) {
+            texto.append(fecha); // Años raros: que se encargue LocalDate
+            return;
+        }
+        texto.append(anio).append('-');
+        dosDigitos(texto, fecha.getMonthValue());
+        texto.append('-');
+        dosDigitos(texto, fecha.getDayOfMonth());
+    }
+
+    /**
+     * Escribe la fecha como "dd/mm/aaaa" sin crear objetos intermedios.
+     */
+    private static void escribirFecha(StringBuilder texto, LocalDate fecha) {
+        int anio = fecha.getYear();
+        if (anio < 1000 || anio > 9999) {
+            texto.append(fecha.format(FORMATO_FECHA));
+            return;
+        }
+        dosDigitos(texto, fecha.getDayOfMonth());
+        texto.append('/');
+        dosDigitos(texto, fecha.getMonthValue());
+        texto.append('/').append(anio);
+    }
+
+    private static void dosDigitos(StringBuilder texto, int valor) {
+        texto.append((char) ('0' + valor / 10)).append((char) ('0' + valor % 10));
+    }
+}
@@ -0,0 +1,121 @@
+import java.io.IOException;
+
+/**
+ * Una "réplica de sólo lectura": otro programa (otro proceso, en la misma
+ * carpeta) que tiene su propia copia de las tareas en memoria y la mantiene
+ * al día siguiendo el feed de cambios (tareas.feed) de la aplicación
+ * principal, sin leer nunca tareas.txt. Sirve, por ejemplo, para hacer
+ * reportes o búsquedas sin molestar a la aplicación principal.
+ *
+ * La copia es un TareaService común (así se pueden usar todas sus
+ * consultas), al que los cambios le llegan igual que al repetir el diario.
+ * No hay que agregar ni modificar tareas en la réplica.
+ *
+ * El "retraso" es cuánto pasó entre que la aplicación principal escribió
+ * un cambio y la réplica lo aplicó. Como el feed se revisa cada
+ * 'intervalo' milisegundos, en general no pasa de eso (más lo que tarde
+ * aplicar los cambios).
+ *
+ * Uso (en la carpeta de la aplicación, que tiene que correr con --feed):
+ *   java ReplicaTareas [--intervalo=100] [--columnar] [--una-vez]
+ * Con --una-vez se pone al día, muestra cómo quedó y termina.
+ *
+ * La réplica se usa desde un solo hilo: actualizar() y las consultas no
+ * se pueden llamar a la vez.
+ */
+public class ReplicaTareas {
+
+    private final TareaService servicio;
+    private final OyenteCambios aplicador;
+    private final SeguidorCambios seguidor;
+    private long ultimoRetrasoMs;
+    private long retrasoMaximoMs;
+
+    /**
+     * Una réplica vacía, que se va a llenar leyendo el feed desde el principio.
+     */
+    public ReplicaTareas(AlmacenTareas almacen) {
+        this.servicio = new TareaService(false, almacen);
+        this.aplicador = servicio.aplicadorDeCambios();
+        this.seguidor = new GestorPersistencia().seguirFeed(0);
+    }
+
+    /**
+     * Aplica los cambios nuevos del feed (si hay).
+     * @return Cuántos cambios se aplicaron.
+     */
+    public int actualizar() throws IOException {
+        int aplicados = seguidor.leerNuevos(aplicador);
+        if (aplicados > 0) {
+            ultimoRetrasoMs = Math.max(0, System.currentTimeMillis() - seguidor.getUltimaMarca());
+            retrasoMaximoMs = Math.max(retrasoMaximoMs, ultimoRetrasoMs);
+        }
+        return aplicados;
+    }
+
+    /**
+     * Para hacer consultas sobre la copia (listar, buscar, contar...).
+     */
+    public TareaService getServicio() {
+        return servicio;
+    }
+
+    /** El número del último cambio aplicado. */
+    public long getSecuencia() {
+        return seguidor.getSecuencia();
+    }
+
+    /** Retraso del último cambio aplicado, en milisegundos. */
+    public long getUltimoRetrasoMs() {
+        return ultimoRetrasoMs;
+    }
+
+    /** El mayor retraso que tuvo un cambio, en milisegundos. */
+    public long getRetrasoMaximoMs() {
+        return retrasoMaximoMs;
+    }
+
+    private String estado() {
+        return "[Réplica] cambio " + getSecuencia()
+                + " | tareas=" + servicio.contarTareas()
+                + " pendientes=" + servicio.contarPendientes()
+                + " completadas=" + servicio.contarCompletadas()
+                + " | retraso=" + ultimoRetrasoMs + " ms (máx " + retrasoMaximoMs + " ms)";
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long intervalo = 100;
+        boolean columnar = false;
+        boolean unaVez = false;
+        for (String arg : args) {
+            if (arg.startsWith("--intervalo=")) {
+                intervalo = Long.parseLong(arg.substring(12));
+            } else if (arg.equals("--columnar")) {
+                columnar = true;
+            } else if (arg.equals("--una-vez")) {
+                unaVez = true;
+            }
+        }
+        ReplicaTareas replica = new ReplicaTareas(columnar ? new AlmacenColumnar() : new AlmacenObjetos());
+
+        if (unaVez) {
+            replica.actualizar();
+            System.out.println(replica.estado());
+            return;
+        }
+        // Revisamos el feed cada 'intervalo' ms, y mostramos cómo vamos
+        // (como mucho una vez por segundo, y sólo si hubo cambios).
+        long ultimoAviso = 0;
+        boolean huboCambios = false;
+        while (true) {
+            huboCambios |= replica.actualizar() > 0;
+            long ahora = System.currentTimeMillis();
+            if (huboCambios && ahora - ultimoAviso >= 1000) {
+                System.out.println(replica.estado());
+                ultimoAviso = ahora;
+                huboCambios = false;
+            }
+            Thread.sleep(intervalo);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.List;
+
+/**
+ * Una página de resultados de búsqueda: las tareas de esta página
+ * (de la más relevante a la menos) y cuántas se encontraron en total.
+ */
+public class ResultadoBusqueda {
+
+    private final List<Tarea> tareas;
+    private final int total;
+    private final int pagina;
+    private final int tamanioPagina;
+
+    public ResultadoBusqueda(List<Tarea> tareas, int total, int pagina, int tamanioPagina) {
+        this.tareas = tareas;
+        this.total = total;
+        this.pagina = pagina;
+        this.tamanioPagina = tamanioPagina;
+    }
+
+    public List<Tarea> getTareas() {
+        return tareas;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPagina() {
+        return pagina;
+    }
+
+    /**
+     * @return 'true' si hay más resultados después de esta página.
+     */
+    public boolean hayMasPaginas() {
+        return (long) (pagina + 1) * tamanioPagina < total;
+    }
+}
@@ -0,0 +1,30 @@
+import java.util.List;
+
+/**
+ * Lo que devuelve el cargador después de leer el archivo de tareas:
+ * las tareas, el próximo ID y cuántas líneas no se pudieron leer.
+ */
+public class ResultadoCarga {
+
+    private final List<Tarea> tareas;
+    private final int proximoId;
+    private final int lineasCorruptas;
+
+    public ResultadoCarga(List<Tarea> tareas, int proximoId, int lineasCorruptas) {
+        this.tareas = tareas;
+        this.proximoId = proximoId;
+        this.lineasCorruptas = lineasCorruptas;
+    }
+
+    public List<Tarea> getTareas() {
+        return tareas;
+    }
+
+    public int getProximoId() {
+        return proximoId;
+    }
+
+    public int getLineasCorruptas() {
+        return lineasCorruptas;
+    }
+}
@@ -0,0 +1,35 @@
+import java.time.LocalDate;
+
+/**
+ * Los totales de un día: cuántas tareas se crearon ese día y cuántas de
+ * ellas siguen pendientes o ya se completaron (ver IndiceFechas).
+ */
+public class ResumenDia {
+
+    private final LocalDate fecha;
+    private final int pendientes;
+    private final int completadas;
+
+    public ResumenDia(LocalDate fecha, int pendientes, int completadas) {
+        this.fecha = fecha;
+        this.pendientes = pendientes;
+        this.completadas = completadas;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    /** Todas las tareas (que todavía existen) creadas ese día. */
+    public int getCreadas() {
+        return pendientes + completadas;
+    }
+
+    public int getPendientes() {
+        return pendientes;
+    }
+
+    public int getCompletadas() {
+        return completadas;
+    }
+}
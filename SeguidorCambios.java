@@ -0,0 +1,200 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lee el feed de cambios (ver FeedCambios) "a medida que crece", como
+ * 'tail -f': cada vez que se llama a leerNuevos() lee sólo lo que se
+ * agregó desde la vez anterior y le avisa cada cambio a un OyenteCambios.
+ *
+ * Se puede empezar desde cualquier número de secuencia: los cambios con
+ * un número menor o igual se saltean (sin armar ninguna Tarea). Una línea
+ * que todavía se está escribiendo (sin '\n' al final) se deja para la
+ * próxima vez, así nunca se lee un cambio a medias. (Si la aplicación se
+ * cortó justo ahí, al volver a arrancar borra esa mitad y escribe otra cosa
+ * en su lugar: nos damos cuenta comparando y la descartamos.)
+ *
+ * Lo puede usar otro programa (otro proceso) mientras la aplicación
+ * principal sigue escribiendo el feed: sólo lee, nunca escribe.
+ */
+public class SeguidorCambios {
+
+    private final File archivo;
+    private long secuencia;      // La del último cambio leído (o salteado)
+    private long posicion;       // Hasta qué byte del archivo ya leímos
+    private long ultimaMarca;    // Hora (en ms) en que se escribió el último cambio leído
+    private byte[] resto = new byte[0]; // Una línea que quedó por la mitad
+    private long cambiosLeidos;
+    // Las altas se leen igual que las líneas de tareas.txt (la descripción puede tener '|')
+    private final CargadorTareas lectorTareas = new CargadorTareas(StandardCharsets.UTF_8);
+
+    /**
+     * @param desdeSecuencia Avisar sólo los cambios con un número mayor a
+     * este (0 = desde el principio).
+     */
+    public SeguidorCambios(File archivo, long desdeSecuencia) {
+        this.archivo = archivo;
+        this.secuencia = desdeSecuencia;
+    }
+
+    /**
+     * Lee lo nuevo del feed y le avisa cada cambio al destino.
+     * @return Cuántos cambios se avisaron (0 si no había nada nuevo).
+     */
+    public int leerNuevos(OyenteCambios destino) throws IOException {
+        if (!archivo.exists()) {
+            return 0; // Todavía no lo creó nadie
+        }
+        int avisados = 0;
+        try (RandomAccessFile lector = new RandomAccessFile(archivo, "r")) {
+            long largo = lector.length();
+            if (resto.length > 0 && !sigueIgual(lector, largo)) {
+                // La línea por la mitad se borró: la volvemos a leer desde su comienzo.
+                posicion -= resto.length;
+                resto = new byte[0];
+            }
+            if (largo < posicion) {
+                throw new IOException("El feed " + archivo.getName() + " se achicó: no se puede seguir.");
+            }
+            byte[] bloque = new byte[1 << 16];
+            lector.seek(posicion);
+            while (posicion < largo) {
+                int leidos = lector.read(bloque, 0, (int) Math.min(bloque.length, largo - posicion));
+                if (leidos <= 0) {
+                    break;
+                }
+                posicion += leidos;
+                avisados += procesar(bloque, leidos, destino);
+            }
+        }
+        return avisados;
+    }
+
+    /**
+     * @return 'true' si la línea por la mitad que tenemos sigue en el archivo.
+     */
+    private boolean sigueIgual(RandomAccessFile lector, long largo) throws IOException {
+        long inicio = posicion - resto.length;
+        if (largo < posicion) {
+            return false;
+        }
+        byte[] enArchivo = new byte[resto.length];
+        lector.seek(inicio);
+        lector.readFully(enArchivo);
+        return Arrays.equals(enArchivo, resto);
+    }
+
+    /**
+     * Parte el bloque en líneas (juntando con lo que quedó del anterior).
+     */
+    private int procesar(byte[] bloque, int cantidad, OyenteCambios destino) {
+        int avisados = 0;
+        int inicio = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (bloque[i] != '\n') {
+                continue;
+            }
+            boolean avisado;
+            if (resto.length > 0) {
+                byte[] completa = Arrays.copyOf(resto, resto.length + i);
+                System.arraycopy(bloque, 0, completa, resto.length, i);
+                resto = new byte[0];
+                avisado = aplicar(completa, 0, completa.length, destino);
+            } else {
+                avisado = aplicar(bloque, inicio, i, destino);
+            }
+            if (avisado) {
+                avisados++;
+            }
+            inicio = i + 1;
+        }
+        if (inicio < cantidad) {
+            // La línea sigue en el próximo bloque (o todavía se está escribiendo)
+            byte[] nuevoResto = Arrays.copyOf(resto, resto.length + cantidad - inicio);
+            System.arraycopy(bloque, inicio, nuevoResto, resto.length, cantidad - inicio);
+            resto = nuevoResto;
+        }
+        return avisados;
+    }
+
+    /**
+     * Aplica la línea que está en los bytes [inicio, fin) de 'linea'.
+     * @return 'true' si el cambio era nuevo y se le avisó al destino.
+     */
+    private boolean aplicar(byte[] linea, int inicio, int fin, OyenteCambios destino) {
+        int primera = buscar(linea, inicio, fin);
+        int segunda = primera < 0 ? -1 : buscar(linea, primera + 1, fin);
+        try {
+            if (segunda < 0 || fin < segunda + 3 || linea[segunda + 2] != '|') {
+                throw new NumberFormatException();
+            }
+            long numero = Long.parseLong(texto(linea, inicio, primera));
+            long marca = Long.parseLong(texto(linea, primera + 1, segunda));
+            if (numero <= secuencia) {
+                return false; // Ya lo teníamos (empezamos más adelante)
+            }
+            int datos = segunda + 3;
+            switch (linea[segunda + 1]) {
+                case 'A':
+                    Tarea tarea = lectorTareas.parsearLinea(linea, datos, fin);
+                    if (tarea == null) {
+                        throw new NumberFormatException();
+                    }
+                    destino.alAgregar(tarea);
+                    break;
+                case 'C':
+                    destino.alCompletar(Integer.parseInt(texto(linea, datos, fin)));
+                    break;
+                case 'E':
+                    destino.alEliminar(Integer.parseInt(texto(linea, datos, fin)));
+                    break;
+                default:
+                    throw new NumberFormatException();
+            }
+            secuencia = numero;
+            ultimaMarca = marca;
+            cambiosLeidos++;
+            return true;
+        } catch (NumberFormatException e) {
+            // Como en el diario: avisamos y seguimos con la próxima línea.
+            System.err.println("Error al leer línea del feed: " + texto(linea, inicio, fin));
+            MetricasTareas.contarErroresDeLectura(1);
+            return false;
+        }
+    }
+
+    private static int buscar(byte[] linea, int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            if (linea[i] == '|') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String texto(byte[] linea, int inicio, int fin) {
+        return new String(linea, inicio, fin - inicio, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return El número del último cambio leído: para seguir más tarde
+     * desde acá, se crea otro SeguidorCambios con este número.
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * @return Hora (System.currentTimeMillis) en que se escribió el último
+     * cambio leído, o 0 si todavía no se leyó ninguno.
+     */
+    public long getUltimaMarca() {
+        return ultimaMarca;
+    }
+
+    public long getCambiosLeidos() {
+        return cambiosLeidos;
+    }
+}
@@ -0,0 +1,226 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo servidor: expone las tareas como una API HTTP que responde JSON,
+ * usando el servidor HTTP que ya viene con el JDK (com.sun.net.httpserver).
+ *
+ * Rutas:
+ *   GET    /tareas                      -> todas las tareas
+ *   GET    /tareas?estado=pendientes    -> sólo las pendientes
+ *   GET    /tareas?estado=completadas   -> sólo las completadas
+ *   GET    /tareas?limite=50&despues=120 -> una página (se puede combinar con 'estado')
+ *          responde {"tareas":[...],"siguiente":170}; "siguiente" es lo que
+ *          hay que mandar en 'despues' para la próxima página (null si no hay más)
+ *   POST   /tareas   {"descripcion":"..."}  -> agrega una tarea
+ *   POST   /tareas/{id}/completar       -> marca la tarea como completada
+ *   DELETE /tareas/{id}                 -> elimina la tarea
+ *
+ * Cada pedido se atiende en su propio hilo virtual (Java 21 o más nuevo),
+ * que son tan livianos que podemos tener miles sin armar un pool a medida.
+ * En versiones anteriores de Java se usa un pool de hilos comunes que crece
+ * según haga falta.
+ */
+public class ServidorHttp {
+
+    private final TareaServiceConcurrente servicio;
+    private final int puerto;
+    private HttpServer servidor;
+    private ExecutorService ejecutor;
+
+    public ServidorHttp(TareaServiceConcurrente servicio, int puerto) {
+        this.servicio = servicio;
+        this.puerto = puerto;
+    }
+
+    public void iniciar() throws IOException {
+        // Sin esto, el servidor del JDK espera a juntar más bytes antes de
+        // mandar cada respuesta (algoritmo de Nagle) y cada pedido tarda ~40 ms de más.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        servidor.createContext("/tareas", this::atender);
+        ejecutor = crearEjecutor();
+        servidor.setExecutor(ejecutor);
+        servidor.start();
+        System.out.println("[Servidor] Escuchando en http://localhost:" + servidor.getAddress().getPort() + "/tareas");
+    }
+
+    public void detener() {
+        if (servidor != null) {
+            servidor.stop(1); // Esperamos hasta 1 segundo a que terminen los pedidos en curso
+            ejecutor.shutdown();
+        }
+    }
+
+    /**
+     * Un hilo virtual por pedido si la versión de Java lo permite. Lo buscamos
+     * "por reflexión" para que el programa siga compilando con Java 17.
+     */
+    private static ExecutorService crearEjecutor() {
+        try {
+            ExecutorService virtuales = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            System.out.println("[Servidor] Usando un hilo virtual por pedido.");
+            return virtuales;
+        } catch (ReflectiveOperationException e) {
+            System.out.println("[Servidor] Esta versión de Java no tiene hilos virtuales: se usa un pool de hilos.");
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // --- Atención de pedidos ---
+
+    private void atender(HttpExchange pedido) throws IOException {
+        try {
+            String metodo = pedido.getRequestMethod();
+            // Partimos la ruta: "/tareas/5/completar" -> ["", "tareas", "5", "completar"]
+            String[] partes = pedido.getRequestURI().getPath().split("/");
+
+            if (partes.length == 2 && metodo.equals("GET")) {
+                listar(pedido);
+            } else if (partes.length == 2 && metodo.equals("POST")) {
+                agregar(pedido);
+            } else if (partes.length == 4 && partes[3].equals("completar") && metodo.equals("POST")) {
+                Tarea tarea = servicio.marcarComoCompletada(Integer.parseInt(partes[2]));
+                StringBuilder json = new StringBuilder(128);
+                JsonTareas.escribir(json, tarea);
+                responder(pedido, 200, json);
+            } else if (partes.length == 3 && metodo.equals("DELETE")) {
+                servicio.eliminarTarea(Integer.parseInt(partes[2]));
+                responder(pedido, 204, null);
+            } else {
+                responderError(pedido, 404, "Ruta no encontrada: " + metodo + " " + pedido.getRequestURI().getPath());
+            }
+        } catch (NumberFormatException e) {
+            responderError(pedido, 400, "El ID debe ser un número.");
+        } catch (TareaNoEncontradaException e) {
+            responderError(pedido, 404, e.getMessage());
+        } finally {
+            pedido.close();
+        }
+    }
+
+    private void listar(HttpExchange pedido) throws IOException {
+        Map<String, String> parametros = leerParametros(pedido.getRequestURI().getQuery());
+        String estado = parametros.remove("estado");
+        Predicate<Tarea> filtro;
+        if ("pendientes".equals(estado)) {
+            filtro = tarea -> !tarea.isCompletada();
+        } else if ("completadas".equals(estado)) {
+            filtro = tarea -> tarea.isCompletada();
+        } else if (estado == null) {
+            filtro = null;
+        } else {
+            responderError(pedido, 400, "Estado no válido: " + estado);
+            return;
+        }
+
+        String limite = parametros.remove("limite");
+        String despues = parametros.remove("despues");
+        if (!parametros.isEmpty()) {
+            responderError(pedido, 400, "Parámetros no válidos: " + parametros.keySet());
+            return;
+        }
+        if (limite != null || despues != null) {
+            // Listado por páginas (NumberFormatException se responde como 400 en atender)
+            int tamanio = limite == null ? 100 : Integer.parseInt(limite);
+            if (tamanio < 1 || tamanio > 10_000) {
+                responderError(pedido, 400, "El límite debe estar entre 1 y 10000.");
+                return;
+            }
+            int cursor = despues == null ? PaginaTareas.DESDE_EL_PRINCIPIO : Integer.parseInt(despues);
+            PaginaTareas pagina = servicio.listarPagina(filtro, cursor, tamanio);
+            StringBuilder json = new StringBuilder(pagina.getTareas().size() * 96 + 32);
+            json.append("{\"tareas\":");
+            JsonTareas.escribirLista(json, pagina.getTareas());
+            json.append(",\"siguiente\":").append(pagina.hayMasPaginas() ? String.valueOf(pagina.getCursor()) : "null");
+            json.append('}');
+            responder(pedido, 200, json);
+            return;
+        }
+
+        List<Tarea> tareas = filtro == null
+                ? servicio.listarTodasLasTareas()
+                : servicio.listarTareasFiltradas(filtro);
+        // Estimamos el tamaño para que el StringBuilder no tenga que crecer muchas veces.
+        StringBuilder json = new StringBuilder(tareas.size() * 96 + 2);
+        JsonTareas.escribirLista(json, tareas);
+        responder(pedido, 200, json);
+    }
+
+    private void agregar(HttpExchange pedido) throws IOException {
+        String cuerpo;
+        try (InputStream entrada = pedido.getRequestBody()) {
+            cuerpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String descripcion = JsonTareas.leerDescripcion(cuerpo);
+        if (descripcion == null || descripcion.trim().isEmpty()) {
+            responderError(pedido, 400, "Falta la descripción: {\"descripcion\":\"...\"}");
+            return;
+        }
+        if (Tarea.tieneCaracteresDeControl(descripcion.trim())) {
+            // Un "\n" escapado en el JSON partiría la tarea en dos renglones de tareas.txt
+            responderError(pedido, 400, "La descripción no puede tener saltos de línea ni caracteres de control.");
+            return;
+        }
+        Tarea nueva = servicio.agregarTarea(descripcion.trim());
+        StringBuilder json = new StringBuilder(128);
+        JsonTareas.escribir(json, nueva);
+        responder(pedido, 201, json);
+    }
+
+    /**
+     * Parte "a=1&b=2" en un mapa {a=1, b=2}. Los valores que usamos son
+     * números o palabras simples, así que no hace falta decodificarlos.
+     */
+    private static Map<String, String> leerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual < 0) {
+                parametros.put(par, "");
+            } else {
+                parametros.put(par.substring(0, igual), par.substring(igual + 1));
+            }
+        }
+        return parametros;
+    }
+
+    private static void responderError(HttpExchange pedido, int codigo, String mensaje) throws IOException {
+        StringBuilder json = new StringBuilder(mensaje.length() + 16);
+        json.append("{\"error\":");
+        JsonTareas.escribirTexto(json, mensaje);
+        json.append('}');
+        responder(pedido, codigo, json);
+    }
+
+    private static void responder(HttpExchange pedido, int codigo, StringBuilder json) throws IOException {
+        if (json == null) {
+            pedido.sendResponseHeaders(codigo, -1); // -1 significa "sin cuerpo"
+            return;
+        }
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        pedido.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        pedido.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = pedido.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+}
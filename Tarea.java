@@ -1,5 +1,4 @@
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Esta clase es el "molde" para crear objetos Tarea.
@@ -76,22 +75,56 @@ public class Tarea {
         return id + "|" + descripcion + "|" + completada + "|" + fechaCreacion;
     }
 
+    /**
+     * Revisa si el texto tiene saltos de línea u otros caracteres de control.
+     * En tareas.txt (y en el diario) cada tarea ocupa UNA línea: un "\n" en
+     * la descripción partiría la tarea en dos y al volver a cargar se perdería.
+     * El tabulador se acepta porque no rompe nada.
+     */
+    public static boolean tieneCaracteresDeControl(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (Character.isISOControl(c) && c != '\t') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lanza IllegalArgumentException si la descripción no se puede guardar
+     * (ver tieneCaracteresDeControl).
+     */
+    public static void validarDescripcion(String descripcion) {
+        if (tieneCaracteresDeControl(descripcion)) {
+            throw new IllegalArgumentException(
+                    "La descripción no puede tener saltos de línea ni caracteres de control.");
+        }
+    }
+
     /**
      * Método "estático" (de clase) que hace lo contrario a toFileString.
      * Recibe una línea de texto del archivo y la convierte en un objeto Tarea.
      */
     public static Tarea fromFileString(String fileString) {
         try {
-            // 1. Partimos la línea de texto usando el separador "|"
-            // El ", 4" es un truco para que, si la descripción tiene un "|",
-            // no se rompa (aunque es mejor evitarlo).
-            String[] partes = fileString.split("\\|", 4);
+            // 1. Buscamos los separadores "|". La descripción puede tener
+            // sus propios "|" (por ejemplo "a|b"), así que no alcanza con
+            // partir en todos: el ID va hasta el PRIMER separador, y la fecha
+            // y el estado están después de los DOS ÚLTIMOS. Lo del medio es
+            // la descripción. (El CargadorTareas lee el archivo igual.)
+            int primero = fileString.indexOf('|');
+            int ultimo = fileString.lastIndexOf('|');
+            int penultimo = fileString.lastIndexOf('|', ultimo - 1);
+            if (primero < 0 || penultimo <= primero) {
+                throw new IllegalArgumentException("faltan separadores");
+            }
 
             // 2. Convertimos cada parte al tipo de dato correcto
-            int id = Integer.parseInt(partes[0]);
-            String descripcion = partes[1];
-            boolean completada = Boolean.parseBoolean(partes[2]);
-            LocalDate fecha = LocalDate.parse(partes[3]);
+            int id = Integer.parseInt(fileString.substring(0, primero));
+            String descripcion = fileString.substring(primero + 1, penultimo);
+            boolean completada = Boolean.parseBoolean(fileString.substring(penultimo + 1, ultimo));
+            LocalDate fecha = LocalDate.parse(fileString.substring(ultimo + 1));
 
             // 3. Creamos y devolvemos la Tarea usando el segundo constructor
             return new Tarea(id, descripcion, completada, fecha);
@@ -100,6 +133,7 @@ public class Tarea {
             // Si algo falla (archivo corrupto, formato incorrecto),
             // avisamos y devolvemos 'null' para que quien lo llamó sepa del error.
             System.err.println("Error al leer línea de tarea: " + fileString);
+            MetricasTareas.contarErroresDeLectura(1);
             return null;
         }
     }
@@ -110,13 +144,11 @@ public class Tarea {
      */
     @Override
     public String toString() {
-        // [ ] Pendiente   o   [X] Completada
-        String estado = completada ? "[X] Completada" : "[ ] Pendiente";
-
-        // Formateamos la fecha a "día/mes/año"
-        String fechaFormateada = fechaCreacion.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-
-        // Usamos String.format para alinear todo en columnas.
-        return String.format("ID: %-3d | %-13s | %s | %s", id, estado, fechaFormateada, descripcion);
+        // Se ve así: "ID: 7   | [ ] Pendiente | 01/05/2024 | Comprar pan"
+        // El RenderizadorTareas arma el texto alineado en columnas, igual que
+        // String.format("ID: %-3d | %-13s | %s | %s", ...) pero mucho más rápido.
+        StringBuilder texto = new StringBuilder(48 + descripcion.length());
+        RenderizadorTareas.formatear(texto, this);
+        return texto.toString();
     }
 }
@@ -1,74 +1,346 @@
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate; // Importamos Predicate para la lambda
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Esta clase es el "cerebro" o la "lógica del negocio".
  * Se encarga de manejar la lista de tareas (agregar, borrar, etc.).
  * No sabe nada de 'Scanner' ni de cómo se guardan las cosas en el archivo,
  * solo llama al GestorPersistencia cuando lo necesita.
+ *
+ * Los métodos que cambian tareas son 'synchronized': así el AutoGuardado
+ * (que corre en otro hilo) puede sacar una foto sin verlas a medio cambiar.
  */
 public class TareaService {
 
-    private List<Tarea> tareas; // La lista principal de tareas en memoria
+    // Los dos filtros más comunes. Si a listarTareasFiltradas le pasan
+    // exactamente uno de estos, usamos el índice por estado en vez de
+    // recorrer todas las tareas.
+    public static final Predicate<Tarea> PENDIENTES = tarea -> !tarea.isCompletada();
+    public static final Predicate<Tarea> COMPLETADAS = tarea -> tarea.isCompletada();
+
+    // En modo diario, compactamos el diario cuando tiene más cambios que
+    // tareas hay en memoria (y al menos esta cantidad). Así reescribir el
+    // archivo entero se "reparte" entre muchos cambios.
+    private static final int MINIMO_REGISTROS_PARA_COMPACTAR = 10_000;
+
+    // Donde viven las tareas en memoria (ver AlmacenObjetos, AlmacenColumnar y AlmacenBinario).
+    private final AlmacenTareas almacen;
+    // Qué tareas están pendientes y cuáles completadas (ver IndiceEstado).
+    private final IndiceEstado estados = new IndiceEstado();
+    // Qué tareas se crearon cada día, y cuántas hay pendientes/completadas (ver IndiceFechas).
+    private final IndiceFechas fechas = new IndiceFechas();
+    // Índice de palabras para buscar por texto. Se arma recién la primera vez
+    // que alguien busca (o se lee de tareas.idx), y de ahí en más se mantiene al día.
+    private IndiceTexto indiceTexto;
+    private boolean guardarIndiceTexto;
+    // Las completadas creadas hace más de estos días se pasan al archivo
+    // histórico al cargar y al guardar (0 = no se archiva nada).
+    private int diasParaArchivar;
     private int proximoId;
     private GestorPersistencia persistencia; // El ayudante que sabe de archivos
 
+    // Modo diario: cada cambio se anota en un log en vez de esperar a salir.
+    private final boolean usarDiario;
+    private DiarioCambios diario;
+    // Feed de cambios: cada cambio se anota con un número para que otros
+    // programas (réplicas) lo sigan. Va siempre junto con el diario.
+    private boolean usarFeed;
+
+    // Modo compartido: varios procesos usan el mismo tareas.txt. Los IDs se
+    // piden al AsignadorIds y al guardar se combinan nuestros cambios con
+    // los de los demás (ver GestorPersistencia.guardarCombinando).
+    private static final int IDS_POR_BLOQUE = 1000;
+    private boolean compartido;
+    private AsignadorIds asignadorIds;
+    private CambiosPendientes cambiosSinGuardar;
+
+    // Modo segmentado: las tareas se guardan en la carpeta tareas.seg, en
+    // segmentos de este tamaño (0 = en tareas.txt, como siempre).
+    private int tareasPorSegmento;
+
+    // Modo binario: las tareas se guardan en tareas.bin y se leen de ahí a
+    // pedido (ver AlmacenBinario).
+    private boolean binario;
+
+    // Los objetos a los que les avisamos de cada cambio (por ejemplo, el diario).
+    private final List<OyenteCambios> oyentes = new ArrayList<>();
+
     public TareaService() {
-        this.tareas = new ArrayList<>();
+        this(false);
+    }
+
+    /**
+     * @param usarDiario Si es 'true', cada cambio se anota al instante en el
+     * diario (tareas.log) y el archivo completo sólo se reescribe cada tanto.
+     */
+    public TareaService(boolean usarDiario) {
+        this(usarDiario, new AlmacenObjetos());
+    }
+
+    /**
+     * @param almacen El "motor" donde se guardan las tareas en memoria.
+     * Con un AlmacenColumnar se ocupa mucha menos memoria por tarea.
+     */
+    public TareaService(boolean usarDiario, AlmacenTareas almacen) {
+        this.almacen = almacen;
         this.persistencia = new GestorPersistencia();
         this.proximoId = 1;
+        this.usarDiario = usarDiario;
+        // Si las métricas están activas, que puedan mostrar cuántas tareas hay.
+        MetricasTareas metricas = MetricasTareas.getInstancia();
+        if (metricas != null) {
+            metricas.setTamanioAlmacen(almacen::tamanio);
+        }
+    }
+
+    /**
+     * Pide que la próxima carga se haga en paralelo (para archivos muy grandes).
+     */
+    public void setCargaParalela(boolean cargaParalela) {
+        persistencia.setCargaParalela(cargaParalela);
+    }
+
+    /**
+     * Si es 'true', el índice de búsqueda se guarda en tareas.idx al guardar,
+     * y al arrancar se lee de ahí en vez de rearmarlo.
+     */
+    public void setGuardarIndiceTexto(boolean guardarIndiceTexto) {
+        this.guardarIndiceTexto = guardarIndiceTexto;
+    }
+
+    /**
+     * Si es 'true', cada cambio también se anota en el feed (tareas.feed)
+     * para que otros procesos lo sigan (ver ReplicaTareas). Conviene usarlo
+     * en modo diario: así lo que leen las réplicas y lo que se recupera al
+     * volver a arrancar son los mismos cambios.
+     */
+    public void setUsarFeed(boolean usarFeed) {
+        this.usarFeed = usarFeed;
+    }
+
+    /**
+     * Activa el modo compartido, para que varios procesos trabajen con las
+     * mismas tareas sin repetir IDs ni pisarse al guardar. No se puede usar
+     * junto con el diario ni el feed (que son de un solo proceso).
+     */
+    public void setCompartido(boolean compartido) {
+        this.compartido = compartido;
+    }
+
+    /**
+     * Activa el modo segmentado: las tareas se guardan en varios archivos
+     * de 'tareasPorSegmento' IDs cada uno, y al guardar sólo se reescriben
+     * los que cambiaron (ver ArchivoSegmentado). No se puede usar junto con
+     * el diario ni el modo compartido, que trabajan sobre tareas.txt.
+     */
+    public void setSegmentado(int tareasPorSegmento) {
+        this.tareasPorSegmento = tareasPorSegmento;
+    }
+
+    /**
+     * Activa el modo binario: las tareas se cargan de tareas.bin sin leerlas
+     * (se leen a pedido) y se guardan ahí. Necesita un AlmacenBinario. No se
+     * puede usar junto con el diario ni el modo compartido, que trabajan
+     * sobre tareas.txt.
+     */
+    public void setBinario(boolean binario) {
+        if (binario && !(almacen instanceof AlmacenBinario)) {
+            throw new IllegalArgumentException("El modo binario necesita un AlmacenBinario.");
+        }
+        this.binario = binario;
+    }
+
+    /**
+     * Activa el archivo histórico: las tareas completadas creadas hace más
+     * de 'dias' días salen de la memoria y de tareas.txt (ver archivarCompletadas).
+     */
+    public void setDiasParaArchivar(int dias) {
+        this.diasParaArchivar = dias;
     }
 
     /**
      * Llama al gestor de persistencia para cargar los datos en memoria
      * cuando arranca la app.
      */
-    public void cargarDatos() {
-        // Pide los datos al gestor y los guarda en sus variables
-        this.tareas = persistencia.cargarTareas();
-        this.proximoId = persistencia.cargarProximoId();
+    public synchronized void cargarDatos() {
+        long inicio = MetricasTareas.empezar();
+        // Pide los datos al gestor (que lee el archivo una sola vez)
+        // y los guarda en sus variables
+        if (tareasPorSegmento > 0) {
+            usarCarga(persistencia.cargarSegmentado(tareasPorSegmento));
+            this.oyentes.add(persistencia.getOyenteSegmentos());
+        } else if (binario) {
+            usarCarga(persistencia.cargarBinario());
+        } else {
+            usarCarga(persistencia.cargar());
+            // Si el índice guardado corresponde a este mismo archivo, lo usamos tal cual.
+            this.indiceTexto = guardarIndiceTexto ? persistencia.cargarIndiceTexto() : null;
+        }
+
+        if (compartido) {
+            this.asignadorIds = persistencia.abrirAsignadorIds(proximoId, IDS_POR_BLOQUE);
+            this.cambiosSinGuardar = new CambiosPendientes();
+            this.oyentes.add(cambiosSinGuardar);
+        }
+
+        if (usarDiario) {
+            // Sobre la última foto, repetimos los cambios anotados en el diario
+            // y después lo dejamos abierto para seguir anotando.
+            persistencia.reproducirDiario(new AplicadorDiario());
+            this.diario = persistencia.abrirDiario();
+            this.oyentes.add(diario);
+        } else if (!compartido && tareasPorSegmento == 0 && !binario
+                && persistencia.recuperarDiarioPendiente(new AplicadorDiario()) > 0) {
+            // Una sesión con --diario se cortó: pasamos sus cambios a la foto
+            // (y vaciamos el diario) para que no se pierdan ni se repitan IDs.
+            persistencia.compactarDiario(this.almacen, this.proximoId);
+            persistencia.cerrarDiario();
+        }
+        if (usarFeed) {
+            // Después del diario: un cambio llega al feed recién cuando ya está en el diario.
+            this.oyentes.add(persistencia.abrirFeed(almacen));
+        }
+        if (diasParaArchivar > 0) {
+            archivarCompletadas(diasParaArchivar);
+        }
+        MetricasTareas.terminar(MetricasTareas.Operacion.CARGAR, inicio);
     }
 
     /**
      * Llama al gestor de persistencia para guardar los datos de la memoria
      * en el archivo, justo antes de cerrar la app.
      */
-    public void guardarDatos() {
-        persistencia.guardar(this.tareas, this.proximoId);
+    public synchronized void guardarDatos() {
+        long inicio = MetricasTareas.empezar();
+        if (diasParaArchivar > 0) {
+            archivarCompletadas(diasParaArchivar); // Así no se vuelven a escribir en tareas.txt
+        }
+        if (compartido) {
+            // No pisamos el archivo: le sumamos nuestros cambios a lo que haya
+            // guardado cualquier otro proceso, y nos quedamos con el resultado.
+            ResultadoCarga combinado = persistencia.guardarCombinando(cambiosSinGuardar, proximoId);
+            if (combinado != null) {
+                cambiosSinGuardar.limpiar();
+                usarCarga(combinado);
+                this.indiceTexto = null; // Se vuelve a armar si alguien busca
+            }
+        } else if (tareasPorSegmento > 0) {
+            persistencia.guardarSegmentado(this.almacen, this.proximoId);
+        } else if (binario) {
+            persistencia.guardarBinario(this.almacen, this.proximoId);
+        } else if (diario != null) {
+            // En modo diario todos los cambios ya están en el log:
+            // no hace falta reescribir el archivo entero al salir.
+            persistencia.cerrarDiario();
+        } else {
+            persistencia.guardar(this.almacen, this.proximoId);
+            guardarIndiceSiCorresponde();
+        }
+        persistencia.cerrarFeed();
+        MetricasTareas.terminar(MetricasTareas.Operacion.GUARDAR, inicio);
+    }
+
+    /**
+     * Saca una foto de las tareas (rápido, sin tocar el disco) y devuelve
+     * "lo que hay que hacer" para escribirla en tareas.txt. Ese paso lento
+     * se puede ejecutar después, en otro hilo y sin bloquear el servicio.
+     * Lo usa el AutoGuardado.
+     */
+    synchronized BooleanSupplier prepararGuardado() {
+        if (compartido) {
+            // Escribir la foto pisaría lo que guardaron los otros procesos.
+            throw new IllegalStateException("En modo compartido hay que usar guardarDatos().");
+        }
+        Iterable<Tarea> foto = almacen.instantanea();
+        int proximoIdFoto = this.proximoId;
+        if (tareasPorSegmento > 0) {
+            return persistencia.prepararGuardadoSegmentado(foto, proximoIdFoto);
+        }
+        if (binario) {
+            return () -> persistencia.guardarBinarioSinInterrumpir(foto, proximoIdFoto);
+        }
+        return () -> persistencia.guardarSinInterrumpir(foto, proximoIdFoto);
+    }
+
+    /**
+     * Suma un objeto que quiere enterarse de cada cambio (ej: el AutoGuardado).
+     */
+    public synchronized void agregarOyente(OyenteCambios oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Cuántos bloques de IDs alquiló este proceso (sólo en modo compartido).
+     */
+    public int getBloquesDeIds() {
+        return asignadorIds == null ? 0 : asignadorIds.getBloquesAlquilados();
+    }
+
+    /**
+     * Reemplaza las tareas en memoria (y los índices) por las de 'carga'.
+     */
+    private void usarCarga(ResultadoCarga carga) {
+        this.almacen.cargar(carga.getTareas());
+        this.proximoId = carga.getProximoId();
+        this.estados.reconstruir(almacen.paraIndices());
+        this.fechas.reconstruir(almacen.paraIndices());
+    }
+
+    /**
+     * El ID para una tarea nueva. En modo compartido lo da el AsignadorIds,
+     * que no repite IDs entre procesos.
+     */
+    private int nuevoId() {
+        if (asignadorIds == null) {
+            return this.proximoId++; // Aumentamos el contador para que no se repitan IDs
+        }
+        int id = asignadorIds.siguiente();
+        this.proximoId = Math.max(this.proximoId, id + 1);
+        return id;
+    }
+
+    private void guardarIndiceSiCorresponde() {
+        if (guardarIndiceTexto && indiceTexto != null) {
+            persistencia.guardarIndiceTexto(indiceTexto);
+        }
     }
 
     /**
      * Agrega una nueva tarea a la lista.
      * @param descripcion El texto de la tarea.
      * @return La Tarea que se acaba de crear.
+     * @throws IllegalArgumentException Si la descripción tiene saltos de línea.
      */
-    public Tarea agregarTarea(String descripcion) {
-        Tarea nuevaTarea = new Tarea(this.proximoId, descripcion);
-        this.proximoId++; // Aumentamos el contador para que no se repitan IDs
-        this.tareas.add(nuevaTarea);
+    public synchronized Tarea agregarTarea(String descripcion) {
+        Tarea.validarDescripcion(descripcion);
+        long inicio = MetricasTareas.empezar();
+        Tarea nuevaTarea = new Tarea(nuevoId(), descripcion);
+        aplicarAlta(nuevaTarea);
+        for (OyenteCambios oyente : oyentes) {
+            oyente.alAgregar(nuevaTarea);
+        }
+        revisarDiario();
+        MetricasTareas.terminar(MetricasTareas.Operacion.AGREGAR, inicio);
         return nuevaTarea;
     }
 
     /**
-     * Busca una tarea por su ID.
+     * Arma el error que lanzamos cuando un ID no existe.
      * Este es un método "ayudante" (helper) que usaremos en otros métodos.
-     * Es más simple que usar 'Optional' o 'stream().findFirst()'.
-     *
-     * @param id El ID a buscar.
-     * @return La Tarea encontrada.
-     * @throws TareaNoEncontradaException Si no la encuentra.
      */
-    private Tarea buscarTareaPorId(int id) throws TareaNoEncontradaException {
-        // Recorremos la lista con un 'for-each' simple
-        for (Tarea tarea : tareas) {
-            if (tarea.getId() == id) {
-                return tarea; // La encontramos, la devolvemos
-            }
-        }
-        // Si el 'for' termina y no la encontramos, lanzamos nuestro error
-        throw new TareaNoEncontradaException("No se encontró ninguna tarea con el ID: " + id);
+    private static TareaNoEncontradaException noEncontrada(int id) {
+        return new TareaNoEncontradaException("No se encontró ninguna tarea con el ID: " + id);
     }
 
     /**
@@ -77,12 +349,24 @@ public class TareaService {
      * @return La Tarea ya actualizada.
      * @throws TareaNoEncontradaException Si el ID no existe.
      */
-    public Tarea marcarComoCompletada(int id) throws TareaNoEncontradaException {
-        // Usamos nuestro método ayudante para encontrarla
-        Tarea tarea = buscarTareaPorId(id);
-        // Modificamos el objeto
-        tarea.setCompletada(true);
-        return tarea;
+    public synchronized Tarea marcarComoCompletada(int id) throws TareaNoEncontradaException {
+        long inicio = MetricasTareas.empezar();
+        try {
+            // El almacén la busca por su índice (sin recorrer la lista) y la modifica
+            Tarea tarea = aplicarCompletada(id);
+            if (tarea == null) {
+                // Si no la encontró, lanzamos nuestro error
+                throw noEncontrada(id);
+            }
+            for (OyenteCambios oyente : oyentes) {
+                oyente.alCompletar(id);
+            }
+            revisarDiario();
+            return tarea;
+        } finally {
+            // 'finally' se ejecuta siempre: también medimos las búsquedas fallidas
+            MetricasTareas.terminar(MetricasTareas.Operacion.COMPLETAR, inicio);
+        }
     }
 
     /**
@@ -90,11 +374,261 @@ public class TareaService {
      * @param id El ID de la tarea a eliminar.
      * @throws TareaNoEncontradaException Si el ID no existe.
      */
-    public void eliminarTarea(int id) throws TareaNoEncontradaException {
-        // Primero, nos aseguramos de que exista
-        Tarea tarea = buscarTareaPorId(id);
-        // Si existe, la eliminamos de la lista.
-        this.tareas.remove(tarea);
+    public synchronized void eliminarTarea(int id) throws TareaNoEncontradaException {
+        long inicio = MetricasTareas.empezar();
+        try {
+            // Si no existe, el almacén nos avisa devolviendo 'false'
+            if (!aplicarBaja(id)) {
+                throw noEncontrada(id);
+            }
+            for (OyenteCambios oyente : oyentes) {
+                oyente.alEliminar(id);
+            }
+            revisarDiario();
+        } finally {
+            MetricasTareas.terminar(MetricasTareas.Operacion.ELIMINAR, inicio);
+        }
+    }
+
+    // --- Operaciones por lotes (para el modo por línea de comandos) ---
+    // Hacen lo mismo que las de arriba para muchas tareas de una sola pasada:
+    // avisan a los oyentes dentro de un "lote" (el diario vacía su buffer
+    // una sola vez) y revisan el diario una sola vez al final.
+
+    /**
+     * Agrega muchas tareas nuevas. De cada tarea recibida se usa la
+     * descripción, si está completada y la fecha; el ID se ignora porque
+     * a cada una le damos un ID nuevo, como en agregarTarea.
+     * @return La cantidad de tareas agregadas.
+     * @throws IllegalArgumentException Si alguna descripción tiene saltos de
+     *         línea. Se revisan todas antes de empezar, así que en ese caso
+     *         no se agrega ninguna.
+     */
+    public synchronized int importarTareas(List<Tarea> tareas) {
+        for (Tarea tarea : tareas) {
+            Tarea.validarDescripcion(tarea.getDescripcion());
+        }
+        long inicio = empezarLote();
+        for (Tarea tarea : tareas) {
+            Tarea nuevaTarea = new Tarea(nuevoId(), tarea.getDescripcion(),
+                    tarea.isCompletada(), tarea.getFechaCreacion());
+            aplicarAlta(nuevaTarea);
+            for (OyenteCambios oyente : oyentes) {
+                oyente.alAgregar(nuevaTarea);
+            }
+        }
+        terminarLote(inicio);
+        return tareas.size();
+    }
+
+    /**
+     * Marca como completadas todas las tareas de la lista de IDs.
+     * Los IDs que no existen se saltean (no lanza excepción).
+     * @return Cuántos IDs existían.
+     */
+    public synchronized int completarTareas(int[] ids) {
+        long inicio = empezarLote();
+        int encontradas = 0;
+        for (int id : ids) {
+            if (aplicarCompletada(id) != null) {
+                encontradas++;
+                for (OyenteCambios oyente : oyentes) {
+                    oyente.alCompletar(id);
+                }
+            }
+        }
+        terminarLote(inicio);
+        return encontradas;
+    }
+
+    /**
+     * Elimina todas las tareas de la lista de IDs. Cada eliminación cuesta
+     * O(1) (el almacén deja una lápida y compacta cada tanto), así que
+     * borrar miles de tareas no recorre la lista una vez por cada una.
+     * Los IDs que no existen (o repetidos) se saltean.
+     * @return Cuántas tareas se eliminaron.
+     */
+    public synchronized int eliminarTareas(int[] ids) {
+        long inicio = empezarLote();
+        int eliminadas = 0;
+        for (int id : ids) {
+            if (aplicarBaja(id)) {
+                eliminadas++;
+                for (OyenteCambios oyente : oyentes) {
+                    oyente.alEliminar(id);
+                }
+            }
+        }
+        terminarLote(inicio);
+        return eliminadas;
+    }
+
+    // --- Archivo histórico ---
+
+    /**
+     * Pasa al archivo histórico las tareas completadas creadas hace más de
+     * 'dias' días (no guardamos cuándo se completó cada una, así que
+     * usamos la fecha de creación) y las saca de la memoria. Para los
+     * oyentes es como si se hubieran eliminado: el diario anota la baja.
+     * Primero se escribe el archivo histórico: si eso falla, no se saca nada.
+     * @return Cuántas tareas se archivaron.
+     */
+    public synchronized int archivarCompletadas(int dias) {
+        long inicio = MetricasTareas.empezar();
+        LocalDate limite = LocalDate.now().minusDays(dias);
+        List<Tarea> viejas = new ArrayList<>();
+        if (estados.isConfiable()) {
+            // Sólo miramos las completadas, sin pasar por las pendientes.
+            for (int id = estados.siguiente(true, 0); id >= 0; id = estados.siguiente(true, id + 1)) {
+                Tarea tarea = almacen.buscar(id);
+                if (tarea.getFechaCreacion().isBefore(limite)) {
+                    viejas.add(tarea);
+                }
+            }
+        } else {
+            for (Tarea tarea : almacen) {
+                if (tarea.isCompletada() && tarea.getFechaCreacion().isBefore(limite)) {
+                    viejas.add(tarea);
+                }
+            }
+        }
+        if (viejas.isEmpty() || !persistencia.archivar(viejas)) {
+            MetricasTareas.terminar(MetricasTareas.Operacion.ARCHIVAR, inicio);
+            return 0;
+        }
+        for (OyenteCambios oyente : oyentes) {
+            oyente.alEmpezarLote();
+        }
+        for (Tarea tarea : viejas) {
+            aplicarBaja(tarea.getId());
+            for (OyenteCambios oyente : oyentes) {
+                oyente.alEliminar(tarea.getId());
+            }
+        }
+        for (OyenteCambios oyente : oyentes) {
+            oyente.alTerminarLote();
+        }
+        revisarDiario();
+        MetricasTareas.terminar(MetricasTareas.Operacion.ARCHIVAR, inicio);
+        return viejas.size();
+    }
+
+    /**
+     * Recorre las tareas del archivo histórico, leyéndolo de a poco.
+     * Hay que cerrar el Stream al terminar (try-with-resources).
+     */
+    public Stream<Tarea> recorrerArchivadas() {
+        return persistencia.abrirHistorico().recorrer();
+    }
+
+    /**
+     * Las completadas que están en memoria (en orden de ID) y después las
+     * del archivo histórico. Hay que cerrar el Stream al terminar.
+     */
+    public Stream<Tarea> recorrerCompletadasConArchivo() {
+        // El archivo se abre ya (aunque se lea al final): por eso hay que cerrar el Stream.
+        return Stream.concat(recorrerTareas(COMPLETADAS), recorrerArchivadas());
+    }
+
+    private long empezarLote() {
+        long inicio = MetricasTareas.empezar();
+        for (OyenteCambios oyente : oyentes) {
+            oyente.alEmpezarLote();
+        }
+        return inicio;
+    }
+
+    private void terminarLote(long inicio) {
+        for (OyenteCambios oyente : oyentes) {
+            oyente.alTerminarLote();
+        }
+        revisarDiario();
+        MetricasTareas.terminar(MetricasTareas.Operacion.LOTE, inicio);
+    }
+
+    // --- Aplicar cambios al almacén y a todos los índices ---
+    // Los usan tanto los métodos públicos como el AplicadorDiario.
+
+    private void aplicarAlta(Tarea tarea) {
+        almacen.agregar(tarea);
+        estados.agregar(tarea);
+        fechas.agregar(tarea);
+        if (indiceTexto != null) {
+            indiceTexto.agregar(tarea);
+        }
+    }
+
+    private Tarea aplicarCompletada(int id) {
+        boolean estabaPendiente = estados.tiene(false, id);
+        Tarea tarea = almacen.marcarCompletada(id);
+        if (tarea != null) {
+            estados.completar(id);
+            if (estabaPendiente) {
+                fechas.completar(tarea);
+            }
+        }
+        return tarea;
+    }
+
+    private boolean aplicarBaja(int id) {
+        // El índice por fecha necesita la fecha, y el de texto la descripción.
+        Tarea tarea = almacen.buscar(id);
+        if (tarea == null || !almacen.eliminar(id)) {
+            return false;
+        }
+        estados.eliminar(id);
+        fechas.eliminar(tarea);
+        if (indiceTexto != null) {
+            indiceTexto.eliminar(tarea);
+        }
+        return true;
+    }
+
+    /**
+     * Si el diario ya creció demasiado, guardamos una foto nueva y lo vaciamos.
+     */
+    private void revisarDiario() {
+        if (diario != null
+                && diario.getRegistros() >= MINIMO_REGISTROS_PARA_COMPACTAR
+                && diario.getRegistros() > almacen.tamanio()) {
+            persistencia.compactarDiario(this.almacen, this.proximoId);
+            guardarIndiceSiCorresponde();
+        }
+    }
+
+    /**
+     * Para aplicar cambios que vienen de afuera (el diario, o el feed en una
+     * ReplicaTareas) sin volver a avisarle a los oyentes.
+     */
+    OyenteCambios aplicadorDeCambios() {
+        return new AplicadorDiario();
+    }
+
+    /**
+     * Repite sobre la memoria los cambios leídos del diario al arrancar.
+     * Si el programa se cortó justo después de guardar la foto pero antes
+     * de vaciar el diario, algunos cambios ya están en la foto: por eso
+     * cada operación se fija primero si ya estaba hecha.
+     */
+    private class AplicadorDiario implements OyenteCambios {
+
+        @Override
+        public void alAgregar(Tarea tarea) {
+            if (!almacen.contiene(tarea.getId())) {
+                aplicarAlta(tarea);
+            }
+            proximoId = Math.max(proximoId, tarea.getId() + 1);
+        }
+
+        @Override
+        public void alCompletar(int id) {
+            aplicarCompletada(id);
+        }
+
+        @Override
+        public void alEliminar(int id) {
+            aplicarBaja(id);
+        }
     }
 
     /**
@@ -103,7 +637,10 @@ public class TareaService {
     public List<Tarea> listarTodasLasTareas() {
         // Devuelve una copia para que no se pueda modificar la lista original
         // desde afuera por accidente (esto es una buena práctica).
-        return new ArrayList<>(this.tareas);
+        long inicio = MetricasTareas.empezar();
+        List<Tarea> copia = this.almacen.todas();
+        MetricasTareas.terminar(MetricasTareas.Operacion.LISTAR, inicio);
+        return copia;
     }
 
     /**
@@ -113,12 +650,201 @@ public class TareaService {
      * pasa el filtro o no (ej: tarea -> tarea.isCompletada())
      */
     public List<Tarea> listarTareasFiltradas(Predicate<Tarea> filtro) {
-        // Usamos la API Stream, que es la forma moderna de filtrar listas.
-        // 1. .stream() -> "Abrimos" la lista para operarla.
-        // 2. .filter(filtro) -> Dejamos pasar solo los elementos que cumplan la lambda.
-        // 3. .collect(Collectors.toList()) -> Volvemos a armar una lista con los resultados.
-        return this.tareas.stream()
-                .filter(filtro)
-                .collect(Collectors.toList());
+        long inicio = MetricasTareas.empezar();
+        try {
+            // Si es uno de los filtros conocidos, usamos el índice (mucho más rápido).
+            if (filtro == PENDIENTES) {
+                return listarPendientes();
+            }
+            if (filtro == COMPLETADAS) {
+                return listarCompletadas();
+            }
+            // Usamos la API Stream, que es la forma moderna de filtrar listas.
+            // 1. .stream() -> "Abrimos" la lista para operarla.
+            // 2. .filter(filtro) -> Dejamos pasar solo los elementos que cumplan la lambda.
+            // 3. .collect(Collectors.toList()) -> Volvemos a armar una lista con los resultados.
+            return this.almacen.stream()
+                    .filter(filtro)
+                    .collect(Collectors.toList());
+        } finally {
+            MetricasTareas.terminar(MetricasTareas.Operacion.LISTAR_FILTRADAS, inicio);
+        }
+    }
+
+    // --- Consultas por estado (usan el IndiceEstado) ---
+
+    /**
+     * Devuelve las tareas pendientes. Tarda según cuántas pendientes haya,
+     * no según el total de tareas.
+     */
+    public List<Tarea> listarPendientes() {
+        return listarPorEstado(false);
+    }
+
+    /**
+     * Devuelve las tareas completadas.
+     */
+    public List<Tarea> listarCompletadas() {
+        return listarPorEstado(true);
+    }
+
+    public int contarPendientes() {
+        return estados.contarPendientes();
+    }
+
+    public int contarCompletadas() {
+        return estados.contarCompletadas();
+    }
+
+    private List<Tarea> listarPorEstado(boolean completada) {
+        if (!estados.isConfiable()) {
+            // Los IDs no están en orden: recorremos todo para respetar el orden de la lista.
+            return this.almacen.stream()
+                    .filter(completada ? COMPLETADAS : PENDIENTES)
+                    .collect(Collectors.toList());
+        }
+        int cantidad = completada ? estados.contarCompletadas() : estados.contarPendientes();
+        List<Tarea> resultado = new ArrayList<>(cantidad);
+        for (int id = estados.siguiente(completada, 0); id >= 0; id = estados.siguiente(completada, id + 1)) {
+            resultado.add(almacen.buscar(id));
+        }
+        return resultado;
+    }
+
+    // --- Listados por páginas y "de a una" (sin copiar todas las tareas) ---
+
+    public int contarTareas() {
+        return almacen.tamanio();
+    }
+
+    /**
+     * Devuelve una página del listado, en orden de ID.
+     *
+     * @param filtro La regla (PENDIENTES, COMPLETADAS, otra lambda, o 'null' para todas).
+     * @param cursor PaginaTareas.DESDE_EL_PRINCIPIO para la primera página; para
+     *               las siguientes, el getCursor() de la página anterior.
+     * @param tamanioPagina Cuántas tareas como máximo.
+     */
+    public PaginaTareas listarPagina(Predicate<Tarea> filtro, int cursor, int tamanioPagina) {
+        long inicio = MetricasTareas.empezar();
+        Iterator<Tarea> siguientes = recorrerTareas(filtro, cursor).iterator();
+        List<Tarea> pagina = new ArrayList<>(tamanioPagina);
+        while (pagina.size() < tamanioPagina && siguientes.hasNext()) {
+            pagina.add(siguientes.next());
+        }
+        int ultimoId = pagina.isEmpty() ? cursor : pagina.get(pagina.size() - 1).getId();
+        // Si el recorrido tiene otra tarea más, hay otra página.
+        PaginaTareas resultado = new PaginaTareas(pagina, ultimoId, siguientes.hasNext());
+        MetricasTareas.terminar(MetricasTareas.Operacion.LISTAR_PAGINA, inicio);
+        return resultado;
+    }
+
+    /**
+     * Igual que listarTareasFiltradas, pero sin armar una lista: las tareas
+     * se van buscando a medida que se piden, así la primera está disponible
+     * enseguida aunque haya millones. No hay que modificar las tareas
+     * (agregar, completar, eliminar) mientras se recorre.
+     *
+     * @param filtro La regla, o 'null' para todas.
+     */
+    public Stream<Tarea> recorrerTareas(Predicate<Tarea> filtro) {
+        return recorrerTareas(filtro, PaginaTareas.DESDE_EL_PRINCIPIO);
+    }
+
+    /**
+     * Igual que recorrerTareas(filtro), pero sólo las tareas que vienen
+     * después del cursor de una PaginaTareas.
+     */
+    public Stream<Tarea> recorrerTareas(Predicate<Tarea> filtro, int cursor) {
+        if ((filtro == PENDIENTES || filtro == COMPLETADAS) && estados.isConfiable()) {
+            // Saltamos de bit en bit del índice por estado, empezando después del cursor.
+            boolean completada = filtro == COMPLETADAS;
+            if (cursor == Integer.MAX_VALUE) {
+                return Stream.empty();
+            }
+            int primero = estados.siguiente(completada, Math.max(0, cursor + 1));
+            return IntStream.iterate(primero, id -> id >= 0, id -> estados.siguiente(completada, id + 1))
+                    .mapToObj(almacen::buscar);
+        }
+        Stream<Tarea> tareas = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(almacen.iterarDesde(cursor), Spliterator.ORDERED), false);
+        return filtro == null ? tareas : tareas.filter(filtro);
+    }
+
+    // --- Consultas por fecha de creación (usan el IndiceFechas) ---
+
+    /**
+     * Las tareas creadas entre 'desde' y 'hasta' (las dos fechas incluidas),
+     * ordenadas por fecha y después por ID. Sólo se miran las tareas de
+     * esos días, y se buscan a medida que se piden (como recorrerTareas).
+     */
+    public Stream<Tarea> recorrerPorFechas(LocalDate desde, LocalDate hasta) {
+        return fechas.ids(desde, hasta).mapToObj(almacen::buscar);
+    }
+
+    /**
+     * Cuántas tareas se crearon entre esas fechas (sin recorrerlas).
+     */
+    public int contarPorFechas(LocalDate desde, LocalDate hasta) {
+        return fechas.contar(desde, hasta);
+    }
+
+    /**
+     * Para cada día con tareas entre esas fechas: cuántas se crearon y
+     * cuántas están pendientes o completadas. No toca ninguna Tarea.
+     */
+    public List<ResumenDia> resumenPorDia(LocalDate desde, LocalDate hasta) {
+        long inicio = MetricasTareas.empezar();
+        List<ResumenDia> resumen = fechas.resumen(desde, hasta);
+        MetricasTareas.terminar(MetricasTareas.Operacion.RESUMEN_FECHAS, inicio);
+        return resumen;
+    }
+
+    // --- Búsqueda por texto (usa el IndiceTexto) ---
+
+    /**
+     * Busca tareas por las palabras de su descripción, sin importar
+     * mayúsculas ni tildes. Una palabra terminada en '*' busca por prefijo.
+     *
+     * @param consulta Las palabras a buscar (ej: "comprar pan*").
+     * @param todasLasPalabras 'true' = deben estar todas; 'false' = alcanza con una.
+     * @param completada 'true' sólo completadas, 'false' sólo pendientes, 'null' todas.
+     * @param pagina Número de página (la primera es 0).
+     * @param tamanioPagina Cuántos resultados por página.
+     * @return Una página de resultados, de los más relevantes a los menos.
+     */
+    public ResultadoBusqueda buscarTareas(String consulta, boolean todasLasPalabras,
+                                          Boolean completada, int pagina, int tamanioPagina) {
+        long inicio = MetricasTareas.empezar();
+        if (indiceTexto == null) {
+            // Primera búsqueda: armamos el índice con todas las tareas.
+            indiceTexto = new IndiceTexto();
+            for (Tarea tarea : almacen) {
+                indiceTexto.agregar(tarea);
+            }
+        }
+        IndiceTexto.Coincidencias encontradas = indiceTexto.buscar(consulta, todasLasPalabras);
+
+        // Nos quedamos con las del estado pedido y las ordenamos por puntaje
+        // (de mayor a menor) y, si empatan, por ID. Cada resultado va en un
+        // 'long' con el puntaje (negado) arriba y el ID abajo: así un solo
+        // Arrays.sort ordena por los dos criterios a la vez.
+        long[] orden = new long[encontradas.cantidad()];
+        int total = 0;
+        for (int i = 0; i < encontradas.cantidad(); i++) {
+            int id = encontradas.getId(i);
+            if (completada == null || estados.tiene(completada, id)) {
+                orden[total++] = ((long) -encontradas.getPuntaje(i) << 32) | (id & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(orden, 0, total);
+
+        List<Tarea> tareasDeLaPagina = new ArrayList<>(tamanioPagina);
+        long desde = (long) pagina * tamanioPagina;
+        for (long i = desde; i < total && i < desde + tamanioPagina; i++) {
+            tareasDeLaPagina.add(almacen.buscar((int) orden[(int) i]));
+        }
+        MetricasTareas.terminar(MetricasTareas.Operacion.BUSCAR_TEXTO, inicio);
+        return new ResultadoBusqueda(tareasDeLaPagina, total, pagina, tamanioPagina);
     }
 }
@@ -0,0 +1,184 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Versión del TareaService que se puede usar desde muchos hilos a la vez
+ * (por ejemplo, desde un servidor que atiende muchos clientes).
+ *
+ * El TareaService común usa un 'int' para el próximo ID y una lista común:
+ * si dos hilos agregan al mismo tiempo, pueden repetir un ID o romper la lista.
+ * Acá usamos:
+ * - Un AtomicInteger para los IDs: 'getAndIncrement' nunca repite un número.
+ * - Un ConcurrentSkipListMap (un mapa ordenado por ID que soporta hilos).
+ *   Como los IDs se asignan en orden, recorrerlo da el mismo orden de siempre.
+ * - Tareas que no se modifican nunca: para completar una tarea armamos una
+ *   copia completada y la cambiamos en el mapa con 'replace(id, vieja, nueva)',
+ *   que sólo funciona si nadie la cambió en el medio. Así agregar,
+ *   completar, eliminar y listar no usan 'synchronized' (nadie espera a nadie).
+ *
+ * Las Tareas devueltas son de sólo lectura: no hay que llamar a setCompletada
+ * sobre ellas, sino a marcarComoCompletada.
+ */
+public class TareaServiceConcurrente {
+
+    private final ConcurrentSkipListMap<Integer, Tarea> tareas = new ConcurrentSkipListMap<>();
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+    private final GestorPersistencia persistencia = new GestorPersistencia();
+
+    /**
+     * Carga los datos del archivo. Se llama una vez al arrancar.
+     */
+    public synchronized void cargarDatos() {
+        ResultadoCarga carga = persistencia.cargar();
+        tareas.clear();
+        for (Tarea tarea : carga.getTareas()) {
+            tareas.put(tarea.getId(), tarea);
+        }
+        proximoId.set(carga.getProximoId());
+        // Si una sesión con --diario se cortó, sus cambios siguen en tareas.log:
+        // los repetimos y los pasamos a la foto antes de atender a nadie.
+        boolean habiaDiario = persistencia.recuperarDiarioPendiente(new AplicadorDiario()) > 0;
+        // Por las dudas el archivo se guardó mientras se agregaban tareas,
+        // nunca arrancamos por debajo del mayor ID que ya existe.
+        if (!tareas.isEmpty()) {
+            proximoId.set(Math.max(proximoId.get(), tareas.lastKey() + 1));
+        }
+        // Se compacta recién ahora, con el próximo ID ya al día: si no, la foto
+        // guardaría uno viejo y se volvería a dar el ID de una tarea que se
+        // agregó y se eliminó sólo en el diario.
+        if (habiaDiario) {
+            persistencia.compactarDiario(tareas.values(), proximoId.get());
+            persistencia.cerrarDiario();
+        }
+    }
+
+    /**
+     * Repite sobre el mapa los cambios leídos del diario (como en
+     * TareaService: si alguno ya estaba hecho, no pasa nada).
+     */
+    private class AplicadorDiario implements OyenteCambios {
+
+        @Override
+        public void alAgregar(Tarea tarea) {
+            tareas.putIfAbsent(tarea.getId(), tarea);
+            // Aunque después se elimine, su ID ya se usó: no se puede volver a dar.
+            proximoId.accumulateAndGet(tarea.getId() + 1, Math::max);
+        }
+
+        @Override
+        public void alCompletar(int id) {
+            Tarea actual = tareas.get(id);
+            if (actual != null && !actual.isCompletada()) {
+                tareas.put(id, new Tarea(id, actual.getDescripcion(), true, actual.getFechaCreacion()));
+            }
+        }
+
+        @Override
+        public void alEliminar(int id) {
+            tareas.remove(id);
+        }
+    }
+
+    /**
+     * Guarda los datos en el archivo. Los demás hilos pueden seguir
+     * trabajando mientras tanto (se guarda lo que había al recorrer el mapa).
+     */
+    public synchronized void guardarDatos() {
+        persistencia.guardar(tareas.values(), proximoId.get());
+    }
+
+    /**
+     * @throws IllegalArgumentException Si la descripción tiene saltos de línea.
+     */
+    public Tarea agregarTarea(String descripcion) {
+        Tarea.validarDescripcion(descripcion);
+        Tarea nuevaTarea = new Tarea(proximoId.getAndIncrement(), descripcion);
+        tareas.put(nuevaTarea.getId(), nuevaTarea);
+        return nuevaTarea;
+    }
+
+    /**
+     * Busca una tarea por su ID.
+     * @return La Tarea encontrada (nunca 'null').
+     * @throws TareaNoEncontradaException Si no la encuentra.
+     */
+    public Tarea buscarTarea(int id) throws TareaNoEncontradaException {
+        Tarea tarea = tareas.get(id);
+        if (tarea == null) {
+            throw noEncontrada(id);
+        }
+        return tarea;
+    }
+
+    public Tarea marcarComoCompletada(int id) throws TareaNoEncontradaException {
+        while (true) {
+            Tarea actual = buscarTarea(id);
+            if (actual.isCompletada()) {
+                return actual;
+            }
+            Tarea completada = new Tarea(actual.getId(), actual.getDescripcion(), true, actual.getFechaCreacion());
+            // Si otro hilo la cambió (o la borró) mientras tanto, 'replace'
+            // devuelve false y volvemos a intentar con la versión nueva.
+            if (tareas.replace(id, actual, completada)) {
+                return completada;
+            }
+        }
+    }
+
+    public void eliminarTarea(int id) throws TareaNoEncontradaException {
+        // 'remove' es atómico: si dos hilos borran la misma tarea, sólo uno gana.
+        if (tareas.remove(id) == null) {
+            throw noEncontrada(id);
+        }
+    }
+
+    /**
+     * Devuelve una copia de todas las tareas, en orden. No bloquea a nadie:
+     * si otro hilo cambia algo mientras copiamos, la copia puede o no incluirlo,
+     * pero nunca falla ni se rompe.
+     */
+    public List<Tarea> listarTodasLasTareas() {
+        return new ArrayList<>(tareas.values());
+    }
+
+    public List<Tarea> listarTareasFiltradas(Predicate<Tarea> filtro) {
+        return tareas.values().stream()
+                .filter(filtro)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Devuelve una página del listado, en orden de ID (ver PaginaTareas).
+     * Recorre el mapa directamente desde el cursor, sin copiarlo, y aunque
+     * otros hilos agreguen tareas mientras tanto, las páginas no se corren.
+     *
+     * @param filtro La regla, o 'null' para todas.
+     */
+    public PaginaTareas listarPagina(Predicate<Tarea> filtro, int cursor, int tamanioPagina) {
+        Iterator<Tarea> siguientes = tareas.tailMap(cursor, false).values().iterator();
+        List<Tarea> pagina = new ArrayList<>(tamanioPagina);
+        boolean hayMas = false;
+        while (siguientes.hasNext()) {
+            Tarea tarea = siguientes.next();
+            if (filtro != null && !filtro.test(tarea)) {
+                continue;
+            }
+            if (pagina.size() == tamanioPagina) {
+                hayMas = true; // Encontramos una más de las que entran
+                break;
+            }
+            pagina.add(tarea);
+        }
+        int ultimoId = pagina.isEmpty() ? cursor : pagina.get(pagina.size() - 1).getId();
+        return new PaginaTareas(pagina, ultimoId, hayMas);
+    }
+
+    private static TareaNoEncontradaException noEncontrada(int id) {
+        return new TareaNoEncontradaException("No se encontró ninguna tarea con el ID: " + id);
+    }
+}
@@ -0,0 +1,118 @@
+import benchmark.Casos;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Las operaciones que mide BenchmarkJmh (las mismas que BenchmarkTareas),
+ * del lado del programa. Ver benchmark.Casos para saber por qué están
+ * separadas.
+ *
+ * Igual que BenchmarkTareas, guardar y cargar usan tareas.txt en la carpeta
+ * actual: hay que correrlo en una carpeta vacía.
+ */
+public class CasosBenchmark implements Casos {
+
+    // Lo que imprimen las clases (ej: "[Archivo] Se guardaron...") no se mide.
+    private static final PrintStream SILENCIO = new PrintStream(OutputStream.nullOutputStream());
+
+    private List<Tarea> datos;
+    private String[] lineas;
+    private int[] idsAlAzar;
+    private boolean columnar;
+    private TareaService servicio;
+    private final GestorPersistencia persistencia = new GestorPersistencia();
+    private PrintStream consola;
+
+    @Override
+    public void preparar(int cantidad, double proporcionCompletadas, int largoDescripcion, boolean columnar) {
+        if (new File("tareas.txt").exists()) {
+            throw new IllegalStateException("Ya hay un tareas.txt en esta carpeta y las pruebas lo pisarían. "
+                    + "Ejecute el benchmark en una carpeta vacía.");
+        }
+        this.columnar = columnar;
+        datos = new GeneradorDatos(42).generar(cantidad, proporcionCompletadas, largoDescripcion);
+        lineas = new String[cantidad];
+        idsAlAzar = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            lineas[i] = datos.get(i).toFileString();
+            idsAlAzar[i] = i + 1;
+        }
+        Random azar = new Random(7);
+        for (int i = cantidad - 1; i > 0; i--) {
+            int j = azar.nextInt(i + 1);
+            int aux = idsAlAzar[i];
+            idsAlAzar[i] = idsAlAzar[j];
+            idsAlAzar[j] = aux;
+        }
+        consola = System.out;
+        System.setOut(SILENCIO);
+        persistencia.guardar(datos, cantidad + 1); // Para que "cargar" tenga qué leer
+    }
+
+    @Override
+    public void llenarServicio() {
+        servicio = new TareaService(false, columnar ? new AlmacenColumnar() : new AlmacenObjetos());
+        for (Tarea tarea : datos) {
+            Tarea nueva = servicio.agregarTarea(tarea.getDescripcion());
+            if (tarea.isCompletada()) {
+                try {
+                    servicio.marcarComoCompletada(nueva.getId());
+                } catch (TareaNoEncontradaException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void terminar() {
+        new File("tareas.txt").delete();
+        if (consola != null) {
+            System.setOut(consola);
+        }
+    }
+
+    @Override
+    public Object aTexto(int indice) {
+        return datos.get(indice % datos.size()).toFileString();
+    }
+
+    @Override
+    public Object desdeTexto(int indice) {
+        return Tarea.fromFileString(lineas[indice % lineas.length]);
+    }
+
+    @Override
+    public Object agregar(int indice) {
+        return servicio.agregarTarea(datos.get(indice % datos.size()).getDescripcion());
+    }
+
+    @Override
+    public Object completar(int indice) {
+        try {
+            return servicio.marcarComoCompletada(idsAlAzar[indice % idsAlAzar.length]);
+        } catch (TareaNoEncontradaException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int listarPendientes() {
+        return servicio.listarTareasFiltradas(TareaService.PENDIENTES).size();
+    }
+
+    @Override
+    public int guardar() {
+        persistencia.guardar(datos, datos.size() + 1);
+        return datos.size();
+    }
+
+    @Override
+    public int cargar() {
+        return persistencia.cargar().getTareas().size();
+    }
+}
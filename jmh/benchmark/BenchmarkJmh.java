@@ -0,0 +1,112 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Las mismas pruebas que BenchmarkTareas, pero con JMH: cada prueba corre
+ * en una JVM nueva (fork), con vueltas de calentamiento medidas aparte, y
+ * JMH se encarga de que la JVM no se "ahorre" el trabajo (por eso cada
+ * método devuelve su resultado).
+ *
+ * Se compila con el perfil "jmh" del pom.xml, desde una carpeta vacía:
+ *   mvn -P jmh package
+ *   java -jar target/benchmarks.jar                         (todas)
+ *   java -jar target/benchmarks.jar guardar -p cantidad=1000000
+ *   java -jar target/benchmarks.jar -p columnar=true listar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class BenchmarkJmh {
+
+    @Param("100000")
+    private int cantidad;
+
+    @Param("0.3")
+    private double proporcionCompletadas;
+
+    @Param("40")
+    private int largoDescripcion;
+
+    @Param("false")
+    private boolean columnar;
+
+    private Casos casos;
+    private int indice;
+
+    @Setup(Level.Trial)
+    public void preparar() throws ReflectiveOperationException {
+        // CasosBenchmark está en el paquete por defecto: hay que buscarla por su nombre.
+        casos = (Casos) Class.forName("CasosBenchmark").getDeclaredConstructor().newInstance();
+        casos.preparar(cantidad, proporcionCompletadas, largoDescripcion, columnar);
+    }
+
+    @Setup(Level.Iteration)
+    public void llenarServicio() {
+        casos.llenarServicio(); // Cada vuelta empieza con el servicio lleno
+        indice = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        casos.terminar();
+    }
+
+    // --- Tarea (ns por tarea) ---
+
+    @Benchmark
+    public Object tareaToFileString() {
+        return casos.aTexto(indice++);
+    }
+
+    @Benchmark
+    public Object tareaFromFileString() {
+        return casos.desdeTexto(indice++);
+    }
+
+    // --- TareaService (ns por operación) ---
+
+    @Benchmark
+    public Object servicioAgregarTarea() {
+        return casos.agregar(indice++);
+    }
+
+    @Benchmark
+    public Object servicioMarcarComoCompletada() {
+        return casos.completar(indice++);
+    }
+
+    @Benchmark
+    public int servicioListarPendientes() {
+        return casos.listarPendientes();
+    }
+
+    // --- GestorPersistencia (ns por archivo completo) ---
+
+    @Benchmark
+    public int persistenciaGuardar() {
+        return casos.guardar();
+    }
+
+    @Benchmark
+    public int persistenciaCargar() {
+        return casos.cargar();
+    }
+}
@@ -0,0 +1,37 @@
+package benchmark;
+
+/**
+ * Lo que miden los benchmarks de JMH (ver BenchmarkJmh).
+ *
+ * JMH no acepta benchmarks en el paquete por defecto, y desde un paquete con
+ * nombre no se pueden usar las clases del programa (que están en el paquete
+ * por defecto). Por eso los benchmarks sólo conocen esta interfaz, y la
+ * implementa CasosBenchmark, que sí está en el paquete por defecto.
+ */
+public interface Casos {
+
+    /**
+     * Inventa los datos de prueba (con GeneradorDatos) y los deja listos.
+     */
+    void preparar(int cantidad, double proporcionCompletadas, int largoDescripcion, boolean columnar);
+
+    /** Arma un servicio nuevo con todas las tareas de prueba. */
+    void llenarServicio();
+
+    /** Borra los archivos que hayan quedado en la carpeta. */
+    void terminar();
+
+    Object aTexto(int indice);
+
+    Object desdeTexto(int indice);
+
+    Object agregar(int indice);
+
+    Object completar(int indice);
+
+    int listarPendientes();
+
+    int guardar();
+
+    int cargar();
+}